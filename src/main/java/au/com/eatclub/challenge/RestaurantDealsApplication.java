@@ -1,16 +1,28 @@
 package au.com.eatclub.challenge;
 
 
+import au.com.eatclub.challenge.config.NativeHints;
+import au.com.eatclub.challenge.repository.NaturalIdRepositoryImpl;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 /**
  * The `RestaurantDealsApplication` class serves as the entry point for the
  * Restaurant Deals application. It is a Spring Boot application that
  * initializes and runs the application context.
+ * <p>
+ * Repositories are declared here, rather than in a separate configuration class,
+ * so that test slices such as `@DataJpaTest` use the same repository base class.
+ * </p>
  */
 @SpringBootApplication
+@EnableJpaRepositories(repositoryBaseClass = NaturalIdRepositoryImpl.class)
+@EnableScheduling
+@ImportRuntimeHints(NativeHints.class)
 public class RestaurantDealsApplication {
 
     /**
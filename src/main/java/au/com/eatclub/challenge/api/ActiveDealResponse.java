@@ -2,6 +2,8 @@ package au.com.eatclub.challenge.api;
 
         import au.com.eatclub.challenge.domain.Deal;
         import au.com.eatclub.challenge.domain.Restaurant;
+        import au.com.eatclub.challenge.snapshot.OffHeapDealStore;
+        import com.fasterxml.jackson.annotation.JsonFilter;
 
         /**
          * A record representing the response for an active deal.
@@ -19,6 +21,7 @@ package au.com.eatclub.challenge.api;
          * @param lightning Indicates whether the deal is a lightning deal.
          * @param qtyLeft The quantity of the deal left.
          */
+        @JsonFilter(DealFields.FILTER_ID)
         public record ActiveDealResponse(
                 String restaurantObjectId,
                 String restaurantName,
@@ -46,8 +49,8 @@ package au.com.eatclub.challenge.api;
                         r.name(),
                         r.address1(),
                         r.suburb(),
-                        r.openTime() != null ? r.openTime().toString() : null,
-                        r.closeTime() != null ? r.closeTime().toString() : null,
+                        TimeFormat.format(r.openTime()),
+                        TimeFormat.format(r.closeTime()),
                         d.objectId(),
                         d.discount(),
                         d.dineIn(),
@@ -55,4 +58,52 @@ package au.com.eatclub.challenge.api;
                         d.qtyLeft()
                 );
             }
+
+            /**
+             * Creates an instance of ActiveDealResponse from off-heap restaurant and deal views.
+             *
+             * @param r The restaurant view, positioned at the deal's restaurant.
+             * @param d The deal view, positioned at the deal.
+             * @return A new ActiveDealResponse instance populated with data read from the views.
+             */
+            public static ActiveDealResponse from(OffHeapDealStore.RestaurantView r, OffHeapDealStore.DealView d) {
+                return new ActiveDealResponse(
+                        r.objectId(),
+                        r.name(),
+                        r.address1(),
+                        r.suburb(),
+                        TimeFormat.format(r.openTime()),
+                        TimeFormat.format(r.closeTime()),
+                        d.objectId(),
+                        d.discount(),
+                        d.dineIn(),
+                        d.lightning(),
+                        d.qtyLeft()
+                );
+            }
+
+            /**
+             * Returns this response with a different quantity left, e.g. the live stock after claims.
+             *
+             * @param qtyLeft The quantity of the deal left.
+             * @return this instance if the quantity is unchanged, otherwise a copy with the new quantity.
+             */
+            public ActiveDealResponse withQtyLeft(int qtyLeft) {
+                if (qtyLeft == this.qtyLeft) {
+                    return this;
+                }
+                return new ActiveDealResponse(
+                        restaurantObjectId,
+                        restaurantName,
+                        restaurantAddress1,
+                        restaurantSuburb,
+                        restaurantOpen,
+                        restaurantClose,
+                        dealObjectId,
+                        discount,
+                        dineIn,
+                        lightning,
+                        qtyLeft
+                );
+            }
         }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package au.com.eatclub.challenge.api;
+
+/**
+ * A record representing the response to a successful deal claim.
+ *
+ * @param dealObjectId The unique identifier of the claimed deal.
+ * @param qtyLeft      The quantity of the deal left after the claim.
+ */
+public record ClaimResponse(
+        String dealObjectId,
+        int qtyLeft
+) { }
@@ -1,61 +1,202 @@
 package au.com.eatclub.challenge.api;
 
 import au.com.eatclub.challenge.loader.TimeParser;
+import au.com.eatclub.challenge.service.DealInventory;
 import au.com.eatclub.challenge.service.DealService;
+import au.com.eatclub.challenge.service.DealTransitions;
 import au.com.eatclub.challenge.service.PeakTimeResult;
+import au.com.eatclub.challenge.service.Regions;
+import au.com.eatclub.challenge.service.TopDeals;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalTime;
+import java.util.List;
 
 /**
  * REST controller for managing deals.
- * Provides endpoints to retrieve active deals based on the time of day.
+ * Provides endpoints to retrieve active deals based on the time of day, to rank the best of
+ * them, to follow changes to them as they happen, and to claim them.
  */
 @RestController
 @RequestMapping("/api/deals")
 public class DealController {
 
     private final DealService service;
+    private final DealTransitions transitions;
+    private final TopDeals topDeals;
+    private final Regions regions;
 
     /**
-     * Constructs a new DealController with the specified DealService.
+     * Constructs a new DealController with the specified DealService, DealTransitions, TopDeals
+     * and Regions.
      *
-     * @param service the service used to manage deals
+     * @param service     the service used to manage deals
+     * @param transitions the per-minute changes to the set of active deals
+     * @param topDeals    the per-minute ranking of the best active deals
+     * @param regions     the regional datasets served next to the default feed
      */
-    public DealController(DealService service) {
+    public DealController(DealService service, DealTransitions transitions, TopDeals topDeals, Regions regions) {
         this.service = service;
+        this.transitions = transitions;
+        this.topDeals = topDeals;
+        this.regions = regions;
     }
 
     /**
-     * Retrieves a list of active deals for a given time of day.
+     * Retrieves a list of active deals for a given time of day, optionally grouped by restaurant
+     * and projected onto a subset of fields.
+     * <p>
+     * Each phase of the request is timed (see {@link RequestPhases}) and, if enabled, reported in
+     * a {@code Server-Timing} header.
+     * </p>
      *
      * @param timeOfDay the time of day in string format (e.g., "14:30")
-     * @return a response containing the list of active deals
+     * @param fields    comma-separated names of the fields to include (e.g. "dealObjectId,qtyLeft"),
+     *                  or null for all fields
+     * @param group     "restaurant" to send each restaurant's fields once with its deals,
+     *                  or null for one flat entry per deal
+     * @param region    the name of a configured region (see {@link Regions}), or null for the
+     *                  default feed
+     * @param request   the current request, carrying its {@link RequestPhases}
+     * @return a response containing the active deals
      */
     @GetMapping
-    public ActiveDealListResponse getActiveDeals(@RequestParam("timeOfDay") String timeOfDay) {
-        LocalTime t = TimeParser.parse(timeOfDay);
-        return new ActiveDealListResponse(service.findActiveDeals(t));
+    public Object getActiveDeals(
+            @RequestParam("timeOfDay") String timeOfDay,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "group", required = false) String group,
+            @RequestParam(value = "region", required = false) String region,
+            HttpServletRequest request
+    ) {
+        RequestPhases phases = RequestPhases.of(request);
+        ActiveDealsQuery query = phases.time(RequestPhases.Phase.PARSE, () -> {
+            if (group != null && !group.equals("restaurant")) {
+                throw new InvalidParameterException("Unknown group '" + group + "'; expected 'restaurant'");
+            }
+            Regions.Shard shard = region == null ? null : regions.get(region).orElseThrow(() ->
+                    new InvalidParameterException("Unknown region '" + region + "'; expected one of " + regions.names()));
+            FilterProvider projection = fields == null ? null : DealFields.select(fields);
+            return new ActiveDealsQuery(TimeParser.parse(timeOfDay), shard, projection);
+        });
+        // Regional feeds are only fetched by their own refresh thread, so until a region's first
+        // load current() throws DatasetNotReadyException, answered like any other 503 not_ready
+        DealService source = query.shard() != null ? query.shard().service() : service;
+
+        DealService.CurrentDeals current = phases.time(RequestPhases.Phase.ACQUIRE, source::current);
+        List<ActiveDealResponse> deals = phases.time(RequestPhases.Phase.FILTER, () -> current.activeAt(query.time()));
+        Object body = phases.time(RequestPhases.Phase.BUILD, () -> {
+            Object response = group == null
+                    ? new ActiveDealListResponse(deals)
+                    : new GroupedDealListResponse(RestaurantDealsResponse.group(deals));
+            if (query.projection() == null) {
+                return response;
+            }
+            MappingJacksonValue projected = new MappingJacksonValue(response);
+            projected.setFilters(query.projection());
+            return projected;
+        });
+        return phases.serializing(body);
+    }
+
+    // The parameters of getActiveDeals, once validated
+    private record ActiveDealsQuery(LocalTime time, Regions.Shard shard, FilterProvider projection) { }
+
+    /**
+     * Retrieves the best deals active at a given time of day, best first.
+     * <p>
+     * Deals are ranked by {@link TopDeals#score(int, boolean, int)}, from rankings precomputed
+     * per minute of the day. Reading the rankings is timed as the
+     * {@link RequestPhases.Phase#FILTER filter} phase.
+     * </p>
+     *
+     * @param timeOfDay the time of day (e.g. "14:30"), or null for now
+     * @param k         the number of deals wanted, from 1 to {@value TopDeals#MAX_K}
+     * @param request   the current request, carrying its {@link RequestPhases}
+     * @return a response containing at most {@code k} active deals
+     */
+    @GetMapping("/top")
+    public ActiveDealListResponse getTopDeals(
+            @RequestParam(value = "timeOfDay", required = false) String timeOfDay,
+            @RequestParam(value = "k", defaultValue = "10") int k,
+            HttpServletRequest request
+    ) {
+        RequestPhases phases = RequestPhases.of(request);
+        LocalTime t = phases.time(RequestPhases.Phase.PARSE, () -> {
+            if (k < 1 || k > TopDeals.MAX_K) {
+                throw new InvalidParameterException("k must be between 1 and " + TopDeals.MAX_K + ": " + k);
+            }
+            return timeOfDay == null ? LocalTime.now() : TimeParser.parse(timeOfDay);
+        });
+        List<ActiveDealResponse> deals = phases.time(RequestPhases.Phase.FILTER, () -> topDeals.top(t, k));
+        ActiveDealListResponse body = phases.time(RequestPhases.Phase.BUILD, () -> new ActiveDealListResponse(deals));
+        return phases.serializing(body);
+    }
+
+    /**
+     * Streams the changes to the set of active deals as Server-Sent Events.
+     * <p>
+     * At each minute boundary a {@code deals} event lists the deals that became active and those
+     * that stopped being active; minutes without changes send a comment instead, which keeps
+     * idle connections open. Clients take the initial state from
+     * {@link #getActiveDeals(String, String, String, String, HttpServletRequest)}.
+     * </p>
+     *
+     * @return an endless stream of per-minute changes
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DealTransitionResponse>> streamActiveDeals() {
+        return transitions.stream();
     }
 
     /**
      * Retrieves the peak time during which the highest number of deals are active.
      *
      * This endpoint calculates the time range (start and end) representing the peak period
-     * of deal activity, along with the count of deals active during that period.
+     * of deal activity, along with the count of deals active during that period. The calculation
+     * is timed as the {@link RequestPhases.Phase#FILTER filter} phase.
      *
+     * @param request the current request, carrying its {@link RequestPhases}
      * @return a `PeakTimeResponse` containing:
      *         - the start time of the peak period as a string
      *         - the end time of the peak period as a string
      *         - the count of deals active during the peak period
      */
     @GetMapping("/peak-time")
-    public PeakTimeResponse getPeakTime() {
-        PeakTimeResult result = service.calculatePeakTime();
-        return new PeakTimeResponse(
-                result.start().toString(),
-                result.end().toString(),
+    public PeakTimeResponse getPeakTime(HttpServletRequest request) {
+        RequestPhases phases = RequestPhases.of(request);
+        PeakTimeResult result = phases.time(RequestPhases.Phase.FILTER, service::calculatePeakTime);
+        PeakTimeResponse body = phases.time(RequestPhases.Phase.BUILD, () -> new PeakTimeResponse(
+                TimeFormat.format(result.start()),
+                TimeFormat.format(result.end()),
                 result.count()
-        );
+        ));
+        return phases.serializing(body);
+    }
+
+    /**
+     * Claims one unit of a deal, decrementing its quantity left.
+     *
+     * @param objectId the object id of the deal to claim
+     * @return 200 with the quantity left after the claim, 404 if the deal is unknown,
+     *         or 409 if it is sold out
+     */
+    @PostMapping("/{objectId}/claim")
+    public ResponseEntity<Object> claim(@PathVariable("objectId") String objectId) {
+        DealInventory.ClaimResult result = service.claim(objectId);
+        return switch (result.status()) {
+            case CLAIMED -> ResponseEntity.ok(new ClaimResponse(objectId, result.qtyLeft()));
+            case SOLD_OUT -> ResponseEntity.status(HttpStatus.CONFLICT).body(
+                    new GlobalExceptionHandler.ErrorResponse("sold_out", "Deal " + objectId + " is sold out"));
+            case UNKNOWN_DEAL -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(
+                    new GlobalExceptionHandler.ErrorResponse("deal_not_found", "No deal with objectId " + objectId));
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package au.com.eatclub.challenge.api;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Projection of deal responses onto the fields a client asks for with {@code fields=}.
+ * <p>
+ * Deal response records carry {@code @JsonFilter(FILTER_ID)}. The application's ObjectMapper
+ * serializes every property by default; a request that names fields is serialized with a filter
+ * that keeps only those. Field names are those of {@link ActiveDealResponse}; the grouped shape
+ * ({@link RestaurantDealsResponse}, {@link DealSummaryResponse}) uses the same names.
+ * </p>
+ */
+public final class DealFields {
+
+    /**
+     * The filter id carried by deal response records.
+     */
+    public static final String FILTER_ID = "dealFields";
+
+    /**
+     * The filters that serialize every field, installed on the application's ObjectMapper.
+     */
+    public static final FilterProvider ALL = new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+
+    private static final Set<String> NAMES = Arrays.stream(ActiveDealResponse.class.getRecordComponents())
+            .map(RecordComponent::getName)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    // Always kept in the grouped shape, which would otherwise lose its deals
+    private static final String DEALS = "deals";
+
+    private DealFields() {
+    }
+
+    /**
+     * Parses a {@code fields=} parameter into the filters that keep only the named fields.
+     *
+     * @param fields comma-separated field names, e.g. {@code dealObjectId,discount,qtyLeft}
+     * @return the filters to serialize the response with
+     * @throws InvalidParameterException if the list is empty or names an unknown field
+     */
+    public static FilterProvider select(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.strip();
+            if (!NAMES.contains(name)) {
+                throw new InvalidParameterException(
+                        "Unknown field '" + name + "'; expected a comma-separated list of " + NAMES);
+            }
+            selected.add(name);
+        }
+        selected.add(DEALS);
+        return new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+    }
+}
@@ -0,0 +1,31 @@
+package au.com.eatclub.challenge.api;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+/**
+ * A record representing one deal within a {@link RestaurantDealsResponse}: the deal fields of an
+ * {@link ActiveDealResponse}, under the same names.
+ *
+ * @param dealObjectId The unique identifier of the deal.
+ * @param discount     The discount percentage offered in the deal.
+ * @param dineIn       Indicates whether the deal is for dine-in customers.
+ * @param lightning    Indicates whether the deal is a lightning deal.
+ * @param qtyLeft      The quantity of the deal left.
+ */
+@JsonFilter(DealFields.FILTER_ID)
+public record DealSummaryResponse(
+        String dealObjectId,
+        int discount,
+        boolean dineIn,
+        boolean lightning,
+        int qtyLeft
+) {
+
+    /**
+     * @param d an active deal
+     * @return the deal fields of the given active deal
+     */
+    public static DealSummaryResponse from(ActiveDealResponse d) {
+        return new DealSummaryResponse(d.dealObjectId(), d.discount(), d.dineIn(), d.lightning(), d.qtyLeft());
+    }
+}
@@ -0,0 +1,16 @@
+package au.com.eatclub.challenge.api;
+
+import java.util.List;
+
+/**
+ * A record representing the deals that started or stopped being active at one minute.
+ *
+ * @param time        The minute of the transition, formatted as {@code HH:mm}.
+ * @param activated   The deals that became active, with their current quantity left.
+ * @param deactivated The object ids of the deals that stopped being active.
+ */
+public record DealTransitionResponse(
+        String time,
+        List<ActiveDealResponse> activated,
+        List<String> deactivated
+) { }
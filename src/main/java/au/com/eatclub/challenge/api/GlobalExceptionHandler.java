@@ -1,5 +1,6 @@
 package au.com.eatclub.challenge.api;
 
+import au.com.eatclub.challenge.loader.DatasetNotReadyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +28,39 @@ public class GlobalExceptionHandler {
                 );
     }
 
+    /**
+     * Handles `InvalidParameterException` exceptions thrown by any controller.
+     *
+     * @param ex the `InvalidParameterException` that was thrown
+     * @return a `ResponseEntity` containing an error response with a
+     *         `BAD_REQUEST` HTTP status and a descriptive error message
+     */
+    @ExceptionHandler(InvalidParameterException.class)
+    public ResponseEntity<Object> handleInvalidParameter(InvalidParameterException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(
+                        new ErrorResponse("invalid_parameter", ex.getMessage())
+                );
+    }
+
+    /**
+     * Handles `DatasetNotReadyException` exceptions, thrown while the first dataset is still
+     * being loaded.
+     *
+     * @param ex the `DatasetNotReadyException` that was thrown
+     * @return a `ResponseEntity` containing an error response with a
+     *         `SERVICE_UNAVAILABLE` HTTP status
+     */
+    @ExceptionHandler(DatasetNotReadyException.class)
+    public ResponseEntity<Object> handleNotReady(DatasetNotReadyException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(
+                        new ErrorResponse("not_ready", ex.getMessage())
+                );
+    }
+
     /**
      * A record representing the structure of an error response.
      *
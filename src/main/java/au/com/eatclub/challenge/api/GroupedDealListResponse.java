@@ -0,0 +1,12 @@
+package au.com.eatclub.challenge.api;
+
+import java.util.List;
+
+/**
+ * A record representing the response for a list of active deals grouped by restaurant.
+ *
+ * @param restaurants The restaurants with active deals, each with its deals.
+ */
+public record GroupedDealListResponse(
+        List<RestaurantDealsResponse> restaurants
+) {}
@@ -0,0 +1,14 @@
+package au.com.eatclub.challenge.api;
+
+/**
+ * Thrown when a request parameter other than the time of day has an unsupported value.
+ */
+public class InvalidParameterException extends IllegalArgumentException {
+
+    /**
+     * @param message a description of the invalid value and what is accepted instead
+     */
+    public InvalidParameterException(String message) {
+        super(message);
+    }
+}
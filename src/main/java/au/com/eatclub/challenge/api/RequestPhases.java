@@ -0,0 +1,175 @@
+package au.com.eatclub.challenge.api;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * The time one request spends in each phase of its handling.
+ * <p>
+ * Every phase is an {@link Observation} named {@value #OBSERVATION} with a {@code phase} key, so
+ * it is recorded as a timer under {@code /actuator/metrics} and, with a tracing bridge on the
+ * classpath, as a child span of the request's span. Its duration is also kept here for the
+ * {@code Server-Timing} header written by {@link ServerTimingFilter}.
+ * </p>
+ * <p>
+ * An instance belongs to a single request thread and is not thread-safe. Requests not timed by
+ * the filter use {@link #NONE}, which records nothing.
+ * </p>
+ */
+public final class RequestPhases {
+
+    /**
+     * The phases of a request, in the order they happen.
+     */
+    public enum Phase {
+        /** Validating the parameters and parsing the time of day. */
+        PARSE,
+        /** Reading the current dataset and its stock levels. */
+        ACQUIRE,
+        /** Selecting the matching deals, by scanning or from a precomputed index. */
+        FILTER,
+        /** Building the response body, grouped or projected if asked. */
+        BUILD,
+        /** Encoding the response body, from the controller's return to the end of the write. */
+        SERIALIZE;
+
+        private final String metricName = name().toLowerCase(Locale.ROOT);
+    }
+
+    /** The name of the phase observations. */
+    public static final String OBSERVATION = "deals.request.phase";
+
+    /** Phases of a request that is not timed: nothing is observed or recorded. */
+    public static final RequestPhases NONE = new RequestPhases(ObservationRegistry.NOOP);
+
+    static final String ATTRIBUTE = RequestPhases.class.getName();
+
+    private static final Timer NOT_TIMED = new Timer(null, null, null);
+
+    private final ObservationRegistry registry;
+    private final long[] nanos = new long[Phase.values().length];
+    private final boolean[] timed = new boolean[Phase.values().length];
+    private Timer serialize;
+
+    /**
+     * Constructs the phases of a request, observed in the given registry.
+     *
+     * @param registry the registry the phase observations are reported to
+     */
+    public RequestPhases(ObservationRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Returns the phases of the given request.
+     *
+     * @param request the current request
+     * @return the phases the filter attached to the request, or {@link #NONE}
+     */
+    public static RequestPhases of(HttpServletRequest request) {
+        Object phases = request.getAttribute(ATTRIBUTE);
+        return phases instanceof RequestPhases p ? p : NONE;
+    }
+
+    /**
+     * Runs one phase of the request and times it. A phase run more than once is reported with
+     * the total of its durations. The phase ends when the step returns or throws.
+     *
+     * @param phase the phase the step belongs to
+     * @param step  the work done in the phase
+     * @param <T>   the type of the step's result
+     * @return the step's result
+     */
+    public <T> T time(Phase phase, Supplier<T> step) {
+        Timer timer = start(phase);
+        try {
+            return step.get();
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private Timer start(Phase phase) {
+        if (this == NONE) {
+            return NOT_TIMED;
+        }
+        Observation observation = Observation.createNotStarted(OBSERVATION, registry)
+                .contextualName("deals " + phase.metricName)
+                .lowCardinalityKeyValue("phase", phase.metricName)
+                .start();
+        return new Timer(this, phase, observation);
+    }
+
+    /**
+     * Starts the {@link Phase#SERIALIZE serialize} phase, which {@link #finish()} ends once the
+     * response has been written.
+     *
+     * @param body the response body the controller returns
+     * @param <T>  the type of the body
+     * @return the body
+     */
+    public <T> T serializing(T body) {
+        serialize = start(Phase.SERIALIZE);
+        return body;
+    }
+
+    /**
+     * Ends the serialize phase, if it was started.
+     */
+    void finish() {
+        if (serialize != null) {
+            serialize.stop();
+            serialize = null;
+        }
+    }
+
+    /**
+     * @return the value of a {@code Server-Timing} header listing the duration of every phase
+     *         timed, in milliseconds, e.g. {@code parse;dur=0.015, acquire;dur=0.002}
+     */
+    String header() {
+        StringBuilder header = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            if (timed[phase.ordinal()]) {
+                if (!header.isEmpty()) {
+                    header.append(", ");
+                }
+                header.append(phase.metricName).append(";dur=")
+                        .append(String.format(Locale.ROOT, "%.3f", nanos[phase.ordinal()] / 1e6));
+            }
+        }
+        return header.toString();
+    }
+
+    /**
+     * A started phase, ended by {@link #stop()}.
+     */
+    private static final class Timer {
+
+        private final RequestPhases phases;
+        private final Phase phase;
+        private final Observation observation;
+        private final long start = System.nanoTime();
+        private boolean stopped;
+
+        private Timer(RequestPhases phases, Phase phase, Observation observation) {
+            this.phases = phases;
+            this.phase = phase;
+            this.observation = observation;
+        }
+
+        void stop() {
+            if (phases == null || stopped) {
+                return;
+            }
+            stopped = true;
+            phases.nanos[phase.ordinal()] += System.nanoTime() - start;
+            phases.timed[phase.ordinal()] = true;
+            observation.stop();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package au.com.eatclub.challenge.api;
+
+import au.com.eatclub.challenge.loader.TimeParser;
+import au.com.eatclub.challenge.service.RestaurantSearch;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalTime;
+
+/**
+ * REST controller for finding restaurants.
+ */
+@RestController
+@RequestMapping("/api/restaurants")
+public class RestaurantController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final RestaurantSearch search;
+
+    /**
+     * Constructs a new RestaurantController with the specified RestaurantSearch.
+     *
+     * @param search the search index over the current dataset
+     */
+    public RestaurantController(RestaurantSearch search) {
+        this.search = search;
+    }
+
+    /**
+     * Finds restaurants by name, suburb or cuisine, as the user types.
+     *
+     * @param q         the search text; each word matches the start of a word (e.g. "thai ric")
+     * @param timeOfDay the time at which deals must be active (e.g. "14:30"), or null for now
+     * @param limit     the maximum number of restaurants returned, from 1 to 100
+     * @return the matching restaurants with their active deals
+     */
+    @GetMapping("/search")
+    public RestaurantSearchResponse search(
+            @RequestParam("q") String q,
+            @RequestParam(value = "timeOfDay", required = false) String timeOfDay,
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        if (q.isBlank()) {
+            throw new InvalidParameterException("q must not be empty");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidParameterException("limit must be between 1 and " + MAX_LIMIT + ": " + limit);
+        }
+        LocalTime t = timeOfDay == null ? LocalTime.now() : TimeParser.parse(timeOfDay);
+        return new RestaurantSearchResponse(q, search.search(q, t, limit));
+    }
+}
@@ -0,0 +1,64 @@
+package au.com.eatclub.challenge.api;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A record representing a restaurant and its active deals, so the restaurant fields are sent once
+ * rather than repeated for every deal. Field names are those of {@link ActiveDealResponse}.
+ *
+ * @param restaurantObjectId The unique identifier of the restaurant.
+ * @param restaurantName     The name of the restaurant.
+ * @param restaurantAddress1 The primary address of the restaurant.
+ * @param restaurantSuburb   The suburb where the restaurant is located.
+ * @param restaurantOpen     The opening time of the restaurant (as a string).
+ * @param restaurantClose    The closing time of the restaurant (as a string).
+ * @param deals              The restaurant's active deals.
+ */
+@JsonFilter(DealFields.FILTER_ID)
+public record RestaurantDealsResponse(
+        String restaurantObjectId,
+        String restaurantName,
+        String restaurantAddress1,
+        String restaurantSuburb,
+        String restaurantOpen,
+        String restaurantClose,
+        List<DealSummaryResponse> deals
+) {
+
+    /**
+     * Groups active deals by restaurant, keeping the order of both. Deals of one restaurant are
+     * adjacent in the results of {@code DealService.findActiveDeals}, so grouping is a single pass.
+     *
+     * @param deals active deals, with each restaurant's deals adjacent
+     * @return one entry per run of deals from the same restaurant
+     */
+    public static List<RestaurantDealsResponse> group(List<ActiveDealResponse> deals) {
+        List<RestaurantDealsResponse> result = new ArrayList<>();
+        int start = 0;
+        while (start < deals.size()) {
+            ActiveDealResponse first = deals.get(start);
+            int end = start + 1;
+            while (end < deals.size() && deals.get(end).restaurantObjectId().equals(first.restaurantObjectId())) {
+                end++;
+            }
+            List<DealSummaryResponse> summaries = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                summaries.add(DealSummaryResponse.from(deals.get(i)));
+            }
+            result.add(new RestaurantDealsResponse(
+                    first.restaurantObjectId(),
+                    first.restaurantName(),
+                    first.restaurantAddress1(),
+                    first.restaurantSuburb(),
+                    first.restaurantOpen(),
+                    first.restaurantClose(),
+                    summaries
+            ));
+            start = end;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package au.com.eatclub.challenge.api;
+
+import java.util.List;
+
+/**
+ * A record representing a restaurant found by a search, with its currently active deals.
+ *
+ * @param restaurantObjectId The unique identifier of the restaurant.
+ * @param restaurantName     The name of the restaurant.
+ * @param restaurantAddress1 The primary address of the restaurant.
+ * @param restaurantSuburb   The suburb where the restaurant is located.
+ * @param cuisines           The cuisines the restaurant serves.
+ * @param restaurantOpen     The opening time of the restaurant (as a string).
+ * @param restaurantClose    The closing time of the restaurant (as a string).
+ * @param activeDeals        The restaurant's deals active at the time of the search.
+ */
+public record RestaurantMatchResponse(
+        String restaurantObjectId,
+        String restaurantName,
+        String restaurantAddress1,
+        String restaurantSuburb,
+        List<String> cuisines,
+        String restaurantOpen,
+        String restaurantClose,
+        List<DealSummaryResponse> activeDeals
+) { }
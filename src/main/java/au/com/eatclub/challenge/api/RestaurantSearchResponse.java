@@ -0,0 +1,14 @@
+package au.com.eatclub.challenge.api;
+
+import java.util.List;
+
+/**
+ * A record representing the response to a restaurant search.
+ *
+ * @param query       The query as received.
+ * @param restaurants The matching restaurants, with their active deals.
+ */
+public record RestaurantSearchResponse(
+        String query,
+        List<RestaurantMatchResponse> restaurants
+) { }
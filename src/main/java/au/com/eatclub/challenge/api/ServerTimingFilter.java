@@ -0,0 +1,83 @@
+package au.com.eatclub.challenge.api;
+
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Times the phases of every {@code /api/deals} request (see {@link RequestPhases}) and, when
+ * {@code deals.server-timing.enabled} is set, reports them in a {@code Server-Timing} response
+ * header, which browser developer tools show next to the request.
+ * <p>
+ * The serialize phase only ends once the body has been written, so with the header enabled the
+ * body is buffered and sent after the header. The event stream ({@code /api/deals/stream}) is
+ * never timed, as it must not be buffered.
+ * </p>
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private static final String DEALS = "/api/deals";
+    private static final String STREAM = DEALS + "/stream";
+
+    private final ObservationRegistry registry;
+    private final boolean headerEnabled;
+
+    /**
+     * Constructs a ServerTimingFilter.
+     *
+     * @param registry      the registry the phase observations are reported to, if any
+     * @param headerEnabled whether responses carry a {@code Server-Timing} header
+     */
+    public ServerTimingFilter(
+            ObjectProvider<ObservationRegistry> registry,
+            @Value("${deals.server-timing.enabled:false}") boolean headerEnabled
+    ) {
+        this.registry = registry.getIfAvailable(() -> ObservationRegistry.NOOP);
+        this.headerEnabled = headerEnabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.equals(DEALS) || path.startsWith(DEALS + "/")) || path.equals(STREAM);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPhases phases = new RequestPhases(registry);
+        request.setAttribute(RequestPhases.ATTRIBUTE, phases);
+        if (!headerEnabled) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                phases.finish();
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, buffered);
+        } finally {
+            phases.finish();
+        }
+        String header = phases.header();
+        if (!header.isEmpty()) {
+            response.setHeader(HEADER, header);
+        }
+        buffered.copyBodyToResponse();
+    }
+}
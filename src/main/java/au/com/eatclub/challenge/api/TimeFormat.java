@@ -0,0 +1,40 @@
+package au.com.eatclub.challenge.api;
+
+import java.time.LocalTime;
+
+/**
+ * Formats times for API responses in 24-hour "HH:mm" form.
+ * <p>
+ * All feed times are whole minutes, so the 1,440 possible strings are formatted once up front
+ * and shared; building a response row no longer formats and allocates a new string per time.
+ * </p>
+ */
+public final class TimeFormat {
+
+    private static final String[] MINUTES = new String[24 * 60];
+
+    static {
+        for (int m = 0; m < MINUTES.length; m++) {
+            MINUTES[m] = LocalTime.of(m / 60, m % 60).toString();
+        }
+    }
+
+    // Private constructor to prevent instantiation
+    private TimeFormat() {}
+
+    /**
+     * Formats a time the same way as {@link LocalTime#toString()}.
+     *
+     * @param time the time to format, may be null
+     * @return the formatted time, or null if the time is null
+     */
+    public static String format(LocalTime time) {
+        if (time == null) {
+            return null;
+        }
+        if (time.getSecond() == 0 && time.getNano() == 0) {
+            return MINUTES[time.getHour() * 60 + time.getMinute()];
+        }
+        return time.toString();
+    }
+}
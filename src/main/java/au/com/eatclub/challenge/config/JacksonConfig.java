@@ -0,0 +1,56 @@
+package au.com.eatclub.challenge.config;
+
+import au.com.eatclub.challenge.api.DealFields;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configuration of the application's Jackson ObjectMapper.
+ * <p>
+ * Besides JSON, responses can be encoded as CBOR ({@code application/cbor}) or Smile
+ * ({@code application/x-jackson-smile}) when the client asks for them with {@code Accept}. These
+ * binary forms of the same data model skip text number formatting and escaping, and are smaller.
+ * Their mappers are built from Spring Boot's builder, so they share the JSON mapper's settings.
+ * </p>
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Serializes deal responses in full unless a request selects fields (see {@link DealFields}).
+     *
+     * @return the customizer installing the default property filters
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer dealFieldsFilter() {
+        return builder -> builder.filters(DealFields.ALL);
+    }
+
+    /**
+     * Creates the converter for {@code application/cbor}.
+     *
+     * @param builder Spring Boot's ObjectMapper builder, with the application's customizations
+     * @return the CBOR converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Creates the converter for {@code application/x-jackson-smile}.
+     *
+     * @param builder Spring Boot's ObjectMapper builder, with the application's customizations
+     * @return the Smile converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
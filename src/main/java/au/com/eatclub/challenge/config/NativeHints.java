@@ -0,0 +1,51 @@
+package au.com.eatclub.challenge.config;
+
+import au.com.eatclub.challenge.loader.ChallengeDataDTO;
+import au.com.eatclub.challenge.loader.DealDTO;
+import au.com.eatclub.challenge.loader.RestaurantDTO;
+import au.com.eatclub.challenge.persistence.CuisineEntity;
+import au.com.eatclub.challenge.persistence.DealEntity;
+import au.com.eatclub.challenge.persistence.RestaurantEntity;
+import au.com.eatclub.challenge.persistence.SuburbEntity;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and resource hints for a GraalVM native image ({@code ./mvnw -Pnative native:compile}).
+ * <p>
+ * Spring's AOT processing already covers beans, controller return types and the repositories.
+ * It cannot see the types read through reflection outside of them: the feed DTOs, which the
+ * WebClient decodes with Jackson, the region settings bound from {@code deals.regions}, the JPA
+ * entities Hibernate instantiates and populates field by field, and the second-level cache
+ * classes named only as strings in {@code application.yaml}.
+ * </p>
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    static final String CACHING_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+    static final String REGION_FACTORY = "org.hibernate.cache.jcache.internal.JCacheRegionFactory";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                ChallengeDataDTO.class, RestaurantDTO.class, DealDTO.class, RegionConfig.RegionSettings.class);
+
+        for (Class<?> entity : new Class<?>[]{
+                RestaurantEntity.class, DealEntity.class, SuburbEntity.class, CuisineEntity.class}) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+
+        for (String cacheType : new String[]{CACHING_PROVIDER, REGION_FACTORY}) {
+            hints.reflection().registerTypeIfPresent(classLoader, cacheType,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.resources()
+                .registerPattern("META-INF/services/javax.cache.spi.CachingProvider")
+                .registerPattern("reference.conf");
+    }
+}
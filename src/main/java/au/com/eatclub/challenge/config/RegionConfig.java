@@ -0,0 +1,77 @@
+package au.com.eatclub.challenge.config;
+
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.FeedPolicy;
+import au.com.eatclub.challenge.loader.RegionFeed;
+import au.com.eatclub.challenge.service.DealFilter;
+import au.com.eatclub.challenge.service.Regions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration of the regional feeds served next to the default one.
+ * <p>
+ * Each entry under {@code deals.regions} names a region with its feed {@code url} and, optionally,
+ * its {@code refresh-interval-ms} (by default {@code deals.feed.revalidate-interval-ms}). Regional
+ * loaders share the feed client, policy, storage mode and mapping threshold of the default feed.
+ * </p>
+ */
+@Configuration
+public class RegionConfig {
+
+    /**
+     * Settings of one region, as bound from {@code deals.regions.<name>}.
+     *
+     * @param url               the region's feed URL
+     * @param refreshIntervalMs how often the region's feed is revalidated, or null for the default
+     */
+    record RegionSettings(String url, Long refreshIntervalMs) { }
+
+    /**
+     * Creates the regional shards and starts loading them.
+     *
+     * @param environment       the environment holding {@code deals.regions}
+     * @param client            the WebClient used to fetch every feed
+     * @param policy            the timeout, retry and circuit breaker settings for feed requests
+     * @param filter            the DealFilter used to determine active deals
+     * @param offHeap           whether to keep datasets in off-heap stores
+     * @param parallelThreshold the number of restaurants from which a feed is mapped in parallel
+     * @param defaultIntervalMs the refresh interval of regions that do not set their own
+     * @return the regional shards
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public Regions regions(
+            Environment environment,
+            WebClient client,
+            FeedPolicy policy,
+            DealFilter filter,
+            @Value("${deals.store.off-heap:false}") boolean offHeap,
+            @Value("${deals.mapping.parallel-threshold:" + DataLoader.DEFAULT_PARALLEL_THRESHOLD + "}") int parallelThreshold,
+            @Value("${deals.feed.revalidate-interval-ms:60000}") long defaultIntervalMs
+    ) {
+        Map<String, RegionSettings> settings = Binder.get(environment)
+                .bind("deals.regions", Bindable.mapOf(String.class, RegionSettings.class))
+                .orElse(Map.of());
+
+        List<RegionFeed> feeds = settings.entrySet().stream()
+                .map(e -> new RegionFeed(
+                        e.getKey(),
+                        e.getValue().url(),
+                        Duration.ofMillis(e.getValue().refreshIntervalMs() != null
+                                ? e.getValue().refreshIntervalMs()
+                                : defaultIntervalMs)))
+                .toList();
+        return new Regions(feeds,
+                feed -> new DataLoader(client, feed.url(), offHeap, parallelThreshold, policy),
+                filter);
+    }
+}
@@ -1,13 +1,30 @@
 package au.com.eatclub.challenge.config;
 
+import au.com.eatclub.challenge.loader.FeedPolicy;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.function.Function;
 
 /**
  * Configuration class for setting up a WebClient bean.
  * This class is annotated with @Configuration, indicating that it contains
  * Spring bean definitions.
+ * <p>
+ * The client runs on a sized Reactor Netty connection pool with connect and response timeouts,
+ * gzip/deflate response compression and, for {@code https} feeds, HTTP/2 negotiated through ALPN.
+ * All settings come from {@code deals.http.*}. Pool and transfer metrics ({@code reactor.netty.*},
+ * e.g. active and idle connections, connect time, bytes received) are published to Micrometer.
+ * </p>
  */
 @Configuration
 public class WebClientConfig {
@@ -15,10 +32,84 @@ public class WebClientConfig {
     /**
      * Creates and configures a WebClient bean.
      *
+     * @param builder             Spring Boot's WebClient builder, which records {@code http.client.requests}
+     * @param maxConnections      the most connections the pool keeps open
+     * @param pendingAcquireMs    how long a request waits for a free pooled connection
+     * @param maxIdleMs           how long an idle connection is kept before it is closed
+     * @param maxLifeMs           how long a connection is used at most, so DNS changes are picked up
+     * @param connectTimeoutMs    the TCP connect timeout
+     * @param responseTimeoutMs   the longest wait for each read of the response
+     * @param compression         whether to ask for, and decode, gzip/deflate responses
+     * @param http2               whether to offer HTTP/2 (used when the feed is served over TLS)
+     * @param maxInMemorySize     the largest body the codecs buffer, i.e. the largest feed accepted
      * @return a new instance of WebClient.Builder built as a WebClient
      */
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder().build();
+    public WebClient webClient(
+            WebClient.Builder builder,
+            @Value("${deals.http.max-connections:16}") int maxConnections,
+            @Value("${deals.http.pending-acquire-timeout-ms:5000}") long pendingAcquireMs,
+            @Value("${deals.http.max-idle-ms:30000}") long maxIdleMs,
+            @Value("${deals.http.max-life-ms:300000}") long maxLifeMs,
+            @Value("${deals.http.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${deals.http.response-timeout-ms:5000}") long responseTimeoutMs,
+            @Value("${deals.http.compression:true}") boolean compression,
+            @Value("${deals.http.http2:true}") boolean http2,
+            @Value("${deals.http.max-in-memory-size:32MB}") DataSize maxInMemorySize
+    ) {
+        ConnectionProvider pool = ConnectionProvider.builder("feed")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeMs))
+                .evictInBackground(Duration.ofMillis(maxIdleMs))
+                .metrics(true)
+                .build();
+
+        HttpClient http = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .compress(compression)
+                // Tagged by URI; the application only calls the feed, so the tag stays bounded
+                .metrics(true, Function.identity());
+        if (http2) {
+            // Plain-http URLs keep using HTTP/1.1; h2 is only chosen through ALPN over TLS
+            http = http.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(http))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()))
+                .build();
+    }
+
+    /**
+     * Creates the timeout, retry and circuit breaker settings for requests to the feed.
+     *
+     * @param timeoutMs        the longest a single feed request may take
+     * @param maxRetries       the number of retries after a transient failure
+     * @param minBackoffMs     the delay before the first retry
+     * @param maxBackoffMs     the upper bound of the delay between retries
+     * @param failureThreshold the number of consecutive failed fetches that opens the circuit breaker
+     * @param openMs           how long the circuit breaker stays open before a trial request
+     * @return the feed policy
+     */
+    @Bean
+    public FeedPolicy feedPolicy(
+            @Value("${deals.feed.timeout-ms:5000}") long timeoutMs,
+            @Value("${deals.feed.retries:2}") int maxRetries,
+            @Value("${deals.feed.min-backoff-ms:200}") long minBackoffMs,
+            @Value("${deals.feed.max-backoff-ms:2000}") long maxBackoffMs,
+            @Value("${deals.feed.breaker.failure-threshold:3}") int failureThreshold,
+            @Value("${deals.feed.breaker.open-ms:30000}") long openMs
+    ) {
+        return new FeedPolicy(
+                Duration.ofMillis(timeoutMs),
+                maxRetries,
+                Duration.ofMillis(minBackoffMs),
+                Duration.ofMillis(maxBackoffMs),
+                failureThreshold,
+                Duration.ofMillis(openMs)
+        );
     }
-}
\ No newline at end of file
+}
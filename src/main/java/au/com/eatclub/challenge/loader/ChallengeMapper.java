@@ -2,25 +2,166 @@ package au.com.eatclub.challenge.loader;
 
 import au.com.eatclub.challenge.domain.Deal;
 import au.com.eatclub.challenge.domain.Restaurant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Utility class for mapping DTOs (Data Transfer Objects) to domain objects.
+ * <p>
+ * Suburb and cuisine values are interned through a {@link StringDictionary}, so restaurants
+ * mapped in the same pass share one instance of each distinct value (and of each distinct
+ * cuisine list) instead of keeping the separate copies Jackson produces.
+ * </p>
+ * <p>
+ * Large feeds can be mapped in parallel with {@link #toRestaurantsParallel(List, StringDictionary)}.
+ * </p>
+ * <p>
+ * Both list mappings apply the same policy to a restaurant that cannot be mapped (e.g. an
+ * unparseable time): it does not fail the whole feed, but is logged and left out, and a summary
+ * of how many were left out is logged once per feed.
+ * </p>
  */
 public class ChallengeMapper {
 
+    private static final Logger log = LoggerFactory.getLogger(ChallengeMapper.class);
+
+    // Smallest number of restaurants mapped by one fork-join task; below this, splitting costs
+    // more than it saves
+    private static final int MIN_CHUNK = 256;
+
+    // Chunks per worker thread, so that a slow chunk does not leave the other workers idle
+    private static final int CHUNKS_PER_THREAD = 4;
+
     /**
-     * Converts a list of RestaurantDTO objects to a list of Restaurant objects.
+     * Converts a list of RestaurantDTO objects to a list of Restaurant objects, leaving out those
+     * that cannot be mapped.
      *
      * @param dtos the list of RestaurantDTO objects to convert
      * @return a list of Restaurant objects
      */
     public static List<Restaurant> toRestaurants(List<RestaurantDTO> dtos) {
-        return dtos.stream()
-                .map(ChallengeMapper::toRestaurant)
-                .toList();
+        return toRestaurants(dtos, new StringDictionary());
+    }
+
+    /**
+     * Converts a list of RestaurantDTO objects to a list of Restaurant objects, interning
+     * suburbs and cuisines into the given dictionary and leaving out those that cannot be mapped.
+     *
+     * @param dtos       the list of RestaurantDTO objects to convert
+     * @param dictionary the dictionary that receives suburb and cuisine values
+     * @return a list of Restaurant objects, in the order of the DTOs
+     */
+    public static List<Restaurant> toRestaurants(List<RestaurantDTO> dtos, StringDictionary dictionary) {
+        Restaurant[] mapped = new Restaurant[dtos.size()];
+        for (int i = 0; i < mapped.length; i++) {
+            mapped[i] = toRestaurantOrSkip(dtos.get(i), i, dictionary);
+        }
+        return withoutSkipped(mapped);
+    }
+
+    /**
+     * Converts a list of RestaurantDTO objects to a list of Restaurant objects in parallel, on the
+     * common fork-join pool.
+     *
+     * @param dtos       the list of RestaurantDTO objects to convert
+     * @param dictionary the dictionary that receives suburb and cuisine values
+     * @return a list of Restaurant objects, in the order of the DTOs
+     * @see #toRestaurantsParallel(List, StringDictionary, ForkJoinPool)
+     */
+    public static List<Restaurant> toRestaurantsParallel(List<RestaurantDTO> dtos, StringDictionary dictionary) {
+        return toRestaurantsParallel(dtos, dictionary, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts a list of RestaurantDTO objects to a list of Restaurant objects in parallel.
+     * <p>
+     * The list is split into contiguous chunks of at least {@value #MIN_CHUNK} restaurants, about
+     * {@value #CHUNKS_PER_THREAD} per worker of the pool, and each chunk writes its results into
+     * its own slots of a shared array, so the output keeps the order of the DTOs without merging.
+     * </p>
+     * <p>
+     * As with {@link #toRestaurants(List, StringDictionary)}, a restaurant that cannot be mapped
+     * is left out, and the other restaurants, including the rest of its chunk, are mapped as usual.
+     * </p>
+     *
+     * @param dtos       the list of RestaurantDTO objects to convert
+     * @param dictionary the dictionary that receives suburb and cuisine values
+     * @param pool       the pool that runs the mapping tasks
+     * @return a list of Restaurant objects, in the order of the DTOs
+     */
+    public static List<Restaurant> toRestaurantsParallel(
+            List<RestaurantDTO> dtos, StringDictionary dictionary, ForkJoinPool pool) {
+        Restaurant[] mapped = new Restaurant[dtos.size()];
+        int chunk = Math.max(MIN_CHUNK, dtos.size() / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1);
+        pool.invoke(new MapChunk(dtos, dictionary, mapped, 0, dtos.size(), chunk));
+        return withoutSkipped(mapped);
+    }
+
+    // Maps one restaurant, or logs why it cannot be mapped and returns null
+    private static Restaurant toRestaurantOrSkip(RestaurantDTO dto, int index, StringDictionary dictionary) {
+        try {
+            return toRestaurant(dto, dictionary);
+        } catch (RuntimeException e) {
+            log.warn("Skipping restaurant {} at index {}: {}", dto.objectId(), index, e.toString());
+            return null;
+        }
+    }
+
+    private static List<Restaurant> withoutSkipped(Restaurant[] mapped) {
+        List<Restaurant> result = new ArrayList<>(mapped.length);
+        for (Restaurant r : mapped) {
+            if (r != null) {
+                result.add(r);
+            }
+        }
+        if (result.size() < mapped.length) {
+            log.warn("Left out {} of {} restaurants that could not be mapped",
+                    mapped.length - result.size(), mapped.length);
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * Maps the restaurants in {@code [from, to)}, splitting the range in halves until it is no
+     * larger than the chunk size.
+     */
+    private static final class MapChunk extends RecursiveAction {
+
+        private final List<RestaurantDTO> dtos;
+        private final StringDictionary dictionary;
+        private final Restaurant[] mapped;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        MapChunk(List<RestaurantDTO> dtos, StringDictionary dictionary, Restaurant[] mapped,
+                 int from, int to, int chunk) {
+            this.dtos = dtos;
+            this.dictionary = dictionary;
+            this.mapped = mapped;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > chunk) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new MapChunk(dtos, dictionary, mapped, from, mid, chunk),
+                        new MapChunk(dtos, dictionary, mapped, mid, to, chunk));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                mapped[i] = toRestaurantOrSkip(dtos.get(i), i, dictionary);
+            }
+        }
     }
 
     /**
@@ -30,6 +171,18 @@ public class ChallengeMapper {
      * @return the corresponding Restaurant object
      */
     public static Restaurant toRestaurant(RestaurantDTO dto) {
+        return toRestaurant(dto, new StringDictionary());
+    }
+
+    /**
+     * Converts a RestaurantDTO object to a Restaurant object, interning its suburb and
+     * cuisines into the given dictionary.
+     *
+     * @param dto        the RestaurantDTO object to convert
+     * @param dictionary the dictionary that receives suburb and cuisine values
+     * @return the corresponding Restaurant object
+     */
+    public static Restaurant toRestaurant(RestaurantDTO dto, StringDictionary dictionary) {
 
         // Parse opening and closing times
         LocalTime open  = (dto.openRaw()  == null || dto.openRaw().isBlank())
@@ -53,8 +206,8 @@ public class ChallengeMapper {
                 dto.imageLink(),
                 open,
                 close,
-                dto.suburb(),
-                dto.cuisines(),
+                dictionary.intern(dto.suburb()),
+                dictionary.internAll(dto.cuisines()),
                 deals
         );
     }
@@ -0,0 +1,111 @@
+package au.com.eatclub.challenge.loader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal circuit breaker guarding calls to the remote feed.
+ * <p>
+ * The breaker is {@link State#CLOSED} while calls succeed. After {@code failureThreshold}
+ * consecutive failures it turns {@link State#OPEN} and refuses calls, so a feed that is down
+ * costs nothing instead of a full timeout and its retries. Once {@code openDuration} has passed
+ * it lets a single trial call through ({@link State#HALF_OPEN}): success closes it again, failure
+ * re-opens it for another {@code openDuration}.
+ * </p>
+ * <p>
+ * Feed calls are rare (startup and periodic revalidation), so the state is simply guarded by
+ * the instance monitor.
+ * </p>
+ */
+public final class CircuitBreaker {
+
+    /**
+     * The state of the breaker.
+     */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoTime;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    /**
+     * Constructs a closed CircuitBreaker on the system clock.
+     *
+     * @param name             the name used in log messages
+     * @param failureThreshold the number of consecutive failures that opens the breaker
+     * @param openDuration     how long the breaker stays open before a trial call
+     */
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier nanoTime) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Asks for permission to make a call. Every permitted call must be followed by
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     *
+     * @return true if the call may go ahead, false if the breaker is open
+     */
+    public synchronized boolean tryAcquire() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false; // a trial call is already in flight
+            case OPEN -> {
+                if (nanoTime.getAsLong() - openedAt < openNanos) {
+                    yield false;
+                }
+                state = State.HALF_OPEN;
+                yield true;
+            }
+        };
+    }
+
+    /**
+     * Records a successful call, closing the breaker.
+     */
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Circuit breaker {} closed", name);
+        }
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+    /**
+     * Records a failed call, opening the breaker after enough consecutive failures or after a
+     * failed trial call.
+     */
+    public synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("Circuit breaker {} opened after {} consecutive failures", name, failures);
+            }
+            state = State.OPEN;
+            openedAt = nanoTime.getAsLong();
+        }
+    }
+
+    /**
+     * @return the current state
+     */
+    public synchronized State state() {
+        return state;
+    }
+}
@@ -1,55 +1,400 @@
 package au.com.eatclub.challenge.loader;
 
 import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.snapshot.OffHeapDealStore;
+import au.com.eatclub.challenge.snapshot.SnapshotReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The DataLoader class is responsible for fetching challenge data from a remote JSON endpoint
  * and mapping it into the application's domain model.
+ * <p>
+ * The most recently loaded dataset is kept in memory so requests are served without going
+ * back to the network. It is replaced by {@link #refresh()} or {@link #publish(ChallengeData)}.
+ * Reading it never fetches the feed, so until the first dataset is published reads fail with
+ * {@link DatasetNotReadyException}.
+ * </p>
+ * <p>
+ * With {@code deals.store.off-heap=true} the current dataset is kept in an
+ * {@link OffHeapDealStore} instead, and {@link #load()} returns a lazy view over it.
+ * </p>
+ * <p>
+ * The dataset, its store and its feed version are published together as one
+ * {@link ServedDataset}. Code that needs more than the dataset reads {@link #dataset()} once and
+ * takes everything from it, so a concurrent refresh cannot pair one dataset with another's store.
+ * </p>
+ * <p>
+ * Every call to the feed is bounded by a {@link FeedPolicy}: a timeout, a few retries with
+ * exponential backoff for transient failures, and a {@link CircuitBreaker} that fails fast while
+ * the feed keeps failing. A failed fetch never replaces the current dataset, so requests keep
+ * being served from the last good one.
+ * </p>
  */
 @Component
 public class DataLoader {
 
+    /**
+     * The production feed, used when {@code deals.feed.url} is not configured.
+     */
+    public static final String DEFAULT_FEED_URL = "https://eccdn.com.au/misc/challengedata.json";
+
+    private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
+
+    /**
+     * Feeds with at least this many restaurants are mapped in parallel, unless
+     * {@code deals.mapping.parallel-threshold} says otherwise.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10_000;
+
+    // Prefix of versions derived from the feed's content, for feeds that send no ETag
+    private static final String CONTENT_VERSION_PREFIX = "content:";
+
     private final WebClient client;
+    private final String feedUrl;
+    private final boolean offHeap;
+    private final int parallelThreshold;
+    private final FeedPolicy policy;
+    private final CircuitBreaker breaker;
+    private final AtomicReference<ServedDataset> current = new AtomicReference<>();
 
     /**
-     * Constructs a DataLoader with the specified WebClient.
+     * Constructs a DataLoader with the specified WebClient, reading from the default feed URL.
      *
      * @param client the WebClient used to make HTTP requests
      */
     public DataLoader(WebClient client) {
+        this(client, DEFAULT_FEED_URL, false);
+    }
+
+    /**
+     * Constructs a DataLoader with the specified WebClient, feed URL and storage mode.
+     *
+     * @param client  the WebClient used to make HTTP requests
+     * @param feedUrl the URL of the challenge data feed (e.g. a local stub during load tests)
+     * @param offHeap whether to keep the current dataset in an off-heap store
+     */
+    public DataLoader(WebClient client, String feedUrl, boolean offHeap) {
+        this(client, feedUrl, offHeap, DEFAULT_PARALLEL_THRESHOLD, FeedPolicy.DEFAULT);
+    }
+
+    /**
+     * Constructs a DataLoader with the specified WebClient, feed URL, storage mode, parallel
+     * mapping threshold and feed policy.
+     *
+     * @param client            the WebClient used to make HTTP requests
+     * @param feedUrl           the URL of the challenge data feed (e.g. a local stub during load tests)
+     * @param offHeap           whether to keep the current dataset in an off-heap store
+     * @param parallelThreshold the number of restaurants from which a feed is mapped in parallel
+     * @param policy            the timeout, retry and circuit breaker settings for feed requests
+     */
+    @Autowired
+    public DataLoader(
+            WebClient client,
+            @Value("${deals.feed.url:" + DEFAULT_FEED_URL + "}") String feedUrl,
+            @Value("${deals.store.off-heap:false}") boolean offHeap,
+            @Value("${deals.mapping.parallel-threshold:" + DEFAULT_PARALLEL_THRESHOLD + "}") int parallelThreshold,
+            FeedPolicy policy
+    ) {
         this.client = client;
+        this.feedUrl = feedUrl;
+        this.offHeap = offHeap;
+        this.parallelThreshold = parallelThreshold;
+        this.policy = policy;
+        this.breaker = new CircuitBreaker("feed", policy.failureThreshold(), policy.openDuration());
+    }
+
+    /**
+     * Returns the current dataset.
+     * <p>
+     * This never goes to the network: datasets are fetched in the background (see
+     * {@link DatabaseBootstrap}) and only replace the current one once fetched successfully.
+     * </p>
+     *
+     * @return a ChallengeData object containing the mapped restaurant data
+     * @throws DatasetNotReadyException if no dataset has been published yet
+     */
+    public ChallengeData load() {
+        return dataset().data();
+    }
+
+    /**
+     * Returns the current dataset with its off-heap store and feed version. Like
+     * {@link #load()}, this never goes to the network.
+     *
+     * @return the dataset being served
+     * @throws DatasetNotReadyException if no dataset has been published yet
+     */
+    public ServedDataset dataset() {
+        ServedDataset served = current.get();
+        if (served == null) {
+            throw new DatasetNotReadyException();
+        }
+        return served;
+    }
+
+    /**
+     * @return whether a dataset has been published, i.e. whether {@link #dataset()} returns one
+     */
+    public boolean isLoaded() {
+        return current.get() != null;
+    }
+
+    /**
+     * Fetches the feed from the remote endpoint and makes it the current dataset.
+     * <p>
+     * In heap mode, restaurants that are unchanged since the previous dataset keep their existing
+     * instances, so only inserted and updated restaurants occupy new memory after a refresh.
+     * </p>
+     *
+     * @return the freshly loaded dataset
+     */
+    public synchronized ChallengeData refresh() {
+        Feed feed = fetch(null)
+                .orElseThrow(() -> new IllegalStateException("Feed answered an unconditional request with 304"));
+        return update(feed);
+    }
+
+    /**
+     * Fetches the feed only if its version differs from that of the current dataset, and if so
+     * makes it the current dataset.
+     * <p>
+     * When the current version is an ETag the request is conditional ({@code If-None-Match}), so
+     * an unchanged feed is not downloaded at all. Otherwise the feed is downloaded and compared by
+     * a digest of its content.
+     * </p>
+     *
+     * @return the new dataset, with its store and version, or empty if the feed has not changed
+     */
+    public synchronized Optional<ServedDataset> refreshIfChanged() {
+        String known = version().orElse(null);
+        Optional<Feed> feed = fetch(known);
+        if (feed.isEmpty() || feed.get().version().equals(known)) {
+            log.info("Feed unchanged at version {}", known);
+            return Optional.empty();
+        }
+        update(feed.get());
+        return Optional.of(current.get());
+    }
+
+    private ChallengeData update(Feed feed) {
+        ChallengeData data = feed.data();
+        ServedDataset previous = current.get();
+        if (!offHeap && previous != null) {
+            data = reuseUnchanged(previous.data(), data);
+        }
+        return publish(data, feed.version()).data();
+    }
+
+    /**
+     * Replaces the current dataset without going to the network, e.g. with one restored
+     * from a local snapshot at startup. In off-heap mode the dataset is copied into a new
+     * store and the given heap objects are not retained.
+     *
+     * @param data the dataset to serve
+     */
+    public void publish(ChallengeData data) {
+        publish(data, null);
+    }
+
+    /**
+     * Replaces the current dataset with one whose feed version is known, e.g. one read back from
+     * a persistent database, so the next {@link #refreshIfChanged()} can skip an unchanged feed.
+     *
+     * @param data    the dataset to serve
+     * @param version the feed version the dataset came from, or {@code null} if unknown
+     * @return the dataset now served
+     */
+    public ServedDataset publish(ChallengeData data, String version) {
+        ServedDataset next;
+        if (!offHeap) {
+            next = new ServedDataset(data, null, version);
+        } else {
+            OffHeapDealStore store = OffHeapDealStore.from(data);
+            log.info("Off-heap store: {} restaurants, {} deals, {} bytes",
+                    store.restaurantCount(), store.dealCount(), store.byteSize());
+            next = new ServedDataset(store.asChallengeData(), store, version);
+        }
+        current.set(next);
+        return next;
+    }
+
+    /**
+     * Replaces the current dataset with a snapshot file written by another node (see
+     * {@link au.com.eatclub.challenge.snapshot.SharedSnapshots}). The file is checked against its
+     * checksum first. In off-heap mode it is then memory-mapped and served in place, without
+     * copying; otherwise it is decoded into heap objects, keeping unchanged restaurants.
+     *
+     * @param file    the snapshot file, which must not be modified while it is served
+     * @param version the feed version the snapshot came from, or {@code null} if unknown
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the file is not a supported snapshot or fails its checksum
+     */
+    public synchronized void publishSnapshot(Path file, String version) throws IOException {
+        if (offHeap) {
+            OffHeapDealStore store = OffHeapDealStore.map(file, true);
+            current.set(new ServedDataset(store.asChallengeData(), store, version));
+            return;
+        }
+        ChallengeData data = SnapshotReader.read(file).data();
+        ServedDataset previous = current.get();
+        publish(previous != null ? reuseUnchanged(previous.data(), data) : data, version);
+    }
+
+    /**
+     * @return the feed version of the current dataset: the feed's ETag, or a digest of its
+     *         content when the feed sends none; empty if unknown
+     */
+    public Optional<String> version() {
+        ServedDataset served = current.get();
+        return Optional.ofNullable(served != null ? served.version() : null);
+    }
+
+    /**
+     * @return the state of the circuit breaker guarding feed requests
+     */
+    public CircuitBreaker.State circuitState() {
+        return breaker.state();
     }
 
     /**
-     * Loads challenge data from a predefined remote JSON endpoint.
+     * @return the off-heap store backing the current dataset, if off-heap mode is enabled
+     *         and a dataset has been loaded; use {@link #dataset()} to read it together with
+     *         the dataset it backs
+     */
+    public Optional<OffHeapDealStore> offHeapStore() {
+        ServedDataset served = current.get();
+        return served != null ? served.offHeapStore() : Optional.empty();
+    }
+
+    private static ChallengeData reuseUnchanged(ChallengeData previous, ChallengeData next) {
+        Map<String, Restaurant> byId = new HashMap<>();
+        for (Restaurant r : previous.restaurants()) {
+            byId.put(r.objectId(), r);
+        }
+        List<Restaurant> merged = new ArrayList<>(next.restaurants().size());
+        for (Restaurant r : next.restaurants()) {
+            Restaurant before = byId.get(r.objectId());
+            merged.add(r.equals(before) ? before : r);
+        }
+        return new ChallengeData(merged);
+    }
+
+    /**
+     * Loads challenge data from the configured remote JSON endpoint.
      * <p>
      * The method fetches data using the WebClient, maps the response to a DTO,
      * and converts it into the application's domain model. If the response is null
      * or contains no restaurant data, an empty ChallengeData object is returned.
      * </p>
+     * <p>
+     * The request is bounded by the {@link FeedPolicy} and guarded by the circuit breaker.
+     * </p>
      *
-     * @return a ChallengeData object containing the mapped restaurant data
+     * @param knownVersion the ETag to send as {@code If-None-Match}, or {@code null}
+     * @return the mapped feed and its version, or empty if the feed answered 304 Not Modified
+     * @throws IllegalStateException if the circuit breaker is open or the feed timed out
      */
-    public ChallengeData load() {
-        // Fetch the data from the remote endpoint and map it to ChallengeDataDTO
-        ChallengeDataDTO dto = client.get()
-                .uri("https://eccdn.com.au/misc/challengedata.json")
-                .retrieve()
-                .bodyToMono(ChallengeDataDTO.class)
-                .block();
+    private Optional<Feed> fetch(String knownVersion) {
+        if (!breaker.tryAcquire()) {
+            throw new IllegalStateException("Feed circuit breaker is open, not calling " + feedUrl);
+        }
+        try {
+            Optional<Feed> feed = request(knownVersion)
+                    .timeout(policy.timeout())
+                    .retryWhen(Retry.backoff(policy.maxRetries(), policy.minBackoff())
+                            .maxBackoff(policy.maxBackoff())
+                            .filter(DataLoader::isTransient)
+                            .doBeforeRetry(signal -> log.warn("Retrying feed request (attempt {}): {}",
+                                    signal.totalRetries() + 1, signal.failure().toString()))
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .onErrorMap(TimeoutException.class, e -> new IllegalStateException(
+                            "Feed did not respond within " + policy.timeout(), e))
+                    .blockOptional();
+            breaker.onSuccess();
+            return feed;
+        } catch (RuntimeException e) {
+            breaker.onFailure();
+            throw e;
+        }
+    }
+
+    private Mono<Feed> request(String knownVersion) {
+        return client.get()
+                .uri(feedUrl)
+                .headers(headers -> {
+                    if (knownVersion != null && !knownVersion.startsWith(CONTENT_VERSION_PREFIX)) {
+                        headers.setIfNoneMatch(knownVersion);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return Mono.<Feed>empty();
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.<Feed>createError();
+                    }
+                    String etag = response.headers().asHttpHeaders().getETag();
+
+                    // Fetch the data from the remote endpoint and map it to ChallengeDataDTO
+                    return response.bodyToMono(ChallengeDataDTO.class)
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())
+                            .map(dto -> toFeed(dto.orElse(null), etag));
+                });
+    }
 
-        // Return an empty ChallengeData object if the response or restaurant data is null
-        if (dto == null || dto.restaurants() == null) {
-            return new ChallengeData(List.of());
+    // Worth retrying: the feed did not answer in time, could not be reached, or had a server error.
+    // A malformed feed or a 4xx would fail the same way again.
+    private static boolean isTransient(Throwable e) {
+        if (e instanceof WebClientResponseException r) {
+            return r.getStatusCode().is5xxServerError() || r.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
         }
+        return e instanceof TimeoutException || e instanceof WebClientRequestException;
+    }
+
+    private Feed toFeed(ChallengeDataDTO dto, String etag) {
+        // Use an empty ChallengeData object if the response or restaurant data is null,
+        // otherwise map the DTO's restaurant data to the domain model
+        ChallengeData data = dto == null || dto.restaurants() == null
+                ? new ChallengeData(List.of())
+                : new ChallengeData(map(dto.restaurants()));
+
+        String version = etag != null
+                ? etag
+                : CONTENT_VERSION_PREFIX + HexFormat.of().toHexDigits(DatasetFingerprint.of(data).digest());
+        return new Feed(data, version);
+    }
 
-        // Map the DTO's restaurant data to the domain model and return it
-        return new ChallengeData(
-                ChallengeMapper.toRestaurants(dto.restaurants())
-        );
+    // Large feeds are mapped in parallel, smaller ones sequentially; either way a restaurant that
+    // fails to map is left out rather than failing the whole feed
+    private List<Restaurant> map(List<RestaurantDTO> dtos) {
+        if (dtos.size() >= parallelThreshold) {
+            return ChallengeMapper.toRestaurantsParallel(dtos, new StringDictionary());
+        }
+        return ChallengeMapper.toRestaurants(dtos);
     }
-}
\ No newline at end of file
+
+    private record Feed(ChallengeData data, String version) { }
+}
@@ -1,42 +1,276 @@
 package au.com.eatclub.challenge.loader;
 
 import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.snapshot.SharedSnapshots;
+import au.com.eatclub.challenge.snapshot.Snapshot;
+import au.com.eatclub.challenge.snapshot.SnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
 /**
  * The `DatabaseBootstrap` class is a Spring Boot component that implements the `CommandLineRunner` interface.
  * It is executed after the application context is loaded and the Spring Boot application starts.
  * This class is responsible for loading challenge data and saving it to the database.
+ * <p>
+ * Startup never waits for data: loading runs on a background thread, and each dataset it serves
+ * is announced with a {@link DatasetPublished} event, on which the service layer builds its
+ * indexes and reports readiness. When local data is available it is served first and the feed
+ * is fetched afterwards. Local data is, in order of preference, a persistent database that
+ * already holds an ingested feed (the {@code disk} profile), or the local snapshot. Every
+ * dataset served from the feed or the database replaces the snapshot, even if it cannot be saved.
+ * </p>
+ * <p>
+ * The feed is only re-ingested when its version differs from that of the data being served
+ * (see {@link DataLoader#refreshIfChanged()}). A dataset that is served but was not announced, or
+ * could not be saved, is announced or saved on the next revalidation, even if the feed has not
+ * changed since.
+ * </p>
+ * <p>
+ * After startup the feed is revalidated in the background every
+ * {@code deals.feed.revalidate-interval-ms}. Requests keep being served from the current
+ * dataset while it runs, and when it fails (see {@link FeedPolicy}).
+ * </p>
+ * <p>
+ * With a shared snapshot directory (see {@link SharedSnapshots}), the publisher node also
+ * publishes every new feed version there, and subscriber nodes never call the feed: they serve,
+ * and save, each new shared snapshot as it appears.
+ * </p>
  */
 @Component
 public class DatabaseBootstrap implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DatabaseBootstrap.class);
+
     private final DataLoader loader; // Service responsible for loading challenge data
     private final DatabaseSaver saver; // Service responsible for saving challenge data to the database
+    private final DatabaseReader reader; // Service reading back data ingested by a previous run
+    private final SnapshotStore snapshots; // Local copy of the last good dataset
+    private final SharedSnapshots shared; // Snapshots shared with the other nodes
+    private final ApplicationEventPublisher events; // Announces each dataset as it is served
+
+    private ServedDataset announced; // The last dataset announced with DatasetPublished
+    private ServedDataset saved; // The last dataset written to the database
+    private ServedDataset snapshotted; // The last dataset written to the local snapshot
+    private ServedDataset followed; // The last shared snapshot served, on a subscriber node
 
     /**
-     * Constructs a new `DatabaseBootstrap` instance with the specified `DataLoader` and `DatabaseSaver`.
+     * Constructs a new `DatabaseBootstrap` instance with the specified `DataLoader`, `DatabaseSaver`,
+     * `DatabaseReader`, `SnapshotStore`, `SharedSnapshots` and `ApplicationEventPublisher`.
      *
-     * @param loader the service used to load challenge data
-     * @param saver the service used to save challenge data
+     * @param loader    the service used to load challenge data
+     * @param saver     the service used to save challenge data
+     * @param reader    the service used to warm start from data already in the database
+     * @param snapshots the store used to warm start from, and update, the local snapshot
+     * @param shared    the directory through which snapshots are shared with the other nodes
+     * @param events    the publisher of {@link DatasetPublished} events
      */
-    public DatabaseBootstrap(DataLoader loader, DatabaseSaver saver) {
+    public DatabaseBootstrap(DataLoader loader, DatabaseSaver saver, DatabaseReader reader,
+                             SnapshotStore snapshots, SharedSnapshots shared, ApplicationEventPublisher events) {
         this.loader = loader;
         this.saver = saver;
+        this.reader = reader;
+        this.snapshots = snapshots;
+        this.shared = shared;
+        this.events = events;
     }
 
     /**
-     * Executes the data loading and saving process when the application starts.
+     * Starts loading data in the background and returns immediately, so startup does not wait
+     * for the database, the snapshot, the feed or indexing. Readiness is reported separately,
+     * once the first dataset is served and indexed (see {@link DatasetPublished}).
      *
      * @param args command-line arguments passed to the application
      */
     @Override
     public void run(String... args) {
-        // Load challenge data using the DataLoader service
-        ChallengeData data = loader.load();
+        Thread.ofPlatform().name("warm-up").daemon().start(this::warmUp);
+    }
+
+    /**
+     * Loads the first dataset from the best local source, then catches up with the feed.
+     */
+    void warmUp() {
+        long start = System.nanoTime();
+        if (shared.isSubscriber()) {
+            if (!followShared()) {
+                log.warn("No shared snapshot yet, no data until one is published");
+            }
+            return;
+        }
+
+        String source = "feed";
+        Optional<DatabaseReader.StoredDataset> stored = reader.read();
+        if (stored.isPresent()) {
+            // Serve what the database already holds; it is re-ingested only if the feed changed
+            ChallengeData data = stored.get().data();
+            log.info("Serving {} restaurants from the database (feed version {})",
+                    data.restaurants().size(), stored.get().version());
+            saved = loader.publish(data, stored.get().version());
+            saver.markSaved(data);
+            published("database", start);
+            source = "database";
+        } else {
+            Optional<Snapshot> snapshot = snapshots.read();
+            if (snapshot.isPresent()) {
+                // Serve the snapshot straight away and catch up with the feed afterwards
+                loader.publish(snapshot.get().data());
+                snapshotted = loader.dataset();
+                published("snapshot", start);
+                source = "snapshot";
+            }
+        }
+
+        try {
+            loadAndSave();
+        } catch (RuntimeException e) {
+            if (source.equals("feed")) {
+                // Nothing to serve yet; keep running and let revalidation try again
+                log.error("Initial feed load failed, no data until the feed is reachable", e);
+            } else {
+                log.warn("Background feed refresh failed, still serving {}", source, e);
+            }
+        }
+    }
+
+    /**
+     * Revalidates the served dataset against the feed, re-ingesting it if it changed. A failure
+     * is logged and the current dataset stays in place.
+     */
+    @Scheduled(
+            initialDelayString = "${deals.feed.revalidate-interval-ms:60000}",
+            fixedDelayString = "${deals.feed.revalidate-interval-ms:60000}"
+    )
+    public void revalidate() {
+        if (shared.isSubscriber()) {
+            return;
+        }
+        try {
+            loadAndSave();
+        } catch (RuntimeException e) {
+            log.warn("Feed revalidation failed, still serving version {}: {}",
+                    loader.version().orElse("unknown"), e.toString());
+        }
+    }
+
+    /**
+     * On a subscriber node, serves the latest shared snapshot if it is newer than the one being
+     * served, and saves it to the database. A failure is logged and the current dataset stays.
+     *
+     * @return {@code true} if a new snapshot is now served
+     */
+    @Scheduled(
+            initialDelayString = "${deals.shared.poll-interval-ms:5000}",
+            fixedDelayString = "${deals.shared.poll-interval-ms:5000}"
+    )
+    public boolean followShared() {
+        if (!shared.isSubscriber()) {
+            return false;
+        }
+        Optional<SharedSnapshots.Published> next = shared.newer();
+        if (next.isEmpty()) {
+            retrySave();
+            return false;
+        }
+        SharedSnapshots.Published published = next.get();
+        ServedDataset served;
+        try {
+            loader.publishSnapshot(published.file(), published.feedVersion());
+            shared.applied(published);
+            served = loader.dataset();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load shared snapshot {}: {}", published.file(), e.toString());
+            return false;
+        }
+        announce(served);
+        log.info("Serving shared snapshot {} of {} restaurants (feed version {})",
+                published.sequence(), served.data().restaurants().size(), published.feedVersion());
+        try {
+            follow(served);
+        } catch (RuntimeException e) {
+            log.warn("Could not save shared snapshot {}, retrying on the next poll: {}",
+                    published.sequence(), e.toString());
+        }
+        return true;
+    }
+
+    // Throws only if the feed could not be loaded; a failed save is logged and retried later
+    private synchronized void loadAndSave() {
+        // Load challenge data using the DataLoader service, unless the feed is unchanged
+        Optional<ServedDataset> changed = loader.refreshIfChanged();
+
+        // Announce and save it, or the unchanged dataset if that was served without being
+        // announced (e.g. loaded by a direct refresh) or its save failed on an earlier run
+        ServedDataset served = changed.orElseGet(loader::dataset);
+        if (served != announced) {
+            announce(served);
+        }
+        if (served != snapshotted) {
+            // Keep the local snapshot in step with the served dataset for the next restart,
+            // whether or not the database is reachable or already held it
+            snapshots.write(served.data());
+            snapshotted = served;
+        }
+        if (served != saved) {
+            // A failed save is not a failed load: the dataset is already served and announced
+            try {
+                save(served);
+            } catch (RuntimeException e) {
+                log.warn("Could not save feed version {}, serving it and retrying the save on the next revalidation",
+                        served.version(), e);
+            }
+        }
+        publishShared();
+    }
+
+    private synchronized void announce(ServedDataset served) {
+        announced = served;
+        events.publishEvent(new DatasetPublished(served));
+    }
+
+    private synchronized void follow(ServedDataset served) {
+        followed = served;
+        save(served);
+    }
+
+    private synchronized void retrySave() {
+        if (followed != null && followed != saved) {
+            try {
+                save(followed);
+            } catch (RuntimeException e) {
+                log.warn("Could not save shared snapshot, retrying on the next poll: {}", e.toString());
+            }
+        }
+    }
+
+    // The dataset only counts as saved once the database write has committed
+    private synchronized DatasetDiff save(ServedDataset served) {
+        // Save what changed since the last load using the DatabaseSaver service
+        DatasetDiff diff = saver.save(served.data(), served.version());
+        saved = served;
+        return diff;
+    }
+
+    private void published(String source, long start) {
+        announce(loader.dataset());
+        log.info("First dataset served from the {} after {} ms", source,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
 
-        // Save the loaded data using the DatabaseSaver service
-        saver.save(data);   // THIS NOW COMPILES
+    // Only datasets of a known feed version are shared, so an unchanged one is not republished
+    private void publishShared() {
+        if (shared.isEnabled() && !shared.isSubscriber()) {
+            ServedDataset served = loader.dataset();
+            if (served.version() != null) {
+                shared.publish(served.data(), served.version());
+            }
+        }
     }
-}
\ No newline at end of file
+}
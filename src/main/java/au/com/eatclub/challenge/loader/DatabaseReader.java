@@ -0,0 +1,100 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.persistence.CuisineEntity;
+import au.com.eatclub.challenge.persistence.RestaurantEntity;
+import au.com.eatclub.challenge.repository.DealRepository;
+import au.com.eatclub.challenge.repository.DealRow;
+import au.com.eatclub.challenge.repository.RestaurantRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Component responsible for reading the last ingested challenge data back from the database.
+ * <p>
+ * With a persistent database (the {@code disk} profile) this lets startup serve the stored
+ * deals straight away, before the feed is consulted. The dataset is read with two queries,
+ * one for restaurants and one for deals, whatever its size.
+ * </p>
+ */
+@Component
+public class DatabaseReader {
+
+    private final JdbcTemplate jdbc;
+    private final RestaurantRepository restaurantRepo;
+    private final DealRepository dealRepo;
+
+    /**
+     * A dataset read from the database, with the feed version it was ingested from.
+     *
+     * @param data    the stored dataset
+     * @param version the feed version recorded with it, or {@code null} if unknown
+     */
+    public record StoredDataset(ChallengeData data, String version) { }
+
+    /**
+     * Constructor for DatabaseReader.
+     *
+     * @param jdbc           Template used to read the recorded feed version.
+     * @param restaurantRepo Repository for reading Restaurant entities.
+     * @param dealRepo       Repository for reading deals as flat rows.
+     */
+    public DatabaseReader(JdbcTemplate jdbc, RestaurantRepository restaurantRepo, DealRepository dealRepo) {
+        this.jdbc = jdbc;
+        this.restaurantRepo = restaurantRepo;
+        this.dealRepo = dealRepo;
+    }
+
+    /**
+     * Reads the stored dataset, if a feed has ever been ingested into this database.
+     *
+     * @return the stored dataset, or empty if nothing has been saved yet
+     */
+    public Optional<StoredDataset> read() {
+        List<String> versions = jdbc.queryForList("SELECT version FROM feed_state WHERE id = 1", String.class);
+        if (versions.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // ----- Deals -----
+        // Group the flat rows by restaurant, keeping insertion order
+        Map<String, List<Deal>> deals = new HashMap<>();
+        for (DealRow row : dealRepo.findAllRows()) {
+            deals.computeIfAbsent(row.restaurantObjectId(), id -> new ArrayList<>()).add(new Deal(
+                    row.dealObjectId(),
+                    row.discount(),
+                    row.dineIn(),
+                    row.lightning(),
+                    row.qtyLeft(),
+                    row.availableFrom(),
+                    row.availableTo()
+            ));
+        }
+
+        // ----- Restaurants -----
+        List<Restaurant> restaurants = new ArrayList<>();
+        for (RestaurantEntity r : restaurantRepo.findAllWithSuburbAndCuisines()) {
+            restaurants.add(new Restaurant(
+                    r.getObjectId(),
+                    r.getName(),
+                    r.getAddress1(),
+                    r.getImageLink(),
+                    r.getOpenTime(),
+                    r.getCloseTime(),
+                    r.getSuburb() != null ? r.getSuburb().getName() : null,
+                    r.getCuisines().stream().map(CuisineEntity::getName).sorted().toList(),
+                    List.copyOf(deals.getOrDefault(r.getObjectId(), List.of()))
+            ));
+        }
+
+        return Optional.of(new StoredDataset(new ChallengeData(restaurants), versions.get(0)));
+    }
+}
@@ -3,106 +3,223 @@ package au.com.eatclub.challenge.loader;
 import au.com.eatclub.challenge.domain.ChallengeData;
 import au.com.eatclub.challenge.domain.Deal;
 import au.com.eatclub.challenge.domain.Restaurant;
-import au.com.eatclub.challenge.persistence.*;
-import au.com.eatclub.challenge.repository.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * Component responsible for saving challenge data into the database.
- * This class interacts with various repositories to persist entities such as
- * Suburb, Cuisine, Restaurant, and Deal.
+ * This class writes the suburb, cuisine, restaurant and deal tables behind the JPA entities
+ * in the persistence package.
+ * <p>
+ * Only the difference from the previously saved dataset is written: each call diffs the new
+ * data against a {@link DatasetFingerprint} of the last save and applies the resulting inserts,
+ * updates and deletes in one transaction. Change counts are logged and published as the
+ * {@code deals.ingest.changes} counter, tagged by {@code entity} and {@code change}.
+ * </p>
+ * <p>
+ * Rows are written with H2 {@code MERGE INTO ... KEY (...)} statements keyed on the natural keys
+ * (restaurant and deal {@code objectId}, suburb and cuisine name), sent as JDBC batches of
+ * {@code deals.ingest.batch-size} rows. Saving the same data twice is therefore harmless, even
+ * when the rows were written by an earlier run the fingerprint does not know about.
+ * </p>
  */
 @Component
 public class DatabaseSaver {
 
-    private final SuburbRepository suburbRepo;
-    private final CuisineRepository cuisineRepo;
-    private final RestaurantRepository restaurantRepo;
-    private final DealRepository dealRepo;
+    private static final Logger log = LoggerFactory.getLogger(DatabaseSaver.class);
+
+    private static final String MERGE_SUBURB =
+            "MERGE INTO suburb (name) KEY (name) VALUES (?)";
+    private static final String MERGE_CUISINE =
+            "MERGE INTO cuisine (name) KEY (name) VALUES (?)";
+    private static final String MERGE_RESTAURANT =
+            "MERGE INTO restaurant (object_id, name, address1, image_link, open_time, close_time, suburb_id) "
+                    + "KEY (object_id) VALUES (?, ?, ?, ?, ?, ?, (SELECT id FROM suburb WHERE name = ?))";
+    private static final String MERGE_DEAL =
+            "MERGE INTO deal (object_id, discount, dine_in, lightning, qty_left, available_from, available_to, "
+                    + "restaurant_id) KEY (object_id) VALUES (?, ?, ?, ?, ?, ?, ?, "
+                    + "(SELECT id FROM restaurant WHERE object_id = ?))";
+    private static final String UNLINK_CUISINES =
+            "DELETE FROM restaurant_cuisine WHERE restaurant_id = (SELECT id FROM restaurant WHERE object_id = ?)";
+    private static final String LINK_CUISINE =
+            "INSERT INTO restaurant_cuisine (restaurant_id, cuisine_id) "
+                    + "SELECT r.id, c.id FROM restaurant r, cuisine c WHERE r.object_id = ? AND c.name = ?";
+    private static final String DELETE_DEAL =
+            "DELETE FROM deal WHERE object_id = ?";
+    private static final String DELETE_RESTAURANT_DEALS =
+            "DELETE FROM deal WHERE restaurant_id = (SELECT id FROM restaurant WHERE object_id = ?)";
+    private static final String DELETE_RESTAURANT =
+            "DELETE FROM restaurant WHERE object_id = ?";
+    private static final String MERGE_FEED_STATE =
+            "MERGE INTO feed_state (id, version, fetched_at) KEY (id) VALUES (1, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final MeterRegistry meters;
+    private final int batchSize;
+
+    // Content of the database as of the last successful save
+    private DatasetFingerprint saved = DatasetFingerprint.EMPTY;
 
     /**
      * Constructor for DatabaseSaver.
      *
-     * @param suburbRepo     Repository for managing Suburb entities.
-     * @param cuisineRepo    Repository for managing Cuisine entities.
-     * @param restaurantRepo Repository for managing Restaurant entities.
-     * @param dealRepo       Repository for managing Deal entities.
+     * @param jdbc      Template used to run the batched statements.
+     * @param txManager Transaction manager used to apply each diff atomically.
+     * @param meters    Registry the change counters are published to.
+     * @param batchSize Number of rows sent per JDBC batch.
      */
     public DatabaseSaver(
-            SuburbRepository suburbRepo,
-            CuisineRepository cuisineRepo,
-            RestaurantRepository restaurantRepo,
-            DealRepository dealRepo
+            JdbcTemplate jdbc,
+            PlatformTransactionManager txManager,
+            MeterRegistry meters,
+            @Value("${deals.ingest.batch-size:500}") int batchSize
     ) {
-        this.suburbRepo = suburbRepo;
-        this.cuisineRepo = cuisineRepo;
-        this.restaurantRepo = restaurantRepo;
-        this.dealRepo = dealRepo;
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("deals.ingest.batch-size must be positive: " + batchSize);
+        }
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.meters = meters;
+        this.batchSize = batchSize;
     }
 
     /**
      * Saves the provided ChallengeData into the database.
-     * This method processes restaurants, their associated suburbs, cuisines, and deals,
-     * and persists them using the appropriate repositories.
+     * The data is compared with what was saved last and only new, changed and removed
+     * restaurants and deals are written.
      *
      * @param data The ChallengeData object containing the data to be saved.
+     * @return the changes that were applied
      */
-    public void save(ChallengeData data) {
-
-        // Iterate over each restaurant in the provided data
-        for (Restaurant r : data.restaurants()) {
-
-            // ----- Suburb -----
-            // Find or create a SuburbEntity based on the restaurant's suburb name
-            SuburbEntity suburb = suburbRepo
-                    .findByName(r.suburb())
-                    .orElseGet(() -> suburbRepo.save(new SuburbEntity(r.suburb())));
-
-            // ----- Restaurant -----
-            // Create a new RestaurantEntity and associate it with the suburb
-            RestaurantEntity restaurant = new RestaurantEntity(
-                    r.objectId(),
-                    r.name(),
-                    r.address1(),
-                    r.imageLink(),
-                    r.openTime(),
-                    r.closeTime()
-            );
-            restaurant.setSuburb(suburb);
-
-            // Save the restaurant to generate its ID
-            restaurantRepo.save(restaurant);
-
-            // ----- Cuisines -----
-            // Process and associate cuisines with the restaurant
-            for (String c : r.cuisines()) {
-                CuisineEntity cuisine = cuisineRepo
-                        .findByName(c)
-                        .orElseGet(() -> cuisineRepo.save(new CuisineEntity(c)));
+    public DatasetDiff save(ChallengeData data) {
+        return save(data, null);
+    }
 
-                restaurant.getCuisines().add(cuisine);
+    /**
+     * Saves the provided ChallengeData into the database and records the feed version it came
+     * from, so a later startup can tell whether the stored data is still current.
+     *
+     * @param data    The ChallengeData object containing the data to be saved.
+     * @param version The feed version of the data, or {@code null} if unknown.
+     * @return the changes that were applied
+     */
+    public synchronized DatasetDiff save(ChallengeData data, String version) {
+        DatasetDiff diff = DatasetDiff.between(saved, data);
+        tx.executeWithoutResult(status -> {
+            if (!diff.isEmpty()) {
+                apply(diff);
             }
+            jdbc.update(MERGE_FEED_STATE, version, OffsetDateTime.now());
+        });
+        saved = DatasetFingerprint.of(data);
+
+        log.info("Ingested feed: {}", diff.summary());
+        count("restaurant", "insert", diff.restaurantInserts().size());
+        count("restaurant", "update", diff.restaurantUpdates().size());
+        count("restaurant", "delete", diff.restaurantDeletes().size());
+        count("deal", "insert", diff.dealInserts().size());
+        count("deal", "update", diff.dealUpdates().size());
+        count("deal", "delete", diff.dealDeletes().size());
+        return diff;
+    }
+
+    /**
+     * Records that the database already holds the given data, e.g. when it was read back from
+     * a persistent database at startup, so the next save only writes what changed since.
+     *
+     * @param data the data currently stored
+     */
+    public synchronized void markSaved(ChallengeData data) {
+        saved = DatasetFingerprint.of(data);
+    }
+
+    private void apply(DatasetDiff diff) {
+        List<Restaurant> restaurants = concat(diff.restaurantInserts(), diff.restaurantUpdates());
+        List<DatasetDiff.DealChange> deals = concat(diff.dealInserts(), diff.dealUpdates());
+
+        // ----- Deletes -----
+        // Deals first, then anything still referencing the removed restaurants
+        batch(DELETE_DEAL, diff.dealDeletes(), (ps, id) -> ps.setString(1, id));
+        batch(UNLINK_CUISINES, diff.restaurantDeletes(), (ps, id) -> ps.setString(1, id));
+        batch(DELETE_RESTAURANT_DEALS, diff.restaurantDeletes(), (ps, id) -> ps.setString(1, id));
+        batch(DELETE_RESTAURANT, diff.restaurantDeletes(), (ps, id) -> ps.setString(1, id));
 
-            // Save the restaurant again to persist the cuisine relationships
-            restaurantRepo.save(restaurant);
-
-            // ----- Deals -----
-            // Process and save deals associated with the restaurant
-            for (Deal d : r.deals()) {
-
-                DealEntity deal = new DealEntity(
-                        d.objectId(),
-                        d.discount(),
-                        d.dineIn(),
-                        d.lightning(),
-                        d.qtyLeft(),
-                        d.availableFrom(),
-                        d.availableTo(),
-                        restaurant
-                );
-
-                dealRepo.save(deal);
+        // ----- Suburbs and cuisines -----
+        List<String> suburbs = restaurants.stream()
+                .map(Restaurant::suburb)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        List<String> cuisines = restaurants.stream()
+                .flatMap(r -> r.cuisines().stream())
+                .distinct()
+                .toList();
+        batch(MERGE_SUBURB, suburbs, (ps, name) -> ps.setString(1, name));
+        batch(MERGE_CUISINE, cuisines, (ps, name) -> ps.setString(1, name));
+
+        // ----- Restaurants -----
+        batch(MERGE_RESTAURANT, restaurants, (ps, r) -> {
+            ps.setString(1, r.objectId());
+            ps.setString(2, r.name());
+            ps.setString(3, r.address1());
+            ps.setString(4, r.imageLink());
+            ps.setObject(5, r.openTime());
+            ps.setObject(6, r.closeTime());
+            ps.setString(7, r.suburb());
+        });
+
+        // Replace the cuisine links of every restaurant written above
+        List<String[]> links = new ArrayList<>();
+        for (Restaurant r : restaurants) {
+            for (String c : r.cuisines()) {
+                links.add(new String[]{r.objectId(), c});
             }
         }
+        batch(UNLINK_CUISINES, restaurants, (ps, r) -> ps.setString(1, r.objectId()));
+        batch(LINK_CUISINE, links, (ps, link) -> {
+            ps.setString(1, link[0]);
+            ps.setString(2, link[1]);
+        });
+
+        // ----- Deals -----
+        batch(MERGE_DEAL, deals, (ps, change) -> {
+            Deal d = change.deal();
+            ps.setString(1, d.objectId());
+            ps.setInt(2, d.discount());
+            ps.setBoolean(3, d.dineIn());
+            ps.setBoolean(4, d.lightning());
+            ps.setInt(5, d.qtyLeft());
+            ps.setObject(6, d.availableFrom());
+            ps.setObject(7, d.availableTo());
+            ps.setString(8, change.restaurantObjectId());
+        });
+    }
+
+    private <T> void batch(String sql, List<T> rows, ParameterizedPreparedStatementSetter<T> setter) {
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows, batchSize, setter);
+        }
+    }
+
+    private void count(String entity, String change, int amount) {
+        meters.counter("deals.ingest.changes", "entity", entity, "change", change).increment(amount);
+    }
+
+    private static <T> List<T> concat(List<? extends T> a, List<? extends T> b) {
+        return Stream.<T>concat(a.stream(), b.stream()).toList();
     }
-}
\ No newline at end of file
+}
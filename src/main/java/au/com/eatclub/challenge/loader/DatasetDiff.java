@@ -0,0 +1,106 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The changes between a previously applied dataset and a newly fetched one, matched by
+ * {@code objectId} and compared by content hash (see {@link DatasetFingerprint}).
+ *
+ * @param restaurantInserts restaurants that are new
+ * @param restaurantUpdates restaurants whose own fields changed
+ * @param restaurantDeletes object ids of restaurants no longer in the feed
+ * @param dealInserts       deals that are new
+ * @param dealUpdates       deals whose fields or owning restaurant changed
+ * @param dealDeletes       object ids of deals no longer in the feed
+ */
+public record DatasetDiff(
+        List<Restaurant> restaurantInserts,
+        List<Restaurant> restaurantUpdates,
+        List<String> restaurantDeletes,
+        List<DealChange> dealInserts,
+        List<DealChange> dealUpdates,
+        List<String> dealDeletes
+) {
+
+    /**
+     * A deal together with the object id of the restaurant it belongs to.
+     *
+     * @param restaurantObjectId the owning restaurant
+     * @param deal               the deal
+     */
+    public record DealChange(String restaurantObjectId, Deal deal) { }
+
+    /**
+     * Computes the changes needed to turn the dataset described by {@code previous} into {@code next}.
+     *
+     * @param previous fingerprint of the dataset currently applied
+     * @param next     the newly fetched dataset
+     * @return the changes
+     */
+    public static DatasetDiff between(DatasetFingerprint previous, ChallengeData next) {
+        List<Restaurant> restaurantInserts = new ArrayList<>();
+        List<Restaurant> restaurantUpdates = new ArrayList<>();
+        List<DealChange> dealInserts = new ArrayList<>();
+        List<DealChange> dealUpdates = new ArrayList<>();
+        Set<String> seenRestaurants = new HashSet<>();
+        Set<String> seenDeals = new HashSet<>();
+
+        for (Restaurant r : next.restaurants()) {
+            seenRestaurants.add(r.objectId());
+            Long before = previous.restaurants().get(r.objectId());
+            if (before == null) {
+                restaurantInserts.add(r);
+            } else if (before != DatasetFingerprint.hash(r)) {
+                restaurantUpdates.add(r);
+            }
+
+            for (Deal d : r.deals()) {
+                seenDeals.add(d.objectId());
+                Long dealBefore = previous.deals().get(d.objectId());
+                if (dealBefore == null) {
+                    dealInserts.add(new DealChange(r.objectId(), d));
+                } else if (dealBefore != DatasetFingerprint.hash(r.objectId(), d)) {
+                    dealUpdates.add(new DealChange(r.objectId(), d));
+                }
+            }
+        }
+
+        List<String> restaurantDeletes = previous.restaurants().keySet().stream()
+                .filter(id -> !seenRestaurants.contains(id))
+                .sorted()
+                .toList();
+        List<String> dealDeletes = previous.deals().keySet().stream()
+                .filter(id -> !seenDeals.contains(id))
+                .sorted()
+                .toList();
+
+        return new DatasetDiff(
+                List.copyOf(restaurantInserts), List.copyOf(restaurantUpdates), restaurantDeletes,
+                List.copyOf(dealInserts), List.copyOf(dealUpdates), dealDeletes
+        );
+    }
+
+    /**
+     * @return {@code true} if nothing changed
+     */
+    public boolean isEmpty() {
+        return restaurantInserts.isEmpty() && restaurantUpdates.isEmpty() && restaurantDeletes.isEmpty()
+                && dealInserts.isEmpty() && dealUpdates.isEmpty() && dealDeletes.isEmpty();
+    }
+
+    /**
+     * @return a one-line summary of the change counts, for logging
+     */
+    public String summary() {
+        return String.format("restaurants +%d ~%d -%d, deals +%d ~%d -%d",
+                restaurantInserts.size(), restaurantUpdates.size(), restaurantDeletes.size(),
+                dealInserts.size(), dealUpdates.size(), dealDeletes.size());
+    }
+}
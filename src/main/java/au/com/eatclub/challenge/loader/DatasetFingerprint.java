@@ -0,0 +1,133 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compact record of a dataset's content: a 64-bit content hash per restaurant and per deal,
+ * keyed by {@code objectId}.
+ * <p>
+ * Keeping fingerprints instead of the dataset itself lets a refresh be diffed against what was
+ * last persisted without holding the previous restaurants and deals in memory.
+ * </p>
+ *
+ * @param restaurants content hash of each restaurant's own fields (excluding its deals)
+ * @param deals       content hash of each deal, including the restaurant it belongs to
+ */
+public record DatasetFingerprint(Map<String, Long> restaurants, Map<String, Long> deals) {
+
+    /**
+     * Fingerprint of an empty dataset.
+     */
+    public static final DatasetFingerprint EMPTY = new DatasetFingerprint(Map.of(), Map.of());
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Computes the fingerprint of a dataset.
+     *
+     * @param data the dataset
+     * @return its fingerprint
+     */
+    public static DatasetFingerprint of(ChallengeData data) {
+        Map<String, Long> restaurants = new HashMap<>();
+        Map<String, Long> deals = new HashMap<>();
+        for (Restaurant r : data.restaurants()) {
+            restaurants.put(r.objectId(), hash(r));
+            for (Deal d : r.deals()) {
+                deals.put(d.objectId(), hash(r.objectId(), d));
+            }
+        }
+        return new DatasetFingerprint(Map.copyOf(restaurants), Map.copyOf(deals));
+    }
+
+    /**
+     * Digest of the whole dataset, independent of restaurant and deal order.
+     *
+     * @return a 64-bit digest that changes whenever any restaurant or deal changes
+     */
+    public long digest() {
+        long h = FNV_OFFSET;
+        for (Map<String, Long> hashes : List.of(restaurants, deals)) {
+            for (String id : new TreeSet<>(hashes.keySet())) {
+                h = mix(h, id);
+                h = mix(h, hashes.get(id));
+            }
+            h = mix(h, -1L);
+        }
+        return h;
+    }
+
+    /**
+     * Content hash of a restaurant's own fields; its deals are hashed separately.
+     * Cuisines are hashed in name order, since their order is not significant.
+     *
+     * @param r the restaurant
+     * @return the content hash
+     */
+    public static long hash(Restaurant r) {
+        long h = FNV_OFFSET;
+        h = mix(h, r.objectId());
+        h = mix(h, r.name());
+        h = mix(h, r.address1());
+        h = mix(h, r.imageLink());
+        h = mix(h, r.openTime());
+        h = mix(h, r.closeTime());
+        h = mix(h, r.suburb());
+        List<String> cuisines = r.cuisines() != null ? r.cuisines() : List.of();
+        for (String c : cuisines.stream().sorted().toList()) {
+            h = mix(h, c);
+        }
+        return h;
+    }
+
+    /**
+     * Content hash of a deal and the restaurant it belongs to.
+     *
+     * @param restaurantObjectId the owning restaurant
+     * @param d                  the deal
+     * @return the content hash
+     */
+    public static long hash(String restaurantObjectId, Deal d) {
+        long h = FNV_OFFSET;
+        h = mix(h, restaurantObjectId);
+        h = mix(h, d.objectId());
+        h = mix(h, d.discount());
+        h = mix(h, d.dineIn() ? 1 : 0);
+        h = mix(h, d.lightning() ? 1 : 0);
+        h = mix(h, d.qtyLeft());
+        h = mix(h, d.availableFrom());
+        h = mix(h, d.availableTo());
+        return h;
+    }
+
+    // FNV-1a over the value's chars, followed by a separator so ("ab","c") != ("a","bc")
+    private static long mix(long h, String s) {
+        if (s != null) {
+            for (int i = 0; i < s.length(); i++) {
+                h = (h ^ s.charAt(i)) * FNV_PRIME;
+            }
+        }
+        return (h ^ (s == null ? 0x1F : 0x1E)) * FNV_PRIME;
+    }
+
+    private static long mix(long h, LocalTime t) {
+        return mix(h, t == null ? -1 : t.toNanoOfDay());
+    }
+
+    private static long mix(long h, long v) {
+        for (int i = 0; i < 8; i++) {
+            h = (h ^ (v & 0xFF)) * FNV_PRIME;
+            v >>>= 8;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,14 @@
+package au.com.eatclub.challenge.loader;
+
+/**
+ * Thrown when data is requested before the first dataset has been published.
+ */
+public class DatasetNotReadyException extends IllegalStateException {
+
+    /**
+     * Constructs the exception with a fixed message.
+     */
+    public DatasetNotReadyException() {
+        super("No data has been loaded yet");
+    }
+}
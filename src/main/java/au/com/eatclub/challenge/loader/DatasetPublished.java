@@ -0,0 +1,10 @@
+package au.com.eatclub.challenge.loader;
+
+/**
+ * Application event published by {@link DatabaseBootstrap} each time a new dataset starts being
+ * served, from the database, a snapshot or the feed. Listeners run on the loading thread, before
+ * the dataset is saved.
+ *
+ * @param dataset the dataset now returned by {@link DataLoader#dataset()}, with its store
+ */
+public record DatasetPublished(ServedDataset dataset) { }
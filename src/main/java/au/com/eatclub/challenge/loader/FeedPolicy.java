@@ -0,0 +1,41 @@
+package au.com.eatclub.challenge.loader;
+
+import java.time.Duration;
+
+/**
+ * Limits on how long, and how often, {@link DataLoader} waits for the remote feed.
+ *
+ * @param timeout          the longest a single request may take, including reading the body
+ * @param maxRetries       the number of retries after a transient failure (timeout, I/O error, 5xx)
+ * @param minBackoff       the delay before the first retry; it doubles on each further retry
+ * @param maxBackoff       the upper bound of the delay between retries
+ * @param failureThreshold the number of consecutive failed fetches that opens the circuit breaker
+ * @param openDuration     how long the circuit breaker stays open before a trial request
+ */
+public record FeedPolicy(
+        Duration timeout,
+        int maxRetries,
+        Duration minBackoff,
+        Duration maxBackoff,
+        int failureThreshold,
+        Duration openDuration
+) {
+
+    /**
+     * The policy used when none is configured.
+     */
+    public static final FeedPolicy DEFAULT = new FeedPolicy(
+            Duration.ofSeconds(5), 2, Duration.ofMillis(200), Duration.ofSeconds(2), 3, Duration.ofSeconds(30));
+
+    public FeedPolicy {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Feed timeout must be positive: " + timeout);
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Feed retries must not be negative: " + maxRetries);
+        }
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Circuit breaker threshold must be positive: " + failureThreshold);
+        }
+    }
+}
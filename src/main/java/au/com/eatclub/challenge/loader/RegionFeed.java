@@ -0,0 +1,28 @@
+package au.com.eatclub.challenge.loader;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * A named feed serving one region (e.g. a city), configured under {@code deals.regions.<name>}.
+ *
+ * @param name            the region's name, as given in the {@code region} request parameter
+ * @param url             the URL of the region's feed
+ * @param refreshInterval how often the region's feed is revalidated
+ */
+public record RegionFeed(String name, String url, Duration refreshInterval) {
+
+    private static final Pattern NAME = Pattern.compile("[a-z0-9][a-z0-9-]*");
+
+    public RegionFeed {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Region name must be lower-case letters, digits and dashes: " + name);
+        }
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("Region " + name + " has no feed url");
+        }
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("Region " + name + " refresh interval must be positive: " + refreshInterval);
+        }
+    }
+}
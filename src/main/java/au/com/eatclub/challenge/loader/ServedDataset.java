@@ -0,0 +1,29 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.snapshot.OffHeapDealStore;
+
+import java.util.Optional;
+
+/**
+ * The dataset being served, together with the off-heap store backing it and the feed version it
+ * came from.
+ * <p>
+ * {@link DataLoader} replaces all three at once through a single reference, so a request that
+ * reads the dataset once never pairs it with another dataset's store: deal ordinals, stock levels
+ * and per-dataset indexes always refer to the same deals.
+ * </p>
+ *
+ * @param data    the dataset; in off-heap mode a view over {@code store}
+ * @param store   the off-heap store backing the dataset, or {@code null} in heap mode
+ * @param version the feed version the dataset came from, or {@code null} if unknown
+ */
+public record ServedDataset(ChallengeData data, OffHeapDealStore store, String version) {
+
+    /**
+     * @return the off-heap store backing the dataset, if off-heap mode is enabled
+     */
+    public Optional<OffHeapDealStore> offHeapStore() {
+        return Optional.ofNullable(store);
+    }
+}
@@ -0,0 +1,63 @@
+package au.com.eatclub.challenge.loader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of repeated string values (suburbs, cuisines) seen while mapping a feed.
+ * <p>
+ * Each distinct value is kept once. {@link #intern(String)} returns the canonical instance, so
+ * every restaurant in the same suburb shares one {@code String} instead of holding its own copy
+ * straight from Jackson. Lookups of known values are lock-free.
+ * </p>
+ * <p>
+ * Values are shared by reference rather than replaced by integer codes: the domain model keeps
+ * {@code String} fields, and the binary snapshot and off-heap store already refer to each
+ * distinct string by its index in their own string table.
+ * </p>
+ */
+public final class StringDictionary {
+
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<List<String>, List<String>> lists = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the canonical instance of the given value, adding it if unseen.
+     *
+     * @param value the value to intern, may be null
+     * @return the canonical instance, or null if the value is null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = values.get(value);
+        return canonical != null ? canonical : values.computeIfAbsent(value, v -> v);
+    }
+
+    /**
+     * Returns a canonical, unmodifiable list of canonical values. Equal lists share one instance.
+     *
+     * @param values the values to intern, may be null
+     * @return the canonical list; empty if the input is null
+     */
+    public List<String> internAll(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return List.of();
+        }
+        List<String> interned = new ArrayList<>(values.size());
+        for (String v : values) {
+            interned.add(intern(v));
+        }
+        return lists.computeIfAbsent(interned, Collections::unmodifiableList);
+    }
+
+    /**
+     * @return the number of distinct values
+     */
+    public int size() {
+        return values.size();
+    }
+}
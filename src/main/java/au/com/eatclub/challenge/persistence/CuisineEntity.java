@@ -1,6 +1,11 @@
 package au.com.eatclub.challenge.persistence;
 
     import jakarta.persistence.*;
+    import org.hibernate.annotations.Cache;
+    import org.hibernate.annotations.CacheConcurrencyStrategy;
+    import org.hibernate.annotations.NaturalId;
+    import org.hibernate.annotations.NaturalIdCache;
+
     import java.util.HashSet;
     import java.util.Set;
 
@@ -8,8 +13,13 @@ package au.com.eatclub.challenge.persistence;
      * Entity class representing a Cuisine in the database.
      * This class is mapped to the "cuisine" table and contains
      * information about different types of cuisines.
+     * Cuisines are reference data and are kept in the second-level cache,
+     * together with their name-to-id resolution.
      */
     @Entity
+    @Cacheable
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cuisine")
+    @NaturalIdCache(region = "cuisine_natural_id")
     @Table(name = "cuisine")
     public class CuisineEntity {
 
@@ -23,8 +33,10 @@ package au.com.eatclub.challenge.persistence;
 
         /**
          * The name of the cuisine.
-         * This field is mandatory and must be unique.
+         * This field is mandatory and must be unique; it is the natural id
+         * used for cached lookups by name.
          */
+        @NaturalId
         @Column(nullable = false, unique = true)
         private String name;
 
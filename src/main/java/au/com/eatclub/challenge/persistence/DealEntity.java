@@ -24,7 +24,7 @@ package au.com.eatclub.challenge.persistence;
          * Unique object identifier for the deal.
          * Cannot be null.
          */
-        @Column(name = "object_id", nullable = false)
+        @Column(name = "object_id", nullable = false, unique = true)
         private String objectId;
 
         /**
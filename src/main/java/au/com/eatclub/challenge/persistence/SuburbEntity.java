@@ -1,14 +1,24 @@
 package au.com.eatclub.challenge.persistence;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Represents a Suburb entity in the persistence layer.
  * This entity is mapped to the "suburb" table in the database.
+ * Suburbs are reference data and are kept in the second-level cache,
+ * together with their name-to-id resolution.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "suburb")
+@NaturalIdCache(region = "suburb_natural_id")
 @Table(name = "suburb")
 public class SuburbEntity {
 
@@ -22,8 +32,10 @@ public class SuburbEntity {
 
     /**
      * The name of the suburb.
-     * This field is mandatory and must be unique.
+     * This field is mandatory and must be unique; it is the natural id
+     * used for cached lookups by name.
      */
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String name;
 
@@ -1,7 +1,12 @@
 package au.com.eatclub.challenge.repository;
 
 import au.com.eatclub.challenge.persistence.DealEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing `DealEntity` persistence.
@@ -17,4 +22,44 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @see DealEntity
  */
 public interface DealRepository extends JpaRepository<DealEntity, Long> {
+
+    /**
+     * Finds a `DealEntity` by its object ID.
+     *
+     * @param objectId the object ID of the deal
+     * @return an `Optional` containing the `DealEntity` if found, or empty if not found
+     */
+    Optional<DealEntity> findByObjectId(String objectId);
+
+    /**
+     * Finds all deals with their restaurant, suburb and cuisines fetched in the same query,
+     * so navigating from a deal to its restaurant's details issues no further statements.
+     *
+     * @return all deals, fully initialized
+     */
+    @EntityGraph(attributePaths = {"restaurant", "restaurant.suburb", "restaurant.cuisines"})
+    @Query("select d from DealEntity d order by d.id")
+    List<DealEntity> findAllWithRestaurant();
+
+    /**
+     * Reads every deal as a flat `DealRow`, joining restaurant, suburb and cuisines in a
+     * single SQL query. Cuisine names are aggregated per deal and split again by `DealRow`.
+     *
+     * @return one row per deal, in insertion order
+     */
+    @Query("""
+            select new au.com.eatclub.challenge.repository.DealRow(
+                d.objectId, d.discount, d.dineIn, d.lightning, d.qtyLeft, d.availableFrom, d.availableTo,
+                r.objectId, r.name, r.address1, r.imageLink, r.openTime, r.closeTime, s.name,
+                listagg(c.name, '\u001F') within group (order by c.name))
+            from DealEntity d
+            join d.restaurant r
+            left join r.suburb s
+            left join r.cuisines c
+            group by d.id, d.objectId, d.discount, d.dineIn, d.lightning, d.qtyLeft, d.availableFrom,
+                d.availableTo, r.id, r.objectId, r.name, r.address1, r.imageLink, r.openTime, r.closeTime,
+                s.name
+            order by d.id
+            """)
+    List<DealRow> findAllRows();
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package au.com.eatclub.challenge.repository;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Flat read projection of a deal together with its restaurant, suburb and cuisines.
+ *
+ * <p>Produced by `DealRepository.findAllRows()` in a single SQL query, so reading it never
+ * triggers lazy loading of the underlying entities.</p>
+ *
+ * @param dealObjectId       the object ID of the deal
+ * @param discount           the discount percentage
+ * @param dineIn             whether the deal is dine-in
+ * @param lightning          whether the deal is a lightning deal
+ * @param qtyLeft            the remaining quantity
+ * @param availableFrom      the start of the deal's availability window, if any
+ * @param availableTo        the end of the deal's availability window, if any
+ * @param restaurantObjectId the object ID of the restaurant offering the deal
+ * @param restaurantName     the restaurant's name
+ * @param address1           the restaurant's address
+ * @param imageLink          the restaurant's image link
+ * @param openTime           the restaurant's opening time, if known
+ * @param closeTime          the restaurant's closing time, if known
+ * @param suburb             the restaurant's suburb, if any
+ * @param cuisines           the restaurant's cuisines, sorted by name
+ */
+public record DealRow(
+        String dealObjectId,
+        int discount,
+        boolean dineIn,
+        boolean lightning,
+        int qtyLeft,
+        LocalTime availableFrom,
+        LocalTime availableTo,
+        String restaurantObjectId,
+        String restaurantName,
+        String address1,
+        String imageLink,
+        LocalTime openTime,
+        LocalTime closeTime,
+        String suburb,
+        List<String> cuisines
+) {
+
+    /**
+     * Separator used to aggregate cuisine names into a single column.
+     */
+    static final String CUISINE_SEPARATOR = "\u001F";
+
+    /**
+     * Constructor used by the JPQL constructor expression, taking the cuisine names as one
+     * aggregated column.
+     */
+    public DealRow(
+            String dealObjectId,
+            int discount,
+            boolean dineIn,
+            boolean lightning,
+            int qtyLeft,
+            LocalTime availableFrom,
+            LocalTime availableTo,
+            String restaurantObjectId,
+            String restaurantName,
+            String address1,
+            String imageLink,
+            LocalTime openTime,
+            LocalTime closeTime,
+            String suburb,
+            String cuisines
+    ) {
+        this(dealObjectId, discount, dineIn, lightning, qtyLeft, availableFrom, availableTo,
+                restaurantObjectId, restaurantName, address1, imageLink, openTime, closeTime, suburb,
+                cuisines == null || cuisines.isEmpty()
+                        ? List.of()
+                        : Arrays.asList(cuisines.split(CUISINE_SEPARATOR)));
+    }
+}
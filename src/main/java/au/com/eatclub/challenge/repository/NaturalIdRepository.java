@@ -0,0 +1,28 @@
+package au.com.eatclub.challenge.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Optional;
+
+/**
+ * Base repository interface for entities with a simple `@NaturalId`.
+ *
+ * <p>Lookups go through Hibernate's natural-id API rather than a JPQL query, so with
+ * `@NaturalIdCache` and the second-level cache enabled on the entity a repeated lookup
+ * is resolved without touching the database.</p>
+ *
+ * @param <T>  the entity type
+ * @param <ID> the type of the entity's primary key
+ */
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+    /**
+     * Finds an entity by its natural id.
+     *
+     * @param naturalId the natural id value
+     * @return an `Optional` containing the entity if found, or empty if not found
+     */
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+}
@@ -0,0 +1,41 @@
+package au.com.eatclub.challenge.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Repository base class implementing `NaturalIdRepository` on top of `SimpleJpaRepository`.
+ *
+ * <p>Registered as the `repositoryBaseClass` of every repository in the application; repositories
+ * that do not extend `NaturalIdRepository` simply never call the extra method.</p>
+ *
+ * @param <T>  the entity type
+ * @param <ID> the type of the entity's primary key
+ */
+public class NaturalIdRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID>
+        implements NaturalIdRepository<T, ID> {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Creates the repository for the given entity.
+     *
+     * @param entityInformation metadata of the managed entity
+     * @param entityManager     the entity manager to use
+     */
+    public NaturalIdRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<T> findBySimpleNaturalId(Object naturalId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(getDomainClass())
+                .loadOptional(naturalId);
+    }
+}
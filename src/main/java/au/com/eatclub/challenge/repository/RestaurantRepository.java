@@ -1,8 +1,11 @@
 package au.com.eatclub.challenge.repository;
 
 import au.com.eatclub.challenge.persistence.RestaurantEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -24,4 +27,14 @@ public interface RestaurantRepository extends JpaRepository<RestaurantEntity, Lo
      * @return an `Optional` containing the `RestaurantEntity` if found, or empty if not found
      */
     Optional<RestaurantEntity> findByObjectId(String objectId);
+
+    /**
+     * Finds all restaurants with their suburb and cuisines fetched in the same query.
+     * Deals are not fetched; read them with `DealRepository.findAllRows()`.
+     *
+     * @return all restaurants, in insertion order
+     */
+    @EntityGraph(attributePaths = {"suburb", "cuisines"})
+    @Query("select r from RestaurantEntity r order by r.id")
+    List<RestaurantEntity> findAllWithSuburbAndCuisines();
 }
\ No newline at end of file
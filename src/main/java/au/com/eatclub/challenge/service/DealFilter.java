@@ -50,4 +50,23 @@ package au.com.eatclub.challenge.service;
                 return time.isAfter(start) || time.isBefore(end);
             }
 
+            /**
+             * Same rule as {@link #isActive(Deal, LocalTime)}, on times expressed as seconds of
+             * the day, for callers that read deals from columnar storage.
+             *
+             * @param start the start of the deal's window in seconds of the day, or -1 if unbounded
+             * @param end   the end of the deal's window in seconds of the day, or -1 if unbounded
+             * @param time  the time to check, in seconds of the day
+             * @return `true` if the deal is active at the given time, `false` otherwise
+             */
+            public boolean isActive(int start, int end, int time) {
+                if (start < 0 || end < 0) {
+                    return true;
+                }
+                if (start <= end) {
+                    return time >= start && time < end;
+                }
+                return time > start || time < end;
+            }
+
         }
\ No newline at end of file
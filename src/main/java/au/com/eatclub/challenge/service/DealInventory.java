@@ -0,0 +1,376 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.ServedDataset;
+import au.com.eatclub.challenge.snapshot.OffHeapDealStore;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * In-memory stock of every deal in the current dataset, claimed without locks.
+ * <p>
+ * Remaining quantities live in an {@link AtomicIntegerArray} indexed by deal ordinal: the
+ * position of the deal when walking restaurants, then their deals, in dataset order (the same
+ * order as the off-heap store's deal columns). A claim is a single compare-and-set on its slot,
+ * so claims on different deals never contend and claims on one deal never block.
+ * </p>
+ * <p>
+ * In off-heap mode stock is built from the store's deal columns, and deal object ids are neither
+ * copied nor decoded: claims find their ordinal through an open-addressing table of ordinals
+ * keyed by the hash of the id's bytes in the store.
+ * </p>
+ * <p>
+ * Changed quantities are queued for write-behind; {@link #drainChanges()} hands them to
+ * {@link InventoryWriter}, which persists them in batches. When the dataset is replaced, stock
+ * is rebuilt from the feed's {@code qtyLeft}, keeping the local count for deals whose feed
+ * quantity did not change.
+ * </p>
+ */
+@Component
+public class DealInventory {
+
+    /**
+     * Outcome of a claim.
+     *
+     * @param status  whether the claim succeeded
+     * @param qtyLeft the quantity left after the claim (0 if sold out, -1 if the deal is unknown)
+     */
+    public record ClaimResult(Status status, int qtyLeft) {
+
+        /**
+         * Possible outcomes of a claim.
+         */
+        public enum Status { CLAIMED, SOLD_OUT, UNKNOWN_DEAL }
+    }
+
+    /**
+     * A deal whose quantity changed since it was last persisted.
+     *
+     * @param dealObjectId the deal's object id
+     * @param qtyLeft      its current quantity
+     */
+    public record StockChange(String dealObjectId, int qtyLeft) { }
+
+    private final DataLoader loader;
+    private volatile Stock stock;
+
+    /**
+     * Constructs a DealInventory over the datasets served by the given loader.
+     *
+     * @param loader the DataLoader whose current dataset is stocked
+     */
+    public DealInventory(DataLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Claims one unit of a deal.
+     *
+     * @param dealObjectId the deal's object id
+     * @return the outcome, with the quantity left
+     */
+    public ClaimResult claim(String dealObjectId) {
+        while (true) {
+            Stock s = stockFor(loader.dataset());
+            int ordinal = s.ids.ordinal(dealObjectId);
+            if (ordinal < 0) {
+                return new ClaimResult(ClaimResult.Status.UNKNOWN_DEAL, -1);
+            }
+
+            // Register the claim so a rebuild waits for it; retry on the new stock if one started
+            s.inFlight.incrementAndGet();
+            try {
+                if (s.retired) {
+                    continue;
+                }
+                int before = s.remaining.getAndUpdate(ordinal, q -> q > 0 ? q - 1 : q);
+                if (before <= 0) {
+                    return new ClaimResult(ClaimResult.Status.SOLD_OUT, 0);
+                }
+                s.markChanged(ordinal);
+                return new ClaimResult(ClaimResult.Status.CLAIMED, before - 1);
+            } finally {
+                s.inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the stock levels for a dataset, building them if the dataset is new.
+     *
+     * @param served the dataset being served, as returned by {@link DataLoader#dataset()}
+     * @return remaining quantities of the dataset's deals, by ordinal
+     */
+    public StockLevels levels(ServedDataset served) {
+        return stockFor(served);
+    }
+
+    /**
+     * Remaining quantities of one dataset's deals, by ordinal.
+     */
+    public interface StockLevels {
+
+        /**
+         * @param ordinal the deal's ordinal in the dataset
+         * @return the quantity left
+         */
+        int remaining(int ordinal);
+    }
+
+    /**
+     * Removes and returns the quantities that changed since the last call.
+     *
+     * @return the changed deals with their current quantity
+     */
+    public List<StockChange> drainChanges() {
+        Stock s = stock;
+        if (s == null) {
+            return List.of();
+        }
+        List<StockChange> changes = new ArrayList<>();
+        Integer ordinal;
+        while ((ordinal = s.changed.poll()) != null) {
+            // Clear the flag before reading, so a concurrent claim queues the deal again
+            s.dirty.set(ordinal, 0);
+            changes.add(new StockChange(s.ids.objectId(ordinal), s.remaining.get(ordinal)));
+        }
+        return changes;
+    }
+
+    /**
+     * Queues deals for the next {@link #drainChanges()} again, e.g. after a failed write.
+     *
+     * @param changes changes previously returned by {@link #drainChanges()}
+     */
+    public void requeue(List<StockChange> changes) {
+        Stock s = stock;
+        if (s == null) {
+            return;
+        }
+        for (StockChange change : changes) {
+            int ordinal = s.ids.ordinal(change.dealObjectId());
+            if (ordinal >= 0) {
+                s.markChanged(ordinal);
+            }
+        }
+    }
+
+    private Stock stockFor(ServedDataset served) {
+        ChallengeData data = served.data();
+        Stock s = stock;
+        if (s != null && s.source == data) {
+            return s;
+        }
+        synchronized (this) {
+            s = stock;
+            if (s != null && s.source == data) {
+                return s;
+            }
+            Stock next = new Stock(data, served.offHeapStore());
+            if (s != null) {
+                next.carryOver(s);
+            }
+            stock = next;
+            return next;
+        }
+    }
+
+    private static final class Stock implements StockLevels {
+
+        private final ChallengeData source;
+        private final DealIds ids;
+        private final int[] feedQty;
+        private final AtomicIntegerArray remaining;
+        private final AtomicIntegerArray dirty;
+        private final ConcurrentLinkedQueue<Integer> changed = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean retired;
+
+        Stock(ChallengeData source, Optional<OffHeapDealStore> store) {
+            this.source = source;
+            if (store.isPresent()) {
+                // Read the quantities straight from the off-heap columns
+                OffHeapDealStore s = store.get();
+                OffHeapDealStore.DealView d = s.dealView();
+                this.ids = new OffHeapIds(s);
+                this.feedQty = new int[s.dealCount()];
+                for (int i = 0; i < feedQty.length; i++) {
+                    feedQty[i] = d.moveTo(i).qtyLeft();
+                }
+            } else {
+                HeapIds heap = new HeapIds(source);
+                this.ids = heap;
+                this.feedQty = new int[heap.objectIds.length];
+                int i = 0;
+                for (Restaurant r : source.restaurants()) {
+                    for (Deal d : r.deals()) {
+                        feedQty[i++] = d.qtyLeft();
+                    }
+                }
+            }
+            this.remaining = new AtomicIntegerArray(feedQty);
+            this.dirty = new AtomicIntegerArray(feedQty.length);
+        }
+
+        @Override
+        public int remaining(int ordinal) {
+            return remaining.get(ordinal);
+        }
+
+        void markChanged(int ordinal) {
+            if (dirty.compareAndSet(ordinal, 0, 1)) {
+                changed.add(ordinal);
+            }
+        }
+
+        /**
+         * Keeps the local count of deals whose feed quantity is unchanged. Waits for claims in
+         * progress on the previous stock, so none is lost.
+         */
+        void carryOver(Stock previous) {
+            previous.retired = true;
+            while (previous.inFlight.get() > 0) {
+                Thread.onSpinWait();
+            }
+            for (int i = 0; i < feedQty.length; i++) {
+                int old = previous.ids.ordinal(ids.objectId(i));
+                if (old < 0 || previous.feedQty[old] != feedQty[i]) {
+                    continue;
+                }
+                int local = previous.remaining.get(old);
+                remaining.set(i, local);
+                if (local != feedQty[i] || previous.dirty.get(old) != 0) {
+                    markChanged(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps deal object ids to ordinals and back.
+     */
+    private interface DealIds {
+
+        /**
+         * @param objectId a deal object id
+         * @return the deal's ordinal, or -1 if the dataset has no such deal
+         */
+        int ordinal(String objectId);
+
+        /**
+         * @param ordinal a deal ordinal
+         * @return the deal's object id
+         */
+        String objectId(int ordinal);
+    }
+
+    /**
+     * Object ids of a heap dataset, held in a map.
+     */
+    private static final class HeapIds implements DealIds {
+
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final String[] objectIds;
+
+        HeapIds(ChallengeData source) {
+            int count = 0;
+            for (Restaurant r : source.restaurants()) {
+                count += r.deals().size();
+            }
+            this.objectIds = new String[count];
+            int i = 0;
+            for (Restaurant r : source.restaurants()) {
+                for (Deal d : r.deals()) {
+                    ordinals.put(d.objectId(), i);
+                    objectIds[i++] = d.objectId();
+                }
+            }
+        }
+
+        @Override
+        public int ordinal(String objectId) {
+            Integer ordinal = ordinals.get(objectId);
+            return ordinal == null ? -1 : ordinal;
+        }
+
+        @Override
+        public String objectId(int ordinal) {
+            return objectIds[ordinal];
+        }
+    }
+
+    /**
+     * Object ids of an off-heap dataset, left in the store. Ordinals are filed in a linear-probing
+     * table by the hash of their id's bytes; a lookup compares the candidates' bytes in place.
+     */
+    private static final class OffHeapIds implements DealIds {
+
+        private final OffHeapDealStore store;
+        private final int[] slots; // ordinal + 1 of the deal filed in each slot, 0 if empty
+        private final int mask;
+
+        OffHeapIds(OffHeapDealStore store) {
+            this.store = store;
+            int size = 2;
+            while (size < 2 * store.dealCount()) {
+                size <<= 1;
+            }
+            this.slots = new int[size];
+            this.mask = size - 1;
+
+            OffHeapDealStore.DealView d = store.dealView();
+            OffHeapDealStore.DealView filed = store.dealView();
+            for (int i = 0; i < store.dealCount(); i++) {
+                d.moveTo(i);
+                int hash = d.objectIdHash();
+                if (hash == 0 && d.objectId() == null) {
+                    continue;
+                }
+                int slot = spread(hash) & mask;
+                // A repeated id resolves to its last deal, as in a map
+                while (slots[slot] != 0 && (filed.moveTo(slots[slot] - 1).objectIdHash() != hash
+                        || !filed.objectId().equals(d.objectId()))) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = i + 1;
+            }
+        }
+
+        @Override
+        public int ordinal(String objectId) {
+            if (objectId == null) {
+                return -1;
+            }
+            byte[] utf8 = objectId.getBytes(StandardCharsets.UTF_8);
+            OffHeapDealStore.DealView d = store.dealView();
+            for (int slot = spread(Arrays.hashCode(utf8)) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                if (d.moveTo(slots[slot] - 1).objectIdEquals(utf8)) {
+                    return slots[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public String objectId(int ordinal) {
+            return store.dealView().moveTo(ordinal).objectId();
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.api.ActiveDealResponse;
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Restaurant;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link ActiveDealResponse} of every deal in the current dataset, built once per dataset.
+ * <p>
+ * A deal's response row only depends on the dataset, so rows are materialised when a dataset is
+ * first served and indexed by deal ordinal (see {@link DealInventory}). Requests then select
+ * existing rows instead of formatting times and allocating a record per matching deal; only a
+ * deal whose live quantity differs from the feed's gets a copy (see
+ * {@link ActiveDealResponse#withQtyLeft(int)}).
+ * </p>
+ * <p>
+ * When the dataset is replaced, restaurants that kept their instance (unchanged since the previous
+ * dataset, see {@link au.com.eatclub.challenge.loader.DataLoader#refresh()}) keep their rows too.
+ * Only used for heap datasets: the off-heap store exists to keep the heap small, so it decodes
+ * rows for matching deals only.
+ * </p>
+ */
+@Component
+public class DealRows {
+
+    private volatile Rows rows;
+
+    /**
+     * Returns the response rows of a dataset, building them if the dataset is new.
+     *
+     * @param data the dataset being served
+     * @return the response row of every deal, by ordinal
+     */
+    public List<ActiveDealResponse> of(ChallengeData data) {
+        Rows r = rows;
+        if (r != null && r.source == data) {
+            return r.byOrdinal;
+        }
+        synchronized (this) {
+            r = rows;
+            if (r == null || r.source != data) {
+                r = new Rows(data, r);
+                rows = r;
+            }
+            return r.byOrdinal;
+        }
+    }
+
+    private static final class Rows {
+
+        private final ChallengeData source;
+        private final List<ActiveDealResponse> byOrdinal;
+        private final Map<Restaurant, Integer> firstOrdinals = new IdentityHashMap<>();
+
+        Rows(ChallengeData source, Rows previous) {
+            this.source = source;
+            int count = 0;
+            for (Restaurant r : source.restaurants()) {
+                count += r.deals().size();
+            }
+
+            ActiveDealResponse[] rows = new ActiveDealResponse[count];
+            int ordinal = 0;
+            for (Restaurant r : source.restaurants()) {
+                firstOrdinals.put(r, ordinal);
+                Integer reused = previous == null ? null : previous.firstOrdinals.get(r);
+                for (int i = 0; i < r.deals().size(); i++) {
+                    rows[ordinal++] = reused != null
+                            ? previous.byOrdinal.get(reused + i)
+                            : ActiveDealResponse.from(r, r.deals().get(i));
+                }
+            }
+            this.byOrdinal = Arrays.asList(rows);
+        }
+    }
+}
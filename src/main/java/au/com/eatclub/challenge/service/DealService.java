@@ -5,12 +5,16 @@ import au.com.eatclub.challenge.domain.ChallengeData;
 import au.com.eatclub.challenge.domain.Deal;
 import au.com.eatclub.challenge.domain.Restaurant;
 import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.ServedDataset;
+import au.com.eatclub.challenge.snapshot.OffHeapDealStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service class responsible for managing and retrieving active deals.
@@ -22,33 +26,156 @@ public class DealService {
 
     private final DataLoader loader;
     private final DealFilter filter;
+    private final DealInventory inventory;
+    private final DealRows rows;
 
     /**
-     * Constructs a new DealService with the specified DataLoader and DealFilter.
+     * Constructs a new DealService with the specified DataLoader, DealFilter and DealInventory,
+     * and its own response rows.
      *
-     * @param loader the DataLoader used to load challenge data
-     * @param filter the DealFilter used to determine active deals
+     * @param loader    the DataLoader used to load challenge data
+     * @param filter    the DealFilter used to determine active deals
+     * @param inventory the DealInventory holding each deal's remaining quantity
      */
-    public DealService(DataLoader loader, DealFilter filter) {
+    public DealService(DataLoader loader, DealFilter filter, DealInventory inventory) {
+        this(loader, filter, inventory, new DealRows());
+    }
+
+    /**
+     * Constructs a new DealService with the specified DataLoader, DealFilter, DealInventory
+     * and DealRows.
+     *
+     * @param loader    the DataLoader used to load challenge data
+     * @param filter    the DealFilter used to determine active deals
+     * @param inventory the DealInventory holding each deal's remaining quantity
+     * @param rows      the prebuilt response rows of the current dataset
+     */
+    @Autowired
+    public DealService(DataLoader loader, DealFilter filter, DealInventory inventory, DealRows rows) {
         this.loader = loader;
         this.filter = filter;
+        this.inventory = inventory;
+        this.rows = rows;
     }
 
     /**
      * Finds and returns a list of active deals for the given time.
+     * Sold-out deals are left out, and {@code qtyLeft} reflects claims made so far.
+     * <p>
+     * Response rows are prebuilt per dataset (see {@link DealRows}), so a request only allocates
+     * its result list, plus a copy for each deal whose quantity changed since the feed.
+     * </p>
      *
      * @param time the time to check for active deals
      * @return a list of ActiveDealResponse objects representing the active deals
      */
     public List<ActiveDealResponse> findActiveDeals(LocalTime time) {
-        ChallengeData data = loader.load();
-
-        return data.restaurants().stream()
-                .filter(r -> isRestaurantOpen(r, time))
-                .flatMap(r -> r.deals().stream()
-                        .filter(d -> filter.isActive(d, time))
-                        .map(d -> ActiveDealResponse.from(r, d)))
-                .toList();
+        return current().activeAt(time);
+    }
+
+    /**
+     * Reads the current dataset with its stock levels and response rows: the first of the two
+     * steps of {@link #findActiveDeals(LocalTime)}, which callers can time separately.
+     *
+     * @return the deals of the current dataset, ready to be filtered by time
+     */
+    public CurrentDeals current() {
+        // Read once, so the stock levels and rows belong to the same dataset as the store
+        ServedDataset served = loader.dataset();
+        ChallengeData data = served.data();
+        return new CurrentDeals(data, served.offHeapStore(), inventory.levels(served),
+                served.offHeapStore().isPresent() ? null : rows.of(data));
+    }
+
+    /**
+     * The deals of the dataset read by {@link #current()}.
+     */
+    public final class CurrentDeals {
+
+        private final ChallengeData data;
+        private final Optional<OffHeapDealStore> store;
+        private final DealInventory.StockLevels stock;
+        private final List<ActiveDealResponse> byOrdinal;
+
+        private CurrentDeals(ChallengeData data, Optional<OffHeapDealStore> store,
+                             DealInventory.StockLevels stock, List<ActiveDealResponse> byOrdinal) {
+            this.data = data;
+            this.store = store;
+            this.stock = stock;
+            this.byOrdinal = byOrdinal;
+        }
+
+        /**
+         * Selects the deals active at the given time: the second step of
+         * {@link #findActiveDeals(LocalTime)}.
+         *
+         * @param time the time to check for active deals
+         * @return a list of ActiveDealResponse objects representing the active deals
+         */
+        public List<ActiveDealResponse> activeAt(LocalTime time) {
+            return store.isPresent()
+                    ? findActiveDeals(store.get(), stock, time)
+                    : findActiveDeals(data, byOrdinal, stock, time);
+        }
+    }
+
+    private List<ActiveDealResponse> findActiveDeals(ChallengeData data, List<ActiveDealResponse> byOrdinal,
+                                                     DealInventory.StockLevels stock, LocalTime time) {
+        // Deal ordinals count every deal in dataset order, including those of closed restaurants
+        List<ActiveDealResponse> result = new ArrayList<>();
+        int ordinal = 0;
+        for (Restaurant r : data.restaurants()) {
+            if (!isRestaurantOpen(r, time)) {
+                ordinal += r.deals().size();
+                continue;
+            }
+            for (Deal d : r.deals()) {
+                int qtyLeft = stock.remaining(ordinal);
+                if (qtyLeft > 0 && filter.isActive(d, time)) {
+                    result.add(byOrdinal.get(ordinal).withQtyLeft(qtyLeft));
+                }
+                ordinal++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Off-heap variant of {@link #findActiveDeals(LocalTime)}: scans the store's columns through
+     * flyweight views and only decodes strings for the deals that match.
+     */
+    private List<ActiveDealResponse> findActiveDeals(
+            OffHeapDealStore store, DealInventory.StockLevels stock, LocalTime time) {
+        int t = time.toSecondOfDay();
+        OffHeapDealStore.RestaurantView r = store.restaurantView();
+        OffHeapDealStore.DealView d = store.dealView();
+
+        List<ActiveDealResponse> result = new ArrayList<>();
+        for (int i = 0; i < store.restaurantCount(); i++) {
+            r.moveTo(i);
+            if (!isRestaurantOpen(r.openSecond(), r.closeSecond(), t)) {
+                continue;
+            }
+            for (int j = r.firstDeal(); j < r.endDeal(); j++) {
+                // Off-heap deal indexes are the deal ordinals
+                int qtyLeft = stock.remaining(j);
+                d.moveTo(j);
+                if (qtyLeft > 0 && filter.isActive(d.availableFromSecond(), d.availableToSecond(), t)) {
+                    result.add(ActiveDealResponse.from(r, d).withQtyLeft(qtyLeft));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Claims one unit of a deal.
+     *
+     * @param dealObjectId the deal's object id
+     * @return the outcome, with the quantity left
+     */
+    public DealInventory.ClaimResult claim(String dealObjectId) {
+        return inventory.claim(dealObjectId);
     }
 
     /**
@@ -60,34 +187,26 @@ public class DealService {
      */
     public PeakTimeResult calculatePeakTime() {
         // Load the challenge data containing restaurants and their deals
-        ChallengeData data = loader.load();
+        ServedDataset served = loader.dataset();
+        ChallengeData data = served.data();
 
         // 1. Build event list
         // Create a list of time events representing the start and end times of deals
         List<TimeEvent> events = new ArrayList<>();
 
-        // Iterate through all restaurants and their deals
-        for (Restaurant r : data.restaurants()) {
-            for (Deal d : r.deals()) {
-                LocalTime start = d.availableFrom(); // Start time of the deal
-                LocalTime end = d.availableTo();     // End time of the deal
-
-                // Always-active deals → count entire 24 hours
-                if (start == null || end == null) {
-                    start = LocalTime.MIN; // Start of the day (00:00)
-                    end = LocalTime.MAX;   // End of the day (23:59:59.999)
-                }
-
-                // Handle wrap-around deals (e.g., 18:00 → 02:00)
-                if (start.isAfter(end)) {
-                    events.add(new TimeEvent(start, +1));          // Deal starts
-                    events.add(new TimeEvent(LocalTime.MAX, -1));  // Midnight boundary
-                    events.add(new TimeEvent(LocalTime.MIN, +1));  // Start of the next day
-                    events.add(new TimeEvent(end, -1));            // Deal ends
-                } else {
-                    // Normal case: deal starts and ends on the same day
-                    events.add(new TimeEvent(start, +1)); // Deal starts
-                    events.add(new TimeEvent(end, -1));   // Deal ends
+        Optional<OffHeapDealStore> store = served.offHeapStore();
+        if (store.isPresent()) {
+            // Read the deal windows straight from the off-heap columns
+            OffHeapDealStore.DealView d = store.get().dealView();
+            for (int i = 0; i < store.get().dealCount(); i++) {
+                d.moveTo(i);
+                addEvents(events, d.availableFrom(), d.availableTo());
+            }
+        } else {
+            // Iterate through all restaurants and their deals
+            for (Restaurant r : data.restaurants()) {
+                for (Deal d : r.deals()) {
+                    addEvents(events, d.availableFrom(), d.availableTo());
                 }
             }
         }
@@ -135,6 +254,11 @@ public class DealService {
         LocalTime open = r.openTime();
         LocalTime close = r.closeTime();
 
+        // Unknown opening hours: never treated as open
+        if (open == null || close == null) {
+            return false;
+        }
+
         // Normal case: opening and closing times are on the same day (e.g., 09:00 → 15:00)
         if (!open.isAfter(close)) {
             return !time.isBefore(open) && time.isBefore(close);  // closeTime is exclusive
@@ -146,4 +270,45 @@ public class DealService {
         //   [00:00 → close)
         return time.isAfter(open) || time.isBefore(close);  // close is exclusive
     }
-}
\ No newline at end of file
+
+    /**
+     * Same rule as {@link #isRestaurantOpen(Restaurant, LocalTime)}, on times expressed as
+     * seconds of the day (-1 for unknown).
+     */
+    static boolean isRestaurantOpen(int open, int close, int time) {
+        if (open < 0 || close < 0) {
+            return false;
+        }
+        if (open <= close) {
+            return time >= open && time < close;
+        }
+        return time > open || time < close;
+    }
+
+    /**
+     * Adds the sweep-line events for one deal window.
+     *
+     * @param events the event list to append to
+     * @param start  start time of the deal, or null if unbounded
+     * @param end    end time of the deal, or null if unbounded
+     */
+    private static void addEvents(List<TimeEvent> events, LocalTime start, LocalTime end) {
+        // Always-active deals → count entire 24 hours
+        if (start == null || end == null) {
+            start = LocalTime.MIN; // Start of the day (00:00)
+            end = LocalTime.MAX;   // End of the day (23:59:59.999)
+        }
+
+        // Handle wrap-around deals (e.g., 18:00 → 02:00)
+        if (start.isAfter(end)) {
+            events.add(new TimeEvent(start, +1));          // Deal starts
+            events.add(new TimeEvent(LocalTime.MAX, -1));  // Midnight boundary
+            events.add(new TimeEvent(LocalTime.MIN, +1));  // Start of the next day
+            events.add(new TimeEvent(end, -1));            // Deal ends
+        } else {
+            // Normal case: deal starts and ends on the same day
+            events.add(new TimeEvent(start, +1)); // Deal starts
+            events.add(new TimeEvent(end, -1));   // Deal ends
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.api.ActiveDealResponse;
+import au.com.eatclub.challenge.api.DealTransitionResponse;
+import au.com.eatclub.challenge.api.TimeFormat;
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.ServedDataset;
+import au.com.eatclub.challenge.snapshot.OffHeapDealStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes the deals that become active or inactive at each minute of the day.
+ * <p>
+ * For every dataset, each deal's activity (restaurant open, deal window, as in
+ * {@link DealService#findActiveDeals(LocalTime)}) is evaluated only around its own boundary
+ * times, and the deal is filed under the minutes at which it starts or stops. At each minute the
+ * precomputed lists for that minute are turned into one event, which is shared by every
+ * subscriber of {@link #stream()}: the cost of a tick does not depend on the number of clients.
+ * </p>
+ * <p>
+ * Deals are only announced as activated while they have stock left (see {@link DealInventory}).
+ * </p>
+ * <p>
+ * A minute whose transitions cannot be computed, e.g. before the first dataset is loaded, sends
+ * a comment instead, so one failed tick never ends the stream for its subscribers.
+ * </p>
+ */
+@Component
+public class DealTransitions {
+
+    private static final Logger log = LoggerFactory.getLogger(DealTransitions.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final DataLoader loader;
+    private final DealFilter filter;
+    private final DealInventory inventory;
+    private final Clock clock;
+    private final Flux<ServerSentEvent<DealTransitionResponse>> stream;
+    private volatile Boundaries boundaries;
+
+    /**
+     * Constructs a DealTransitions ticking on the system clock.
+     *
+     * @param loader    the DataLoader providing the current dataset
+     * @param filter    the DealFilter used to determine active deals
+     * @param inventory the DealInventory holding each deal's remaining quantity
+     */
+    @Autowired
+    public DealTransitions(DataLoader loader, DealFilter filter, DealInventory inventory) {
+        this(loader, filter, inventory, Clock.systemDefaultZone());
+    }
+
+    DealTransitions(DataLoader loader, DealFilter filter, DealInventory inventory, Clock clock) {
+        this.loader = loader;
+        this.filter = filter;
+        this.inventory = inventory;
+        this.clock = clock;
+
+        // One timer and one event per minute, multicast to all subscribers; minutes without
+        // transitions send a comment so idle connections are kept alive
+        this.stream = Flux.defer(() -> {
+                    AtomicBoolean ticked = new AtomicBoolean();
+                    return Mono.defer(() -> Mono.delay(untilNextMinute(ticked.getAndSet(true)))).repeat();
+                })
+                .map(tick -> tick(currentMinute()))
+                .share();
+    }
+
+    /**
+     * @return a hot stream of one server-sent event per minute
+     */
+    public Flux<ServerSentEvent<DealTransitionResponse>> stream() {
+        return stream;
+    }
+
+    /**
+     * Returns the deals that become active and inactive at the given minute of the day.
+     *
+     * @param minuteOfDay the minute, from 0 (00:00) to 1439 (23:59)
+     * @return the transitions at that minute
+     */
+    public DealTransitionResponse at(int minuteOfDay) {
+        if (minuteOfDay < 0 || minuteOfDay >= MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Minute of day out of range: " + minuteOfDay);
+        }
+        ServedDataset served = loader.dataset();
+        ChallengeData data = served.data();
+        Boundaries b = boundaries(served);
+        DealInventory.StockLevels stock = inventory.levels(served);
+        Optional<OffHeapDealStore> store = served.offHeapStore();
+
+        List<ActiveDealResponse> activated = new ArrayList<>();
+        for (int ordinal : b.activating[minuteOfDay]) {
+            int qtyLeft = stock.remaining(ordinal);
+            if (qtyLeft > 0) {
+                activated.add(response(data, store, b, ordinal).withQtyLeft(qtyLeft));
+            }
+        }
+        List<String> deactivated = new ArrayList<>();
+        for (int ordinal : b.deactivating[minuteOfDay]) {
+            deactivated.add(response(data, store, b, ordinal).dealObjectId());
+        }
+        return new DealTransitionResponse(
+                TimeFormat.format(LocalTime.of(minuteOfDay / 60, minuteOfDay % 60)),
+                activated,
+                deactivated
+        );
+    }
+
+    /**
+     * Returns the event sent at the given minute: its transitions, or a comment if there are
+     * none or they cannot be computed. Never throws, as an error would end the shared stream.
+     *
+     * @param minuteOfDay the minute, from 0 (00:00) to 1439 (23:59)
+     * @return the event for that minute
+     */
+    ServerSentEvent<DealTransitionResponse> tick(int minuteOfDay) {
+        if (!loader.isLoaded()) {
+            return comment(minuteOfDay);
+        }
+        try {
+            DealTransitionResponse t = at(minuteOfDay);
+            if (t.activated().isEmpty() && t.deactivated().isEmpty()) {
+                return comment(minuteOfDay);
+            }
+            return ServerSentEvent.builder(t).event("deals").id(t.time()).build();
+        } catch (RuntimeException e) {
+            log.warn("Could not compute the deal transitions at minute {}: {}", minuteOfDay, e.toString());
+            return comment(minuteOfDay);
+        }
+    }
+
+    private static ServerSentEvent<DealTransitionResponse> comment(int minuteOfDay) {
+        String time = TimeFormat.format(LocalTime.of(minuteOfDay / 60, minuteOfDay % 60));
+        return ServerSentEvent.<DealTransitionResponse>builder().comment(time).build();
+    }
+
+    // Rounded, so a timer that fires a little early still reports the minute it was meant for
+    private int currentMinute() {
+        LocalTime now = LocalTime.now(clock).plusSeconds(30);
+        return now.getHour() * 60 + now.getMinute();
+    }
+
+    /**
+     * Returns the delay until the next minute boundary. Right after a tick, a timer that fired a
+     * little early could otherwise schedule the same boundary again, so the boundary is then
+     * taken from one second later; before the first tick the very next boundary is used.
+     *
+     * @param afterTick whether a tick has just fired
+     * @return the delay until the next tick
+     */
+    Duration untilNextMinute(boolean afterTick) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime from = afterTick ? now.plusSeconds(1) : now;
+        return Duration.between(now, from.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1));
+    }
+
+    /**
+     * Builds the response of one deal, from the heap dataset or the off-heap store.
+     */
+    static ActiveDealResponse response(
+            ChallengeData data, Optional<OffHeapDealStore> store, Boundaries b, int ordinal) {
+        int restaurant = b.restaurantOf[ordinal];
+        if (store.isPresent()) {
+            return ActiveDealResponse.from(
+                    store.get().restaurantView().moveTo(restaurant),
+                    store.get().dealView().moveTo(ordinal));
+        }
+        Restaurant r = data.restaurants().get(restaurant);
+        return ActiveDealResponse.from(r, r.deals().get(ordinal - b.firstOrdinal[restaurant]));
+    }
+
+    /**
+     * Returns the per-minute boundary lists of a dataset, building them if the dataset is new.
+     *
+     * @param served the dataset being served, as returned by {@link DataLoader#dataset()}
+     * @return the dataset's boundaries
+     */
+    Boundaries boundaries(ServedDataset served) {
+        ChallengeData data = served.data();
+        Boundaries b = boundaries;
+        if (b != null && b.source == data) {
+            return b;
+        }
+        synchronized (this) {
+            b = boundaries;
+            if (b == null || b.source != data) {
+                b = new Boundaries(data, served.offHeapStore(), filter);
+                boundaries = b;
+            }
+            return b;
+        }
+    }
+
+    /**
+     * Deal ordinals filed by the minute at which they become active or inactive.
+     */
+    static final class Boundaries {
+
+        private final ChallengeData source;
+        private final int[][] activating = new int[MINUTES_PER_DAY][];
+        private final int[][] deactivating = new int[MINUTES_PER_DAY][];
+        private final int[] restaurantOf;
+        private final int[] firstOrdinal;
+        private final BitSet activeAtMidnight = new BitSet();
+
+        Boundaries(ChallengeData source, Optional<OffHeapDealStore> store, DealFilter filter) {
+            this.source = source;
+            IntBuffer[] on = new IntBuffer[MINUTES_PER_DAY];
+            IntBuffer[] off = new IntBuffer[MINUTES_PER_DAY];
+            for (int m = 0; m < MINUTES_PER_DAY; m++) {
+                on[m] = new IntBuffer();
+                off[m] = new IntBuffer();
+            }
+
+            if (store.isPresent()) {
+                // Read the times straight from the off-heap columns
+                OffHeapDealStore s = store.get();
+                restaurantOf = new int[s.dealCount()];
+                firstOrdinal = new int[s.restaurantCount()];
+                OffHeapDealStore.RestaurantView r = s.restaurantView();
+                OffHeapDealStore.DealView d = s.dealView();
+                for (int i = 0; i < s.restaurantCount(); i++) {
+                    r.moveTo(i);
+                    firstOrdinal[i] = r.firstDeal();
+                    for (int j = r.firstDeal(); j < r.endDeal(); j++) {
+                        d.moveTo(j);
+                        restaurantOf[j] = i;
+                        file(j, r.openSecond(), r.closeSecond(),
+                                d.availableFromSecond(), d.availableToSecond(), filter, on, off);
+                    }
+                }
+            } else {
+                List<Restaurant> restaurants = source.restaurants();
+                int count = restaurants.stream().mapToInt(r -> r.deals().size()).sum();
+                restaurantOf = new int[count];
+                firstOrdinal = new int[restaurants.size()];
+                int ordinal = 0;
+                for (int i = 0; i < restaurants.size(); i++) {
+                    Restaurant r = restaurants.get(i);
+                    firstOrdinal[i] = ordinal;
+                    for (Deal d : r.deals()) {
+                        restaurantOf[ordinal] = i;
+                        file(ordinal, second(r.openTime()), second(r.closeTime()),
+                                second(d.availableFrom()), second(d.availableTo()), filter, on, off);
+                        ordinal++;
+                    }
+                }
+            }
+
+            for (int m = 0; m < MINUTES_PER_DAY; m++) {
+                activating[m] = on[m].toArray();
+                deactivating[m] = off[m].toArray();
+            }
+        }
+
+        /**
+         * @return the number of deals in the dataset
+         */
+        int dealCount() {
+            return restaurantOf.length;
+        }
+
+        /**
+         * @return the ordinals of the deals that become active at the given minute
+         */
+        int[] activating(int minuteOfDay) {
+            return activating[minuteOfDay];
+        }
+
+        /**
+         * @return the ordinals of the deals that stop being active at the given minute
+         */
+        int[] deactivating(int minuteOfDay) {
+            return deactivating[minuteOfDay];
+        }
+
+        /**
+         * @return the ordinals of the deals active at 00:00; with the lists above, the active set
+         *         of any minute follows by applying each minute's changes in turn
+         */
+        BitSet activeAtMidnight() {
+            return (BitSet) activeAtMidnight.clone();
+        }
+
+        /**
+         * Activity can only change at a minute containing, or just after, one of the deal's four
+         * boundary times; each candidate minute is compared with the minute before it.
+         */
+        private void file(int ordinal, int open, int close, int from, int to,
+                          DealFilter filter, IntBuffer[] on, IntBuffer[] off) {
+            if (isActive(open, close, from, to, 0, filter)) {
+                activeAtMidnight.set(ordinal);
+            }
+            int[] candidates = new int[8];
+            int n = 0;
+            for (int second : new int[]{open, close, from, to}) {
+                if (second < 0) {
+                    continue;
+                }
+                int minute = second / 60;
+                n = addDistinct(candidates, n, minute);
+                n = addDistinct(candidates, n, (minute + 1) % MINUTES_PER_DAY);
+            }
+            for (int k = 0; k < n; k++) {
+                int m = candidates[k];
+                int previous = (m + MINUTES_PER_DAY - 1) % MINUTES_PER_DAY;
+                boolean now = isActive(open, close, from, to, m, filter);
+                boolean before = isActive(open, close, from, to, previous, filter);
+                if (now && !before) {
+                    on[m].add(ordinal);
+                } else if (!now && before) {
+                    off[m].add(ordinal);
+                }
+            }
+        }
+
+        private static int addDistinct(int[] values, int n, int value) {
+            for (int i = 0; i < n; i++) {
+                if (values[i] == value) {
+                    return n;
+                }
+            }
+            values[n] = value;
+            return n + 1;
+        }
+
+        private static boolean isActive(int open, int close, int from, int to, int minute, DealFilter filter) {
+            int t = minute * 60;
+            return DealService.isRestaurantOpen(open, close, t) && filter.isActive(from, to, t);
+        }
+
+        private static int second(LocalTime time) {
+            return time == null ? -1 : time.toSecondOfDay();
+        }
+    }
+
+    /**
+     * Minimal growable list of ints, to avoid boxing ordinals while filing them.
+     */
+    private static final class IntBuffer {
+
+        private static final int[] EMPTY = new int[0];
+
+        private int[] values = EMPTY;
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(4, size * 2));
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return size == 0 ? EMPTY : Arrays.copyOf(values, size);
+        }
+    }
+}
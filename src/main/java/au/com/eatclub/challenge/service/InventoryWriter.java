@@ -0,0 +1,64 @@
+package au.com.eatclub.challenge.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes claimed deal quantities back to the {@code deal} table behind {@code DealEntity}.
+ * <p>
+ * Claims only touch {@link DealInventory}; this component periodically drains the deals whose
+ * quantity changed and updates them in one JDBC batch, so a burst of claims on a lightning deal
+ * costs one row update per interval rather than one per claim.
+ * </p>
+ */
+@Component
+public class InventoryWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryWriter.class);
+
+    private static final String UPDATE_QTY = "UPDATE deal SET qty_left = ? WHERE object_id = ?";
+
+    private final DealInventory inventory;
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Constructs an InventoryWriter.
+     *
+     * @param inventory the inventory whose changes are persisted
+     * @param jdbc      the template used to run the batched updates
+     */
+    public InventoryWriter(DealInventory inventory, JdbcTemplate jdbc) {
+        this.inventory = inventory;
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Persists the quantities changed since the last flush.
+     *
+     * @return the number of deals written
+     */
+    @Scheduled(fixedDelayString = "${deals.inventory.flush-interval-ms:1000}")
+    public int flush() {
+        List<DealInventory.StockChange> changes = inventory.drainChanges();
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbc.batchUpdate(UPDATE_QTY, changes, changes.size(), (ps, change) -> {
+                ps.setInt(1, change.qtyLeft());
+                ps.setString(2, change.dealObjectId());
+            });
+        } catch (RuntimeException e) {
+            // Queue the deals again so the next flush retries them
+            inventory.requeue(changes);
+            throw e;
+        }
+        log.debug("Wrote qtyLeft for {} deals", changes.size());
+        return changes.size();
+    }
+}
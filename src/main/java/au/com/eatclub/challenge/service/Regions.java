@@ -0,0 +1,168 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.RegionFeed;
+import au.com.eatclub.challenge.loader.ServedDataset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The regional datasets served next to the default feed, one isolated shard per {@link RegionFeed}.
+ * <p>
+ * Each shard has its own {@link DataLoader} (with its own circuit breaker), stock levels, response
+ * rows and {@link DealService}, and is refreshed by its own scheduler thread. Shards are loaded in
+ * parallel at startup and then revalidated on their own interval; a slow, failing or large feed
+ * only holds up its own thread and the per-dataset structures of its own region. After each change
+ * the shard's rows and stock levels are built on that thread, before requests need them.
+ * </p>
+ * <p>
+ * Regional datasets are kept in memory only: persistence and snapshots cover the default feed.
+ * </p>
+ */
+public class Regions implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(Regions.class);
+
+    private final Map<String, Shard> shards;
+
+    /**
+     * Constructs the shards of the given regions. Nothing is fetched until {@link #start()}.
+     *
+     * @param feeds   the regional feeds
+     * @param loaders creates the DataLoader reading a region's feed
+     * @param filter  the DealFilter used to determine active deals
+     */
+    public Regions(List<RegionFeed> feeds, Function<RegionFeed, DataLoader> loaders, DealFilter filter) {
+        Map<String, Shard> byName = new LinkedHashMap<>();
+        for (RegionFeed feed : feeds) {
+            if (byName.put(feed.name(), new Shard(feed, loaders.apply(feed), filter)) != null) {
+                throw new IllegalArgumentException("Region configured twice: " + feed.name());
+            }
+        }
+        this.shards = Collections.unmodifiableMap(byName);
+    }
+
+    /**
+     * Starts loading every region at once, each then revalidated on its own interval.
+     */
+    public void start() {
+        for (Shard shard : shards.values()) {
+            shard.scheduler.scheduleWithFixedDelay(shard::refresh,
+                    0, shard.feed.refreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @param name the region's name
+     * @return the region's shard, or empty if no such region is configured
+     */
+    public Optional<Shard> get(String name) {
+        return Optional.ofNullable(shards.get(name));
+    }
+
+    /**
+     * @return the names of the configured regions, in configuration order
+     */
+    public Set<String> names() {
+        return shards.keySet();
+    }
+
+    /**
+     * Stops the refresh threads; the shards keep serving their current datasets.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards.values()) {
+            shard.scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * One region's dataset and the services reading it.
+     */
+    public static final class Shard {
+
+        private final RegionFeed feed;
+        private final DataLoader loader;
+        private final DealInventory inventory;
+        private final DealRows rows;
+        private final DealService service;
+        private final ScheduledExecutorService scheduler;
+        private volatile boolean loaded;
+
+        Shard(RegionFeed feed, DataLoader loader, DealFilter filter) {
+            this.feed = feed;
+            this.loader = loader;
+            this.inventory = new DealInventory(loader);
+            this.rows = new DealRows();
+            this.service = new DealService(loader, filter, inventory, rows);
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("region-" + feed.name()).daemon().factory());
+        }
+
+        /**
+         * @return the region's name
+         */
+        public String name() {
+            return feed.name();
+        }
+
+        /**
+         * @return the loader holding the region's current dataset
+         */
+        public DataLoader loader() {
+            return loader;
+        }
+
+        /**
+         * @return whether the region's first dataset has been loaded and indexed
+         */
+        public boolean isLoaded() {
+            return loaded;
+        }
+
+        /**
+         * @return the deal service over the region's dataset
+         */
+        public DealService service() {
+            return service;
+        }
+
+        /**
+         * Revalidates the region's feed and, if it changed, builds the new dataset's stock levels
+         * and rows. A failure is logged and the current dataset stays in place.
+         */
+        void refresh() {
+            long start = System.nanoTime();
+            try {
+                Optional<ServedDataset> changed = loader.refreshIfChanged();
+                if (changed.isEmpty()) {
+                    return;
+                }
+                ChallengeData data = changed.get().data();
+                inventory.levels(changed.get());
+                if (changed.get().offHeapStore().isEmpty()) {
+                    rows.of(data);
+                }
+                loaded = true;
+                log.info("Region {}: {} restaurants loaded in {} ms", feed.name(),
+                        data.restaurants().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (RuntimeException e) {
+                log.warn("Region {} refresh failed, still serving version {}: {}",
+                        feed.name(), loader.version().orElse("unknown"), e.toString());
+            }
+        }
+    }
+}
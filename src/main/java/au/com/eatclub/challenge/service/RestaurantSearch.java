@@ -0,0 +1,272 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.api.ActiveDealResponse;
+import au.com.eatclub.challenge.api.DealSummaryResponse;
+import au.com.eatclub.challenge.api.RestaurantMatchResponse;
+import au.com.eatclub.challenge.api.TimeFormat;
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.ServedDataset;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Text search and prefix autocomplete over restaurant names, suburbs and cuisines.
+ * <p>
+ * For each dataset an inverted index is built once: every normalized token (lower case, accents
+ * removed, split on anything that is not a letter or digit) maps to the ascending indexes of the
+ * restaurants containing it. Tokens are kept in a sorted array, so the tokens starting with a
+ * query prefix form one contiguous range found by binary search. A query matches the restaurants
+ * that have, for every query token, some token starting with it ({@code "thai ric"} finds a Thai
+ * restaurant in Richmond).
+ * </p>
+ * <p>
+ * Matches are returned in dataset order, each with its deals active at the given time, read from
+ * the prebuilt rows of {@link DealRows} and the live stock of {@link DealInventory}.
+ * </p>
+ */
+@Component
+public class RestaurantSearch {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final DataLoader loader;
+    private final DealFilter filter;
+    private final DealInventory inventory;
+    private final DealRows rows;
+    private volatile Index index;
+
+    /**
+     * Constructs a RestaurantSearch over the datasets served by the given loader.
+     *
+     * @param loader    the DataLoader providing the current dataset
+     * @param filter    the DealFilter used to determine active deals
+     * @param inventory the DealInventory holding each deal's remaining quantity
+     * @param rows      the prebuilt response rows of the current dataset
+     */
+    public RestaurantSearch(DataLoader loader, DealFilter filter, DealInventory inventory, DealRows rows) {
+        this.loader = loader;
+        this.filter = filter;
+        this.inventory = inventory;
+        this.rows = rows;
+    }
+
+    /**
+     * Finds the restaurants matching a query, with their deals active at the given time.
+     *
+     * @param query the text typed so far; every token is matched as a prefix
+     * @param time  the time at which deals must be active
+     * @param limit the maximum number of restaurants returned
+     * @return the matching restaurants in dataset order, at most {@code limit}
+     */
+    public List<RestaurantMatchResponse> search(String query, LocalTime time, int limit) {
+        List<String> tokens = tokens(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        ServedDataset served = loader.dataset();
+        ChallengeData data = served.data();
+        Index idx = indexFor(data);
+
+        BitSet matches = null;
+        for (String token : tokens) {
+            BitSet withToken = idx.withPrefix(token);
+            if (matches == null) {
+                matches = withToken;
+            } else {
+                matches.and(withToken);
+            }
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        DealInventory.StockLevels stock = inventory.levels(served);
+        boolean offHeap = served.offHeapStore().isPresent();
+        List<ActiveDealResponse> byOrdinal = offHeap ? null : rows.of(data);
+        List<RestaurantMatchResponse> result = new ArrayList<>(Math.min(limit, matches.cardinality()));
+        for (int i = matches.nextSetBit(0); i >= 0 && result.size() < limit; i = matches.nextSetBit(i + 1)) {
+            Restaurant r = data.restaurants().get(i);
+            result.add(match(r, activeDeals(r, idx.firstOrdinal[i], byOrdinal, stock, time)));
+        }
+        return result;
+    }
+
+    private List<DealSummaryResponse> activeDeals(Restaurant r, int firstOrdinal, List<ActiveDealResponse> byOrdinal,
+                                                  DealInventory.StockLevels stock, LocalTime time) {
+        int t = time.toSecondOfDay();
+        if (!DealService.isRestaurantOpen(second(r.openTime()), second(r.closeTime()), t)) {
+            return List.of();
+        }
+        List<DealSummaryResponse> deals = new ArrayList<>();
+        for (int i = 0; i < r.deals().size(); i++) {
+            Deal d = r.deals().get(i);
+            int qtyLeft = stock.remaining(firstOrdinal + i);
+            if (qtyLeft > 0 && filter.isActive(d, time)) {
+                ActiveDealResponse row = byOrdinal != null
+                        ? byOrdinal.get(firstOrdinal + i)
+                        : ActiveDealResponse.from(r, d);
+                deals.add(DealSummaryResponse.from(row.withQtyLeft(qtyLeft)));
+            }
+        }
+        return deals;
+    }
+
+    private static RestaurantMatchResponse match(Restaurant r, List<DealSummaryResponse> activeDeals) {
+        return new RestaurantMatchResponse(
+                r.objectId(),
+                r.name(),
+                r.address1(),
+                r.suburb(),
+                r.cuisines(),
+                TimeFormat.format(r.openTime()),
+                TimeFormat.format(r.closeTime()),
+                activeDeals
+        );
+    }
+
+    /**
+     * Splits text into normalized search tokens.
+     *
+     * @param text the text to split, may be null
+     * @return the lower-case, accent-free tokens, in order
+     */
+    static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static int second(LocalTime time) {
+        return time == null ? -1 : time.toSecondOfDay();
+    }
+
+    /**
+     * Builds the index of a dataset ahead of its first request.
+     *
+     * @param data the dataset being served
+     */
+    void prepare(ChallengeData data) {
+        indexFor(data);
+    }
+
+    private Index indexFor(ChallengeData data) {
+        Index idx = index;
+        if (idx != null && idx.source == data) {
+            return idx;
+        }
+        synchronized (this) {
+            idx = index;
+            if (idx == null || idx.source != data) {
+                idx = new Index(data);
+                index = idx;
+            }
+            return idx;
+        }
+    }
+
+    /**
+     * Sorted tokens with their postings: the ascending indexes of the restaurants containing them.
+     */
+    private static final class Index {
+
+        private final ChallengeData source;
+        private final int restaurantCount;
+        private final String[] terms;
+        private final int[][] postings;
+        private final int[] firstOrdinal;
+
+        Index(ChallengeData source) {
+            this.source = source;
+            List<Restaurant> restaurants = source.restaurants();
+            this.restaurantCount = restaurants.size();
+            this.firstOrdinal = new int[restaurantCount];
+
+            Map<String, IntList> byTerm = new TreeMap<>();
+            int ordinal = 0;
+            for (int i = 0; i < restaurantCount; i++) {
+                Restaurant r = restaurants.get(i);
+                firstOrdinal[i] = ordinal;
+                ordinal += r.deals().size();
+
+                List<String> tokens = new ArrayList<>(tokens(r.name()));
+                tokens.addAll(tokens(r.suburb()));
+                for (String cuisine : r.cuisines()) {
+                    tokens.addAll(tokens(cuisine));
+                }
+                for (String token : tokens) {
+                    byTerm.computeIfAbsent(token, t -> new IntList()).addOnce(i);
+                }
+            }
+
+            this.terms = byTerm.keySet().toArray(String[]::new);
+            this.postings = new int[terms.length][];
+            int t = 0;
+            for (IntList list : byTerm.values()) {
+                postings[t++] = list.toArray();
+            }
+        }
+
+        /**
+         * @return the restaurants having a token that starts with the given prefix
+         */
+        BitSet withPrefix(String prefix) {
+            BitSet result = new BitSet(restaurantCount);
+            int from = Arrays.binarySearch(terms, prefix);
+            if (from < 0) {
+                from = -from - 1;
+            }
+            for (int t = from; t < terms.length && terms[t].startsWith(prefix); t++) {
+                for (int restaurant : postings[t]) {
+                    result.set(restaurant);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Growable list of ascending ints that ignores repeats of its last value.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void addOnce(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.api.ActiveDealResponse;
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.ServedDataset;
+import au.com.eatclub.challenge.snapshot.OffHeapDealStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The best deals active at each minute of the day, ranked by {@link #score(int, boolean, int)}.
+ * <p>
+ * For every dataset the active set is swept once through the day: it starts from the deals active
+ * at 00:00 and applies the per-minute changes of {@link DealTransitions}, kept ordered by score.
+ * The leading {@value #DEFAULT_DEPTH} ordinals of each minute are stored, shared between
+ * consecutive minutes without changes. A request walks its minute's list and skips the deals sold
+ * out since the feed (see {@link DealInventory}), so nothing is sorted on the request path.
+ * </p>
+ * <p>
+ * Scores use the feed's quantities: claims remove sold-out deals but do not reorder the others.
+ * Only when so many of a minute's listed deals are sold out that fewer than {@code k} remain is the
+ * minute's active set rebuilt and its leading deals in stock selected with a bounded heap. The
+ * rebuilt list replaces the minute's list for as long as the same stock is served: a deal sold out
+ * by a claim stays sold out, so it is only rebuilt again once it runs short in turn.
+ * </p>
+ */
+@Component
+public class TopDeals {
+
+    /** The largest number of deals a request may ask for. */
+    public static final int MAX_K = 50;
+
+    static final int DEFAULT_DEPTH = 2 * MAX_K;
+    static final int LIGHTNING_BONUS = 10;
+    static final int QTY_CAP = 10;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final DataLoader loader;
+    private final DealTransitions transitions;
+    private final DealInventory inventory;
+    private final DealRows rows;
+    private final int depth;
+    private volatile Ranking ranking;
+
+    /**
+     * Constructs a TopDeals over the datasets served by the given loader.
+     *
+     * @param loader      the DataLoader providing the current dataset
+     * @param transitions the per-minute changes to the set of active deals
+     * @param inventory   the DealInventory holding each deal's remaining quantity
+     * @param rows        the prebuilt response rows of the current dataset
+     */
+    @Autowired
+    public TopDeals(DataLoader loader, DealTransitions transitions, DealInventory inventory, DealRows rows) {
+        this(loader, transitions, inventory, rows, DEFAULT_DEPTH);
+    }
+
+    TopDeals(DataLoader loader, DealTransitions transitions, DealInventory inventory, DealRows rows, int depth) {
+        this.loader = loader;
+        this.transitions = transitions;
+        this.inventory = inventory;
+        this.rows = rows;
+        this.depth = depth;
+    }
+
+    /**
+     * Scores a deal: its discount, plus {@value #LIGHTNING_BONUS} for a lightning deal, plus its
+     * quantity capped at {@value #QTY_CAP}, so that well-stocked deals come before nearly gone ones
+     * without stock outweighing the discount.
+     *
+     * @param discount  the deal's discount percentage
+     * @param lightning whether the deal is a lightning deal
+     * @param qtyLeft   the deal's quantity in the feed
+     * @return the deal's score, higher is better
+     */
+    public static int score(int discount, boolean lightning, int qtyLeft) {
+        return discount + (lightning ? LIGHTNING_BONUS : 0) + Math.min(Math.max(qtyLeft, 0), QTY_CAP);
+    }
+
+    /**
+     * Returns the best deals active at the given time, best first. Sold-out deals are left out,
+     * and {@code qtyLeft} reflects claims made so far.
+     *
+     * @param time the time to check for active deals; only its hour and minute are used
+     * @param k    the number of deals wanted, from 1 to {@value #MAX_K}
+     * @return at most {@code k} active deals, by descending score then dataset order
+     */
+    public List<ActiveDealResponse> top(LocalTime time, int k) {
+        if (k < 1 || k > MAX_K) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_K + ": " + k);
+        }
+        ServedDataset served = loader.dataset();
+        ChallengeData data = served.data();
+        Ranking r = rankingFor(served);
+        DealInventory.StockLevels stock = inventory.levels(served);
+        int minute = time.getHour() * 60 + time.getMinute();
+
+        int[] ordinals = new int[k];
+        Ranking.Rebuilt rebuilt = r.rebuilt.get(minute);
+        if (rebuilt == null || rebuilt.stock() != stock) {
+            rebuilt = null;
+        }
+        int n = rebuilt != null
+                ? inStock(rebuilt.top(), stock, ordinals)
+                : inStock(r.topByMinute[minute], stock, ordinals);
+        if (n < k && (rebuilt != null ? rebuilt.truncated() : r.truncated.get(minute))) {
+            n = inStock(r.select(minute, stock, k).top(), stock, ordinals);
+        }
+
+        Optional<OffHeapDealStore> store = served.offHeapStore();
+        List<ActiveDealResponse> byOrdinal = store.isPresent() ? null : rows.of(data);
+        List<ActiveDealResponse> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int ordinal = ordinals[i];
+            ActiveDealResponse row = byOrdinal != null
+                    ? byOrdinal.get(ordinal)
+                    : DealTransitions.response(data, store, r.boundaries, ordinal);
+            result.add(row.withQtyLeft(stock.remaining(ordinal)));
+        }
+        return result;
+    }
+
+    // Copies the leading deals still in stock, up to the size of ordinals, and returns their count
+    private static int inStock(int[] listed, DealInventory.StockLevels stock, int[] ordinals) {
+        int n = 0;
+        for (int ordinal : listed) {
+            if (n == ordinals.length) {
+                break;
+            }
+            if (stock.remaining(ordinal) > 0) {
+                ordinals[n++] = ordinal;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Builds the ranking of a dataset ahead of its first request.
+     *
+     * @param served the dataset being served
+     */
+    void prepare(ServedDataset served) {
+        rankingFor(served);
+    }
+
+    private Ranking rankingFor(ServedDataset served) {
+        ChallengeData data = served.data();
+        Ranking r = ranking;
+        if (r != null && r.source == data) {
+            return r;
+        }
+        synchronized (this) {
+            r = ranking;
+            if (r == null || r.source != data) {
+                r = new Ranking(data, served.offHeapStore(), transitions.boundaries(served), depth);
+                ranking = r;
+            }
+            return r;
+        }
+    }
+
+    /**
+     * Deal scores and, for every minute, the ordinals of the best active deals.
+     */
+    private static final class Ranking {
+
+        private final ChallengeData source;
+        private final DealTransitions.Boundaries boundaries;
+        private final int[] scores;
+        private final Comparator<Integer> best;
+        private final int depth;
+        private final int[][] topByMinute = new int[MINUTES_PER_DAY][];
+        private final BitSet truncated = new BitSet(MINUTES_PER_DAY);
+        private final AtomicReferenceArray<Rebuilt> rebuilt = new AtomicReferenceArray<>(MINUTES_PER_DAY);
+
+        /**
+         * A minute's list rebuilt by {@link #select}, valid while {@code stock} is served.
+         *
+         * @param stock     the stock levels the list was selected with
+         * @param top       the best deals in stock, best first
+         * @param truncated whether more deals in stock were active than listed
+         */
+        record Rebuilt(DealInventory.StockLevels stock, int[] top, boolean truncated) { }
+
+        Ranking(ChallengeData source, Optional<OffHeapDealStore> store,
+                DealTransitions.Boundaries boundaries, int depth) {
+            this.source = source;
+            this.boundaries = boundaries;
+            this.depth = depth;
+            this.scores = scores(source, store, boundaries.dealCount());
+            this.best = (a, b) -> scores[a] != scores[b]
+                    ? Integer.compare(scores[b], scores[a])
+                    : Integer.compare(a, b);
+
+            TreeSet<Integer> active = new TreeSet<>(best);
+            BitSet midnight = boundaries.activeAtMidnight();
+            for (int i = midnight.nextSetBit(0); i >= 0; i = midnight.nextSetBit(i + 1)) {
+                if (ranked(i)) {
+                    active.add(i);
+                }
+            }
+            int[] top = null;
+            for (int m = 0; m < MINUTES_PER_DAY; m++) {
+                boolean changed = m == 0;
+                if (m > 0) {
+                    for (int ordinal : boundaries.deactivating(m)) {
+                        changed |= active.remove(ordinal);
+                    }
+                    for (int ordinal : boundaries.activating(m)) {
+                        changed |= ranked(ordinal) && active.add(ordinal);
+                    }
+                }
+                if (changed) {
+                    top = first(active, depth);
+                }
+                topByMinute[m] = top;
+                truncated.set(m, active.size() > depth);
+            }
+        }
+
+        /**
+         * Rebuilds the active set of a minute, selects its best deals in stock, at least {@code k}
+         * and up to the ranking's depth, and keeps them as the minute's list for this stock.
+         */
+        Rebuilt select(int minute, DealInventory.StockLevels stock, int k) {
+            int size = Math.max(depth, k);
+            BitSet active = boundaries.activeAtMidnight();
+            for (int m = 1; m <= minute; m++) {
+                for (int ordinal : boundaries.deactivating(m)) {
+                    active.clear(ordinal);
+                }
+                for (int ordinal : boundaries.activating(m)) {
+                    active.set(ordinal);
+                }
+            }
+
+            // The worst of the best so far at the head
+            PriorityQueue<Integer> heap = new PriorityQueue<>(size + 1, best.reversed());
+            int candidates = 0;
+            for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1)) {
+                if (ranked(i) && stock.remaining(i) > 0) {
+                    candidates++;
+                    heap.add(i);
+                    if (heap.size() > size) {
+                        heap.poll();
+                    }
+                }
+            }
+            int[] top = new int[heap.size()];
+            for (int i = top.length - 1; i >= 0; i--) {
+                top[i] = heap.poll();
+            }
+            Rebuilt result = new Rebuilt(stock, top, candidates > size);
+            rebuilt.set(minute, result);
+            return result;
+        }
+
+        // Deals sold out in the feed cannot come back in this dataset
+        private boolean ranked(int ordinal) {
+            return scores[ordinal] >= 0;
+        }
+
+        private static int[] first(TreeSet<Integer> active, int depth) {
+            int[] top = new int[Math.min(depth, active.size())];
+            Iterator<Integer> it = active.iterator();
+            for (int i = 0; i < top.length; i++) {
+                top[i] = it.next();
+            }
+            return top;
+        }
+
+        private static int[] scores(ChallengeData source, Optional<OffHeapDealStore> store, int count) {
+            int[] scores = new int[count];
+            if (store.isPresent()) {
+                OffHeapDealStore.DealView d = store.get().dealView();
+                for (int i = 0; i < count; i++) {
+                    d.moveTo(i);
+                    scores[i] = d.qtyLeft() > 0 ? score(d.discount(), d.lightning(), d.qtyLeft()) : -1;
+                }
+            } else {
+                int ordinal = 0;
+                for (Restaurant r : source.restaurants()) {
+                    for (Deal d : r.deals()) {
+                        scores[ordinal++] = d.qtyLeft() > 0 ? score(d.discount(), d.lightning(), d.qtyLeft()) : -1;
+                    }
+                }
+            }
+            return scores;
+        }
+    }
+}
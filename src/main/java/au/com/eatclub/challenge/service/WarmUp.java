@@ -0,0 +1,107 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.DatasetPublished;
+import au.com.eatclub.challenge.loader.ServedDataset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the per-dataset structures of every service as soon as a dataset is served, and reports
+ * whether the application is ready for traffic.
+ * <p>
+ * On each {@link DatasetPublished} event the stock levels, response rows, per-minute transitions,
+ * top-deal rankings and search index are built on the loading thread, so no request pays for
+ * them. Until the first dataset has been indexed this health indicator ({@code warmUp}) is out of
+ * service; it is part of the readiness group ({@code /actuator/health/readiness}), so a rolling
+ * deploy only routes traffic to an instance that can answer from memory. Liveness
+ * ({@code /actuator/health/liveness}) does not depend on it.
+ * </p>
+ */
+@Component
+public class WarmUp implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUp.class);
+
+    private final DealInventory inventory;
+    private final DealRows rows;
+    private final DealTransitions transitions;
+    private final TopDeals topDeals;
+    private final RestaurantSearch search;
+    private volatile ServedDataset indexed;
+
+    /**
+     * Constructs a WarmUp over the services reading the current dataset.
+     *
+     * @param inventory   the DealInventory holding each deal's remaining quantity
+     * @param rows        the prebuilt response rows of the current dataset
+     * @param transitions the per-minute changes to the set of active deals
+     * @param topDeals    the per-minute ranking of the best active deals
+     * @param search      the search index over restaurants
+     */
+    public WarmUp(DealInventory inventory, DealRows rows,
+                  DealTransitions transitions, TopDeals topDeals, RestaurantSearch search) {
+        this.inventory = inventory;
+        this.rows = rows;
+        this.transitions = transitions;
+        this.topDeals = topDeals;
+        this.search = search;
+    }
+
+    /**
+     * Indexes a newly served dataset.
+     *
+     * @param event the event announcing the dataset
+     */
+    @EventListener
+    public void onDatasetPublished(DatasetPublished event) {
+        warm(event.dataset());
+    }
+
+    /**
+     * Builds every per-dataset structure of the given dataset, then marks it as indexed.
+     *
+     * @param served the dataset being served, as returned by {@link DataLoader#dataset()}
+     */
+    public void warm(ServedDataset served) {
+        long start = System.nanoTime();
+        ChallengeData data = served.data();
+        inventory.levels(served);
+        if (served.offHeapStore().isEmpty()) {
+            rows.of(data);
+        }
+        transitions.boundaries(served);
+        topDeals.prepare(served);
+        search.prepare(data);
+        boolean first = indexed == null;
+        indexed = served;
+        log.info("Indexed {} restaurants in {} ms{}", data.restaurants().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), first ? ", ready for traffic" : "");
+    }
+
+    /**
+     * @return whether a dataset has been indexed
+     */
+    public boolean isReady() {
+        return indexed != null;
+    }
+
+    @Override
+    public Health health() {
+        ServedDataset served = indexed;
+        if (served == null) {
+            return Health.outOfService().withDetail("reason", "no dataset indexed yet").build();
+        }
+        return Health.up()
+                .withDetail("restaurants", served.data().restaurants().size())
+                .withDetail("version", served.version() != null ? served.version() : "unknown")
+                .build();
+    }
+}
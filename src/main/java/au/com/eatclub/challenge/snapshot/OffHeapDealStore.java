@@ -0,0 +1,442 @@
+package au.com.eatclub.challenge.snapshot;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static au.com.eatclub.challenge.snapshot.SnapshotFormat.*;
+
+/**
+ * Read-only dataset held outside the Java heap.
+ * <p>
+ * The store is a snapshot image (see {@link SnapshotFormat}) kept in a direct or memory-mapped
+ * {@link ByteBuffer}: the string dictionary and every restaurant and deal column live off-heap,
+ * so the heap cost of the catalog is a handful of objects regardless of its size. Rows are read
+ * through reusable flyweight cursors ({@link RestaurantView}, {@link DealView}) that decode
+ * fields on demand. Views are cheap to create but not thread-safe; use one per thread.
+ * </p>
+ */
+public final class OffHeapDealStore {
+
+    private final ByteBuffer image;
+    private final int restaurantCount;
+    private final int dealCount;
+
+    // Absolute byte offsets of each column inside the image
+    private final int stringOffsets;
+    private final int stringBlob;
+    private final int rObjectId;
+    private final int rName;
+    private final int rAddress1;
+    private final int rImageLink;
+    private final int rSuburb;
+    private final int rOpen;
+    private final int rClose;
+    private final int rFirstDeal;
+    private final int rFirstCuisine;
+    private final int cuisineRefs;
+    private final int dObjectId;
+    private final int dDiscount;
+    private final int dQtyLeft;
+    private final int dFrom;
+    private final int dTo;
+    private final int dFlags;
+
+    private OffHeapDealStore(ByteBuffer image) {
+        this.image = image;
+
+        if (image.capacity() < HEADER_BYTES || image.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not a deal snapshot (bad magic)");
+        }
+        short version = image.getShort(4);
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported snapshot version " + version + ", expected " + VERSION);
+        }
+        int stringCount = image.getInt(24);
+        this.restaurantCount = image.getInt(28);
+        this.dealCount = image.getInt(32);
+        int cuisineRefCount = image.getInt(36);
+
+        int rc = restaurantCount;
+        this.stringOffsets = HEADER_BYTES;
+        this.stringBlob = stringOffsets + 4 * (stringCount + 1);
+        this.rObjectId = stringBlob + image.getInt(stringOffsets + 4 * stringCount);
+        this.rName = rObjectId + 4 * rc;
+        this.rAddress1 = rName + 4 * rc;
+        this.rImageLink = rAddress1 + 4 * rc;
+        this.rSuburb = rImageLink + 4 * rc;
+        this.rOpen = rSuburb + 4 * rc;
+        this.rClose = rOpen + 4 * rc;
+        this.rFirstDeal = rClose + 4 * rc;
+        this.rFirstCuisine = rFirstDeal + 4 * (rc + 1);
+        this.cuisineRefs = rFirstCuisine + 4 * (rc + 1);
+        this.dObjectId = cuisineRefs + 4 * cuisineRefCount;
+        this.dDiscount = dObjectId + 4 * dealCount;
+        this.dQtyLeft = dDiscount + 4 * dealCount;
+        this.dFrom = dQtyLeft + 4 * dealCount;
+        this.dTo = dFrom + 4 * dealCount;
+        this.dFlags = dTo + 4 * dealCount;
+
+        if (dFlags + dealCount > image.capacity()) {
+            throw new IllegalStateException("Snapshot truncated");
+        }
+    }
+
+    /**
+     * Encodes the dataset into a new direct buffer.
+     *
+     * @param data the dataset to store
+     * @return the off-heap store
+     */
+    public static OffHeapDealStore from(ChallengeData data) {
+        ByteBuffer heap = SnapshotWriter.encode(data, System.currentTimeMillis());
+        ByteBuffer direct = ByteBuffer.allocateDirect(heap.capacity());
+        direct.put(heap).flip();
+        return new OffHeapDealStore(direct.asReadOnlyBuffer());
+    }
+
+    /**
+     * Memory-maps an existing snapshot file without copying or decoding it.
+     *
+     * @param path the snapshot file
+     * @return the off-heap store backed by the mapping
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalStateException if the file is not a supported snapshot
+     */
+    public static OffHeapDealStore map(Path path) throws IOException {
+        return map(path, false);
+    }
+
+    /**
+     * Memory-maps an existing snapshot file without decoding it, optionally checking it first.
+     * Verifying reads the whole file once; it is meant for files written by another process.
+     *
+     * @param path           the snapshot file
+     * @param verifyChecksum whether to check the file against the checksum in its header
+     * @return the off-heap store backed by the mapping
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalStateException if the file is not a supported snapshot or fails its checksum
+     */
+    public static OffHeapDealStore map(Path path, boolean verifyChecksum) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            OffHeapDealStore store = new OffHeapDealStore(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+            if (verifyChecksum) {
+                SnapshotReader.verifyChecksum(store.image);
+            }
+            return store;
+        }
+    }
+
+    /**
+     * @return the number of restaurants
+     */
+    public int restaurantCount() {
+        return restaurantCount;
+    }
+
+    /**
+     * @return the number of deals across all restaurants
+     */
+    public int dealCount() {
+        return dealCount;
+    }
+
+    /**
+     * @return the off-heap size of the store in bytes
+     */
+    public long byteSize() {
+        return image.capacity();
+    }
+
+    /**
+     * @return a new restaurant cursor, positioned at restaurant 0
+     */
+    public RestaurantView restaurantView() {
+        return new RestaurantView();
+    }
+
+    /**
+     * @return a new deal cursor, positioned at deal 0
+     */
+    public DealView dealView() {
+        return new DealView();
+    }
+
+    /**
+     * Exposes the store as a {@link ChallengeData} whose restaurants are materialised on access.
+     * Nothing is cached, so each access allocates short-lived objects but the heap never holds
+     * the whole catalog.
+     *
+     * @return a lazy view of the dataset
+     */
+    public ChallengeData asChallengeData() {
+        return new ChallengeData(new RestaurantList());
+    }
+
+    private int intAt(int column, int row) {
+        return image.getInt(column + 4 * row);
+    }
+
+    private String string(int ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        int from = image.getInt(stringOffsets + 4 * ref);
+        int to = image.getInt(stringOffsets + 4 * (ref + 1));
+        byte[] bytes = new byte[to - from];
+        image.get(stringBlob + from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Arrays.hashCode of the string's UTF-8 bytes, without decoding it
+    private int stringHash(int ref) {
+        if (ref == NULL_REF) {
+            return 0;
+        }
+        int to = stringBlob + image.getInt(stringOffsets + 4 * (ref + 1));
+        int hash = 1;
+        for (int i = stringBlob + image.getInt(stringOffsets + 4 * ref); i < to; i++) {
+            hash = 31 * hash + image.get(i);
+        }
+        return hash;
+    }
+
+    private boolean stringEquals(int ref, byte[] utf8) {
+        if (ref == NULL_REF) {
+            return false;
+        }
+        int from = stringBlob + image.getInt(stringOffsets + 4 * ref);
+        int to = stringBlob + image.getInt(stringOffsets + 4 * (ref + 1));
+        if (to - from != utf8.length) {
+            return false;
+        }
+        for (int i = 0; i < utf8.length; i++) {
+            if (image.get(from + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static LocalTime time(int secondOfDay) {
+        return secondOfDay == NULL_REF ? null : LocalTime.ofSecondOfDay(secondOfDay);
+    }
+
+    /**
+     * Flyweight cursor over the restaurant columns.
+     */
+    public final class RestaurantView {
+
+        private int row;
+
+        private RestaurantView() {}
+
+        /**
+         * Moves the cursor.
+         *
+         * @param row the restaurant index, {@code 0 <= row < restaurantCount()}
+         * @return this view
+         */
+        public RestaurantView moveTo(int row) {
+            this.row = row;
+            return this;
+        }
+
+        public String objectId() {
+            return string(intAt(rObjectId, row));
+        }
+
+        public String name() {
+            return string(intAt(rName, row));
+        }
+
+        public String address1() {
+            return string(intAt(rAddress1, row));
+        }
+
+        public String imageLink() {
+            return string(intAt(rImageLink, row));
+        }
+
+        public String suburb() {
+            return string(intAt(rSuburb, row));
+        }
+
+        /**
+         * @return the opening time as second of day, or -1 if unknown
+         */
+        public int openSecond() {
+            return intAt(rOpen, row);
+        }
+
+        /**
+         * @return the closing time as second of day, or -1 if unknown
+         */
+        public int closeSecond() {
+            return intAt(rClose, row);
+        }
+
+        public LocalTime openTime() {
+            return time(openSecond());
+        }
+
+        public LocalTime closeTime() {
+            return time(closeSecond());
+        }
+
+        public List<String> cuisines() {
+            int from = intAt(rFirstCuisine, row);
+            int to = intAt(rFirstCuisine, row + 1);
+            List<String> cuisines = new ArrayList<>(to - from);
+            for (int c = from; c < to; c++) {
+                cuisines.add(string(intAt(cuisineRefs, c)));
+            }
+            return cuisines;
+        }
+
+        /**
+         * @return index of this restaurant's first deal
+         */
+        public int firstDeal() {
+            return intAt(rFirstDeal, row);
+        }
+
+        /**
+         * @return index one past this restaurant's last deal
+         */
+        public int endDeal() {
+            return intAt(rFirstDeal, row + 1);
+        }
+
+        /**
+         * @return an on-heap copy of the current restaurant, including its deals
+         */
+        public Restaurant toRestaurant() {
+            DealView d = new DealView();
+            List<Deal> deals = new ArrayList<>(endDeal() - firstDeal());
+            for (int i = firstDeal(); i < endDeal(); i++) {
+                deals.add(d.moveTo(i).toDeal());
+            }
+            return new Restaurant(objectId(), name(), address1(), imageLink(), openTime(), closeTime(),
+                    suburb(), Collections.unmodifiableList(cuisines()), Collections.unmodifiableList(deals));
+        }
+    }
+
+    /**
+     * Flyweight cursor over the deal columns.
+     */
+    public final class DealView {
+
+        private int row;
+
+        private DealView() {}
+
+        /**
+         * Moves the cursor.
+         *
+         * @param row the deal index, {@code 0 <= row < dealCount()}
+         * @return this view
+         */
+        public DealView moveTo(int row) {
+            this.row = row;
+            return this;
+        }
+
+        public String objectId() {
+            return string(intAt(dObjectId, row));
+        }
+
+        /**
+         * @return {@link java.util.Arrays#hashCode(byte[])} of the UTF-8 bytes of the object id,
+         *         read without decoding it, or 0 if there is none
+         */
+        public int objectIdHash() {
+            return stringHash(intAt(dObjectId, row));
+        }
+
+        /**
+         * @param utf8 the UTF-8 bytes of an object id
+         * @return whether the object id has exactly these bytes, compared without decoding it
+         */
+        public boolean objectIdEquals(byte[] utf8) {
+            return stringEquals(intAt(dObjectId, row), utf8);
+        }
+
+        public int discount() {
+            return intAt(dDiscount, row);
+        }
+
+        public int qtyLeft() {
+            return intAt(dQtyLeft, row);
+        }
+
+        public boolean dineIn() {
+            return (image.get(dFlags + row) & FLAG_DINE_IN) != 0;
+        }
+
+        public boolean lightning() {
+            return (image.get(dFlags + row) & FLAG_LIGHTNING) != 0;
+        }
+
+        /**
+         * @return the start of the availability window as second of day, or -1 if unbounded
+         */
+        public int availableFromSecond() {
+            return intAt(dFrom, row);
+        }
+
+        /**
+         * @return the end of the availability window as second of day, or -1 if unbounded
+         */
+        public int availableToSecond() {
+            return intAt(dTo, row);
+        }
+
+        public LocalTime availableFrom() {
+            return time(availableFromSecond());
+        }
+
+        public LocalTime availableTo() {
+            return time(availableToSecond());
+        }
+
+        /**
+         * @return an on-heap copy of the current deal
+         */
+        public Deal toDeal() {
+            return new Deal(objectId(), discount(), dineIn(), lightning(), qtyLeft(), availableFrom(), availableTo());
+        }
+    }
+
+    /**
+     * List view that materialises restaurants from the store on each access.
+     */
+    private final class RestaurantList extends AbstractList<Restaurant> implements RandomAccess {
+
+        @Override
+        public Restaurant get(int index) {
+            if (index < 0 || index >= restaurantCount) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return new RestaurantView().moveTo(index).toRestaurant();
+        }
+
+        @Override
+        public int size() {
+            return restaurantCount;
+        }
+    }
+}
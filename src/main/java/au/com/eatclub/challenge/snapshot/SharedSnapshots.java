@@ -0,0 +1,208 @@
+package au.com.eatclub.challenge.snapshot;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Versioned snapshots shared by every node through a common directory (a local or network mount
+ * standing in for object storage), so the feed is downloaded and parsed once for the whole fleet.
+ * <p>
+ * Enabled by setting {@code deals.shared.path}. The node with {@code deals.shared.role=publisher}
+ * (the default) fetches the feed as usual and, after each change, writes a new immutable snapshot
+ * file {@code deals-<sequence>.snapshot} (see {@link SnapshotFormat}) followed by a small
+ * {@code CURRENT} file naming it. Both are written to a temporary file and moved into place, so
+ * readers only ever see complete files. Nodes with {@code deals.shared.role=subscriber} never call
+ * the feed: they poll {@code CURRENT} and load each new sequence with
+ * {@link au.com.eatclub.challenge.loader.DataLoader#publishSnapshot(Path, String)}, which
+ * memory-maps it in off-heap mode.
+ * </p>
+ * <p>
+ * Only the latest {@code deals.shared.keep} snapshots are kept, so a subscriber that has just read
+ * {@code CURRENT} still finds its file. There must be a single publisher.
+ * </p>
+ */
+@Component
+public class SharedSnapshots {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedSnapshots.class);
+
+    static final String CURRENT = "CURRENT";
+    private static final String PREFIX = "deals-";
+    private static final String SUFFIX = ".snapshot";
+
+    /**
+     * What a node does with the shared directory.
+     */
+    public enum Role { PUBLISHER, SUBSCRIBER }
+
+    /**
+     * A snapshot named by {@code CURRENT}.
+     *
+     * @param sequence    the snapshot's sequence number, increasing with every publication
+     * @param feedVersion the feed version the snapshot was taken from, or {@code null} if unknown
+     * @param file        the snapshot file
+     */
+    public record Published(long sequence, String feedVersion, Path file) { }
+
+    private final Path dir;
+    private final Role role;
+    private final int keep;
+    private volatile long applied;
+
+    /**
+     * Constructs a SharedSnapshots for the configured directory.
+     *
+     * @param path the shared directory, or blank to disable sharing
+     * @param role "publisher" or "subscriber"
+     * @param keep how many of the latest snapshots the publisher keeps
+     */
+    public SharedSnapshots(
+            @Value("${deals.shared.path:}") String path,
+            @Value("${deals.shared.role:publisher}") String role,
+            @Value("${deals.shared.keep:3}") int keep
+    ) {
+        if (keep < 1) {
+            throw new IllegalArgumentException("deals.shared.keep must be at least 1: " + keep);
+        }
+        this.dir = path == null || path.isBlank() ? null : Path.of(path);
+        this.role = Role.valueOf(role.trim().toUpperCase(Locale.ROOT));
+        this.keep = keep;
+    }
+
+    /**
+     * @return {@code true} if a shared directory is configured
+     */
+    public boolean isEnabled() {
+        return dir != null;
+    }
+
+    /**
+     * @return {@code true} if this node loads its data from the shared directory, not the feed
+     */
+    public boolean isSubscriber() {
+        return dir != null && role == Role.SUBSCRIBER;
+    }
+
+    /**
+     * Reads the {@code CURRENT} file.
+     *
+     * @return the latest published snapshot, or empty if there is none or it cannot be read
+     */
+    public Optional<Published> current() {
+        if (dir == null || !Files.isRegularFile(dir.resolve(CURRENT))) {
+            return Optional.empty();
+        }
+        Properties p = new Properties();
+        try (Reader in = Files.newBufferedReader(dir.resolve(CURRENT), StandardCharsets.UTF_8)) {
+            p.load(in);
+            return Optional.of(new Published(
+                    Long.parseLong(p.getProperty("sequence")),
+                    p.getProperty("feedVersion"),
+                    dir.resolve(p.getProperty("file"))));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable {}: {}", dir.resolve(CURRENT), e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the latest published snapshot if it is newer than the last one marked
+     *         {@link #applied(Published) applied}, otherwise empty
+     */
+    public Optional<Published> newer() {
+        return current().filter(p -> p.sequence() > applied);
+    }
+
+    /**
+     * Records that a snapshot is being served, so {@link #newer()} skips it from now on.
+     *
+     * @param published the snapshot now served
+     */
+    public void applied(Published published) {
+        applied = published.sequence();
+    }
+
+    /**
+     * Publishes the dataset as the next snapshot, unless the feed version is already the latest
+     * one published. Failures are logged, not thrown.
+     *
+     * @param data        the dataset to publish
+     * @param feedVersion the feed version the dataset came from, or {@code null} if unknown
+     * @return the new snapshot, or empty if nothing was published
+     */
+    public synchronized Optional<Published> publish(ChallengeData data, String feedVersion) {
+        if (dir == null || role != Role.PUBLISHER) {
+            return Optional.empty();
+        }
+        Optional<Published> latest = current();
+        if (feedVersion != null && latest.isPresent() && feedVersion.equals(latest.get().feedVersion())) {
+            return Optional.empty();
+        }
+        long sequence = latest.map(Published::sequence).orElse(0L) + 1;
+        Path file = dir.resolve(String.format("%s%012d%s", PREFIX, sequence, SUFFIX));
+        try {
+            SnapshotWriter.write(data, file);
+            writeCurrent(sequence, feedVersion, file);
+            log.info("Published shared snapshot {} of {} restaurants ({} bytes)",
+                    file, data.restaurants().size(), Files.size(file));
+            prune();
+            return Optional.of(new Published(sequence, feedVersion, file));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not publish shared snapshot {}: {}", file, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private void writeCurrent(long sequence, String feedVersion, Path file) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("sequence", Long.toString(sequence));
+        p.setProperty("file", file.getFileName().toString());
+        if (feedVersion != null) {
+            p.setProperty("feedVersion", feedVersion);
+        }
+        Path tmp = Files.createTempFile(dir, CURRENT, ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                p.store(out, null);
+            }
+            Files.move(tmp, dir.resolve(CURRENT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Deleting a snapshot another node still has mapped is safe on POSIX file systems: the
+    // mapping keeps the data until it is released
+    private void prune() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        // Zero-padded sequence numbers sort by name
+        files.sort(null);
+        for (int i = 0; i < files.size() - keep; i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+            } catch (IOException e) {
+                log.debug("Could not delete old shared snapshot {}: {}", files.get(i), e.toString());
+            }
+        }
+    }
+}
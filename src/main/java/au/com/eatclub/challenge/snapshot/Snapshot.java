@@ -0,0 +1,13 @@
+package au.com.eatclub.challenge.snapshot;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+
+import java.time.Instant;
+
+/**
+ * A dataset restored from a snapshot file.
+ *
+ * @param data      the restored dataset
+ * @param createdAt when the snapshot was written
+ */
+public record Snapshot(ChallengeData data, Instant createdAt) { }
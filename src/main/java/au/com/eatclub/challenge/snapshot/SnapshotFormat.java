@@ -0,0 +1,49 @@
+package au.com.eatclub.challenge.snapshot;
+
+/**
+ * Layout constants for the binary dataset snapshot.
+ *
+ * <p>All values are big-endian. A snapshot is a fixed header followed by a body:</p>
+ * <pre>
+ * header
+ *   int    magic             "DLSN"
+ *   short  version
+ *   short  reserved          (0)
+ *   long   createdAtMillis
+ *   long   bodyCrc32c        checksum of every byte after the header
+ *   int    stringCount
+ *   int    restaurantCount
+ *   int    dealCount
+ *   int    cuisineRefCount
+ * body
+ *   int[stringCount + 1]     string offsets into the UTF-8 blob
+ *   byte[]                   UTF-8 blob
+ *   restaurant columns, restaurantCount entries each unless noted
+ *     int[]  objectId, name, address1, imageLink, suburb   (string index, -1 = null)
+ *     int[]  openTime, closeTime                            (second of day, -1 = null)
+ *     int[restaurantCount + 1]  first deal index            (deals of r are [d[r], d[r + 1]))
+ *     int[restaurantCount + 1]  first cuisine ref index
+ *     int[cuisineRefCount]      cuisine string index
+ *   deal columns, dealCount entries each
+ *     int[]  objectId                                       (string index, -1 = null)
+ *     int[]  discount, qtyLeft
+ *     int[]  availableFrom, availableTo                     (second of day, -1 = null)
+ *     byte[] flags                                          (bit 0 dineIn, bit 1 lightning)
+ * </pre>
+ *
+ * <p>Bump {@link #VERSION} on any layout change; readers reject other versions.</p>
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x444C534E; // "DLSN"
+    static final short VERSION = 1;
+
+    static final int HEADER_BYTES = 4 + 2 + 2 + 8 + 8 + 4 * 4;
+
+    static final int NULL_REF = -1;
+
+    static final byte FLAG_DINE_IN = 1;
+    static final byte FLAG_LIGHTNING = 1 << 1;
+
+    private SnapshotFormat() {}
+}
@@ -0,0 +1,179 @@
+package au.com.eatclub.challenge.snapshot;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static au.com.eatclub.challenge.snapshot.SnapshotFormat.*;
+
+/**
+ * Reads a binary snapshot file (see {@link SnapshotFormat}) back into a {@link ChallengeData}.
+ * <p>
+ * The file is memory-mapped rather than read through a stream, and the columns are decoded
+ * straight from the mapping. Every distinct string is decoded once and shared by all rows
+ * that reference it.
+ * </p>
+ */
+public final class SnapshotReader {
+
+    // Private constructor to prevent instantiation
+    private SnapshotReader() {}
+
+    /**
+     * Reads the snapshot at the given path.
+     *
+     * @param path the snapshot file
+     * @return the restored dataset and its creation time
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the file is not a snapshot, has an unsupported version
+     *         or fails its checksum
+     */
+    public static Snapshot read(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return decode(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /**
+     * Checks the body of a snapshot image against the checksum in its header, reading it once.
+     *
+     * @param image the snapshot bytes, starting at the header
+     * @throws IllegalStateException if the checksum does not match
+     */
+    static void verifyChecksum(ByteBuffer image) {
+        CRC32C crc = new CRC32C();
+        crc.update(image.slice(HEADER_BYTES, image.capacity() - HEADER_BYTES));
+        if (crc.getValue() != image.getLong(16)) {
+            throw new IllegalStateException("Snapshot checksum mismatch");
+        }
+    }
+
+    /**
+     * Decodes a snapshot image.
+     *
+     * @param buf the snapshot bytes, positioned at the start of the header
+     * @return the restored dataset and its creation time
+     */
+    static Snapshot decode(ByteBuffer buf) {
+        if (buf.remaining() < HEADER_BYTES) {
+            throw new IllegalStateException("Snapshot truncated: " + buf.remaining() + " bytes");
+        }
+        int base = buf.position();
+
+        // ----- Header -----
+        if (buf.getInt() != MAGIC) {
+            throw new IllegalStateException("Not a deal snapshot (bad magic)");
+        }
+        short version = buf.getShort();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported snapshot version " + version + ", expected " + VERSION);
+        }
+        buf.getShort(); // reserved
+        long createdAt = buf.getLong();
+        buf.getLong(); // checksum, verified below
+        int stringCount = buf.getInt();
+        int rc = buf.getInt();
+        int dealCount = buf.getInt();
+        int cuisineRefCount = buf.getInt();
+
+        // Same check as a memory-mapped store (see OffHeapDealStore#map)
+        verifyChecksum(buf.slice(base, buf.limit() - base));
+
+        // ----- String table -----
+        int[] offsets = ints(buf, stringCount + 1);
+        int blob = buf.position();
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            byte[] bytes = new byte[offsets[i + 1] - offsets[i]];
+            buf.get(blob + offsets[i], bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buf.position(blob + offsets[stringCount]);
+
+        // ----- Restaurant columns -----
+        int[] objectIds = ints(buf, rc);
+        int[] names = ints(buf, rc);
+        int[] addresses = ints(buf, rc);
+        int[] imageLinks = ints(buf, rc);
+        int[] suburbs = ints(buf, rc);
+        int[] opens = ints(buf, rc);
+        int[] closes = ints(buf, rc);
+        int[] firstDeal = ints(buf, rc + 1);
+        int[] firstCuisine = ints(buf, rc + 1);
+        int[] cuisineRefs = ints(buf, cuisineRefCount);
+
+        // ----- Deal columns -----
+        int[] dealIds = ints(buf, dealCount);
+        int[] discounts = ints(buf, dealCount);
+        int[] qtyLeft = ints(buf, dealCount);
+        int[] froms = ints(buf, dealCount);
+        int[] tos = ints(buf, dealCount);
+        byte[] flags = new byte[dealCount];
+        buf.get(flags);
+
+        // ----- Rebuild the domain model -----
+        List<Restaurant> restaurants = new ArrayList<>(rc);
+        for (int r = 0; r < rc; r++) {
+            List<String> cuisines = new ArrayList<>(firstCuisine[r + 1] - firstCuisine[r]);
+            for (int c = firstCuisine[r]; c < firstCuisine[r + 1]; c++) {
+                cuisines.add(string(strings, cuisineRefs[c]));
+            }
+
+            List<Deal> deals = new ArrayList<>(firstDeal[r + 1] - firstDeal[r]);
+            for (int d = firstDeal[r]; d < firstDeal[r + 1]; d++) {
+                deals.add(new Deal(
+                        string(strings, dealIds[d]),
+                        discounts[d],
+                        (flags[d] & FLAG_DINE_IN) != 0,
+                        (flags[d] & FLAG_LIGHTNING) != 0,
+                        qtyLeft[d],
+                        time(froms[d]),
+                        time(tos[d])
+                ));
+            }
+
+            restaurants.add(new Restaurant(
+                    string(strings, objectIds[r]),
+                    string(strings, names[r]),
+                    string(strings, addresses[r]),
+                    string(strings, imageLinks[r]),
+                    time(opens[r]),
+                    time(closes[r]),
+                    string(strings, suburbs[r]),
+                    Collections.unmodifiableList(cuisines),
+                    Collections.unmodifiableList(deals)
+            ));
+        }
+
+        buf.position(base);
+        return new Snapshot(new ChallengeData(Collections.unmodifiableList(restaurants)), Instant.ofEpochMilli(createdAt));
+    }
+
+    private static int[] ints(ByteBuffer buf, int count) {
+        int[] values = new int[count];
+        buf.asIntBuffer().get(values);
+        buf.position(buf.position() + 4 * count);
+        return values;
+    }
+
+    private static String string(String[] strings, int ref) {
+        return ref == NULL_REF ? null : strings[ref];
+    }
+
+    private static LocalTime time(int secondOfDay) {
+        return secondOfDay == NULL_REF ? null : LocalTime.ofSecondOfDay(secondOfDay);
+    }
+}
@@ -0,0 +1,85 @@
+package au.com.eatclub.challenge.snapshot;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Keeps the last good dataset on local disk so a restart can serve it straight away,
+ * without waiting for the feed download, JSON parse and mapping.
+ * <p>
+ * Enabled by setting {@code deals.snapshot.path}; when blank, reads return empty and
+ * writes are ignored. A missing, corrupt or outdated snapshot is never fatal: it is
+ * logged and the caller falls back to the network.
+ * </p>
+ */
+@Component
+public class SnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+
+    private final Path path;
+
+    /**
+     * Constructs a SnapshotStore for the configured file.
+     *
+     * @param path the snapshot file, or blank to disable snapshots
+     */
+    public SnapshotStore(@Value("${deals.snapshot.path:}") String path) {
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    /**
+     * @return {@code true} if a snapshot path is configured
+     */
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    /**
+     * Reads the snapshot, if enabled and present.
+     *
+     * @return the restored snapshot, or empty if there is none or it cannot be read
+     */
+    public Optional<Snapshot> read() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        try {
+            Snapshot snapshot = SnapshotReader.read(path);
+            log.info("Restored {} restaurants from snapshot {} (written {}) in {} ms",
+                    snapshot.data().restaurants().size(), path, snapshot.createdAt(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return Optional.of(snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable snapshot {}: {}", path, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the given dataset, if enabled. Failures are logged, not thrown.
+     *
+     * @param data the dataset to persist
+     */
+    public void write(ChallengeData data) {
+        if (path == null) {
+            return;
+        }
+        try {
+            SnapshotWriter.write(data, path);
+            log.info("Wrote snapshot of {} restaurants to {} ({} bytes)",
+                    data.restaurants().size(), path, Files.size(path));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write snapshot {}: {}", path, e.toString());
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package au.com.eatclub.challenge.snapshot;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32C;
+
+import static au.com.eatclub.challenge.snapshot.SnapshotFormat.*;
+
+/**
+ * Writes a {@link ChallengeData} to a binary snapshot file (see {@link SnapshotFormat}).
+ */
+public final class SnapshotWriter {
+
+    // Private constructor to prevent instantiation
+    private SnapshotWriter() {}
+
+    /**
+     * Writes the dataset to the given path.
+     * <p>
+     * The snapshot is written to a temporary sibling file and then moved into place, so
+     * readers never see a partially written file.
+     * </p>
+     *
+     * @param data the dataset to write
+     * @param path the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(ChallengeData data, Path path) throws IOException {
+        ByteBuffer buf = encode(data, System.currentTimeMillis());
+
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buf.hasRemaining()) {
+                    ch.write(buf);
+                }
+                ch.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Encodes the dataset into a snapshot image.
+     *
+     * @param data            the dataset to encode
+     * @param createdAtMillis the creation timestamp to record in the header
+     * @return a buffer positioned at 0 containing the complete snapshot
+     */
+    static ByteBuffer encode(ChallengeData data, long createdAtMillis) {
+        List<Restaurant> restaurants = data.restaurants();
+        StringTable strings = new StringTable();
+
+        int dealCount = 0;
+        int cuisineRefCount = 0;
+        for (Restaurant r : restaurants) {
+            strings.add(r.objectId());
+            strings.add(r.name());
+            strings.add(r.address1());
+            strings.add(r.imageLink());
+            strings.add(r.suburb());
+            for (String c : cuisines(r)) {
+                strings.add(c);
+            }
+            for (Deal d : r.deals()) {
+                strings.add(d.objectId());
+            }
+            dealCount += r.deals().size();
+            cuisineRefCount += cuisines(r).size();
+        }
+
+        int rc = restaurants.size();
+        long size = (long) HEADER_BYTES
+                + 4L * (strings.size() + 1) + strings.byteLength()
+                + 4L * (7L * rc + 2L * (rc + 1) + cuisineRefCount)
+                + 5L * 4 * dealCount + dealCount;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Dataset too large for a single snapshot: " + size + " bytes");
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate((int) size);
+        buf.position(HEADER_BYTES);
+
+        // ----- String table -----
+        int offset = 0;
+        for (byte[] s : strings.encoded) {
+            buf.putInt(offset);
+            offset += s.length;
+        }
+        buf.putInt(offset);
+        for (byte[] s : strings.encoded) {
+            buf.put(s);
+        }
+
+        // ----- Restaurant columns -----
+        putColumn(buf, restaurants, r -> strings.indexOf(r.objectId()));
+        putColumn(buf, restaurants, r -> strings.indexOf(r.name()));
+        putColumn(buf, restaurants, r -> strings.indexOf(r.address1()));
+        putColumn(buf, restaurants, r -> strings.indexOf(r.imageLink()));
+        putColumn(buf, restaurants, r -> strings.indexOf(r.suburb()));
+        putColumn(buf, restaurants, r -> secondOfDay(r.openTime()));
+        putColumn(buf, restaurants, r -> secondOfDay(r.closeTime()));
+
+        int firstDeal = 0;
+        for (Restaurant r : restaurants) {
+            buf.putInt(firstDeal);
+            firstDeal += r.deals().size();
+        }
+        buf.putInt(firstDeal);
+
+        int firstCuisine = 0;
+        for (Restaurant r : restaurants) {
+            buf.putInt(firstCuisine);
+            firstCuisine += cuisines(r).size();
+        }
+        buf.putInt(firstCuisine);
+        for (Restaurant r : restaurants) {
+            for (String c : cuisines(r)) {
+                buf.putInt(strings.indexOf(c));
+            }
+        }
+
+        // ----- Deal columns -----
+        List<Deal> deals = new ArrayList<>(dealCount);
+        restaurants.forEach(r -> deals.addAll(r.deals()));
+
+        putColumn(buf, deals, d -> strings.indexOf(d.objectId()));
+        putColumn(buf, deals, Deal::discount);
+        putColumn(buf, deals, Deal::qtyLeft);
+        putColumn(buf, deals, d -> secondOfDay(d.availableFrom()));
+        putColumn(buf, deals, d -> secondOfDay(d.availableTo()));
+        for (Deal d : deals) {
+            buf.put((byte) ((d.dineIn() ? FLAG_DINE_IN : 0) | (d.lightning() ? FLAG_LIGHTNING : 0)));
+        }
+
+        // ----- Header -----
+        CRC32C crc = new CRC32C();
+        crc.update(buf.array(), HEADER_BYTES, buf.capacity() - HEADER_BYTES);
+
+        buf.position(0);
+        buf.putInt(MAGIC);
+        buf.putShort(VERSION);
+        buf.putShort((short) 0);
+        buf.putLong(createdAtMillis);
+        buf.putLong(crc.getValue());
+        buf.putInt(strings.size());
+        buf.putInt(rc);
+        buf.putInt(dealCount);
+        buf.putInt(cuisineRefCount);
+
+        buf.position(0);
+        return buf;
+    }
+
+    private static <T> void putColumn(ByteBuffer buf, List<T> rows, ToIntFunction<T> column) {
+        for (T row : rows) {
+            buf.putInt(column.applyAsInt(row));
+        }
+    }
+
+    private static List<String> cuisines(Restaurant r) {
+        return r.cuisines() != null ? r.cuisines() : List.of();
+    }
+
+    private static int secondOfDay(LocalTime t) {
+        return t != null ? t.toSecondOfDay() : NULL_REF;
+    }
+
+    /**
+     * Assigns each distinct non-null string a dense index in first-seen order.
+     */
+    private static final class StringTable {
+
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<byte[]> encoded = new ArrayList<>();
+        private long byteLength;
+
+        void add(String s) {
+            if (s != null && !index.containsKey(s)) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                index.put(s, encoded.size());
+                encoded.add(bytes);
+                byteLength += bytes.length;
+            }
+        }
+
+        int indexOf(String s) {
+            return s != null ? index.get(s) : NULL_REF;
+        }
+
+        int size() {
+            return encoded.size();
+        }
+
+        long byteLength() {
+            return byteLength;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+-- Schema for the JPA entities in au.com.eatclub.challenge.persistence.
+-- Hibernate validates against it (ddl-auto: validate); changes go in new migrations.
+
+CREATE TABLE suburb (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_suburb_name UNIQUE (name)
+);
+
+CREATE TABLE cuisine (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_cuisine_name UNIQUE (name)
+);
+
+CREATE TABLE restaurant (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    object_id  VARCHAR(255) NOT NULL,
+    name       VARCHAR(255),
+    address1   VARCHAR(255),
+    image_link VARCHAR(255),
+    open_time  TIME,
+    close_time TIME,
+    suburb_id  BIGINT,
+    CONSTRAINT uk_restaurant_object_id UNIQUE (object_id),
+    CONSTRAINT fk_restaurant_suburb FOREIGN KEY (suburb_id) REFERENCES suburb (id)
+);
+
+CREATE INDEX idx_restaurant_suburb ON restaurant (suburb_id);
+
+CREATE TABLE restaurant_cuisine (
+    restaurant_id BIGINT NOT NULL,
+    cuisine_id    BIGINT NOT NULL,
+    PRIMARY KEY (restaurant_id, cuisine_id),
+    CONSTRAINT fk_restaurant_cuisine_restaurant FOREIGN KEY (restaurant_id) REFERENCES restaurant (id),
+    CONSTRAINT fk_restaurant_cuisine_cuisine FOREIGN KEY (cuisine_id) REFERENCES cuisine (id)
+);
+
+CREATE INDEX idx_restaurant_cuisine_cuisine ON restaurant_cuisine (cuisine_id);
+
+CREATE TABLE deal (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    object_id      VARCHAR(255) NOT NULL,
+    discount       INTEGER NOT NULL,
+    dine_in        BOOLEAN NOT NULL,
+    lightning      BOOLEAN NOT NULL,
+    qty_left       INTEGER NOT NULL,
+    available_from TIME,
+    available_to   TIME,
+    restaurant_id  BIGINT NOT NULL,
+    CONSTRAINT uk_deal_object_id UNIQUE (object_id),
+    CONSTRAINT fk_deal_restaurant FOREIGN KEY (restaurant_id) REFERENCES restaurant (id)
+);
+
+CREATE INDEX idx_deal_restaurant ON deal (restaurant_id);
+CREATE INDEX idx_deal_window ON deal (available_from, available_to);
+
+-- Version of the upstream feed the tables were last ingested from (single row, id = 1)
+CREATE TABLE feed_state (
+    id         INTEGER PRIMARY KEY,
+    version    VARCHAR(255),
+    fetched_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,93 @@
+package au.com.eatclub.challenge.api;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.loader.ChallengeMapper;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.FeedGenerator;
+import au.com.eatclub.challenge.service.DealFilter;
+import au.com.eatclub.challenge.service.DealInventory;
+import au.com.eatclub.challenge.service.DealService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares JSON, CBOR and Smile for the deal endpoints' responses: payload size, and encode and
+ * decode time, on a generated feed at lunchtime.
+ *
+ * <p>Times are the best of several runs after warm-up. Tagged {@code perf}; run with
+ * {@code ./mvnw -Pperf test -Dtest=BinaryFormatBenchmarkTest -Dpayload.restaurants=5000}.</p>
+ */
+@Tag("perf")
+class BinaryFormatBenchmarkTest {
+
+    private static final int WARMUP_RUNS = 200;
+    private static final int MEASURED_RUNS = 200;
+
+    private static final Map<String, ObjectMapper> FORMATS = Map.of(
+            "json", new ObjectMapper(),
+            "cbor", new CBORMapper(),
+            "smile", new SmileMapper()
+    );
+
+    @Test
+    void test_reportBinaryFormats() throws IOException {
+        int restaurants = Integer.getInteger("payload.restaurants", 2_000);
+        ChallengeData data = new ChallengeData(
+                ChallengeMapper.toRestaurants(FeedGenerator.generate(restaurants, 5, 42).restaurants()));
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", false);
+        loader.publish(data);
+        DealService service = new DealService(loader, new DealFilter(), new DealInventory(loader));
+
+        ActiveDealListResponse deals = new ActiveDealListResponse(service.findActiveDeals(LocalTime.of(12, 30)));
+        PeakTimeResponse peak = new PeakTimeResponse("18:00", "21:00", 42);
+
+        System.out.printf("%nEncodings of /api/deals (%,d deals) and /api/deals/peak-time:%n", deals.deals().size());
+        System.out.printf("  %-28s %12s %12s %12s%n", "response", "bytes", "encode us", "decode us");
+        long json = 0;
+        long smallest = Long.MAX_VALUE;
+        for (String format : new String[]{"json", "cbor", "smile"}) {
+            ObjectMapper mapper = FORMATS.get(format).copy().setFilterProvider(DealFields.ALL);
+            long size = report("deals, " + format, mapper, deals, ActiveDealListResponse.class);
+            report("peak-time, " + format, mapper, peak, PeakTimeResponse.class);
+            json = format.equals("json") ? size : json;
+            smallest = Math.min(smallest, size);
+        }
+        assertTrue(smallest < json);
+    }
+
+    private static <T> long report(String label, ObjectMapper mapper, T body, Class<T> type) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        assertEquals(body, mapper.readValue(bytes, type));
+        long encode = bestOf(() -> mapper.writeValueAsBytes(body));
+        long decode = bestOf(() -> mapper.readValue(bytes, type));
+        System.out.printf("  %-28s %,12d %,12.1f %,12.1f%n", label, bytes.length, encode / 1_000.0, decode / 1_000.0);
+        return bytes.length;
+    }
+
+    private interface Task {
+        void run() throws IOException;
+    }
+
+    private static long bestOf(Task task) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
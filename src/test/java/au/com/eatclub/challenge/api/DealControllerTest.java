@@ -0,0 +1,197 @@
+package au.com.eatclub.challenge.api;
+
+import au.com.eatclub.challenge.config.JacksonConfig;
+import au.com.eatclub.challenge.loader.DatasetNotReadyException;
+import au.com.eatclub.challenge.service.DealService;
+import au.com.eatclub.challenge.service.DealTransitions;
+import au.com.eatclub.challenge.service.PeakTimeResult;
+import au.com.eatclub.challenge.service.Regions;
+import au.com.eatclub.challenge.service.TopDeals;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Web layer tests for DealController: content negotiation, request parameters and phase timings.
+ */
+@WebMvcTest(controllers = DealController.class, properties = "deals.server-timing.enabled=true")
+class DealControllerTest {
+
+    /**
+     * The web layer only. The application class enables JPA repositories, which a web slice has
+     * no EntityManagerFactory for.
+     */
+    @SpringBootConfiguration
+    @Import({DealController.class, GlobalExceptionHandler.class, JacksonConfig.class, ServerTimingFilter.class})
+    static class WebLayer {
+    }
+
+    private static final ActiveDealResponse DEAL =
+            new ActiveDealResponse("R1", "A", "1 St", "X", "09:00", "17:00", "D1", 10, true, false, 5);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private DealService service;
+
+    @MockitoBean
+    private DealTransitions transitions;
+
+    @MockitoBean
+    private TopDeals topDeals;
+
+    @MockitoBean
+    private Regions regions;
+
+    private static DealService.CurrentDeals currentDeals(ActiveDealResponse... deals) {
+        DealService.CurrentDeals current = mock(DealService.CurrentDeals.class);
+        when(current.activeAt(any())).thenReturn(List.of(deals));
+        return current;
+    }
+
+    @BeforeEach
+    void setUp() {
+        DealService.CurrentDeals current = currentDeals(DEAL);
+        when(service.current()).thenReturn(current);
+        when(service.calculatePeakTime()).thenReturn(new PeakTimeResult(LocalTime.of(18, 0), LocalTime.of(21, 0), 4));
+    }
+
+    @Test
+    void test_jsonByDefault() throws Exception {
+        mvc.perform(get("/api/deals").param("timeOfDay", "12:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/json"))
+                .andExpect(jsonPath("$.deals[0].dealObjectId").value("D1"));
+    }
+
+    @Test
+    void test_cborNegotiated() throws Exception {
+        MvcResult result = mvc.perform(get("/api/deals").param("timeOfDay", "12:00").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        ActiveDealListResponse body = new CBORMapper()
+                .readValue(result.getResponse().getContentAsByteArray(), ActiveDealListResponse.class);
+        assertEquals(new ActiveDealListResponse(List.of(DEAL)), body);
+    }
+
+    @Test
+    void test_smileNegotiated() throws Exception {
+        MvcResult result = mvc.perform(get("/api/deals/peak-time").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+
+        PeakTimeResponse body = new SmileMapper()
+                .readValue(result.getResponse().getContentAsByteArray(), PeakTimeResponse.class);
+        assertEquals(new PeakTimeResponse("18:00", "21:00", 4), body);
+    }
+
+    @Test
+    void test_projectionAppliesToBinaryFormats() throws Exception {
+        MvcResult result = mvc.perform(get("/api/deals")
+                        .param("timeOfDay", "12:00")
+                        .param("fields", "dealObjectId")
+                        .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ObjectMapper cbor = new CBORMapper();
+        assertEquals("{\"deals\":[{\"dealObjectId\":\"D1\"}]}",
+                cbor.readTree(result.getResponse().getContentAsByteArray()).toString());
+    }
+
+    @Test
+    void test_invalidParameterRejected() throws Exception {
+        mvc.perform(get("/api/deals").param("timeOfDay", "12:00").param("group", "suburb"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_parameter"));
+    }
+
+    @Test
+    void test_notReadyBeforeFirstDataset() throws Exception {
+        when(service.calculatePeakTime()).thenThrow(new DatasetNotReadyException());
+
+        mvc.perform(get("/api/deals/peak-time"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("not_ready"));
+    }
+
+    @Test
+    void test_topDeals() throws Exception {
+        when(topDeals.top(LocalTime.of(12, 0), 3)).thenReturn(List.of(DEAL));
+
+        mvc.perform(get("/api/deals/top").param("timeOfDay", "12:00").param("k", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deals[0].dealObjectId").value("D1"));
+        mvc.perform(get("/api/deals/top").param("k", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_parameter"));
+    }
+
+    @Test
+    void test_regionSelectsItsShard() throws Exception {
+        Regions.Shard shard = mock(Regions.Shard.class);
+        DealService regional = mock(DealService.class);
+        ActiveDealResponse sydney = new ActiveDealResponse("R9", "B", "2 St", "Y", "09:00", "17:00", "D9", 20, true, false, 1);
+        DealService.CurrentDeals current = currentDeals(sydney);
+        when(regional.current()).thenReturn(current);
+        when(shard.service()).thenReturn(regional);
+        Regions.Shard loading = mock(Regions.Shard.class);
+        DealService empty = mock(DealService.class);
+        when(empty.current()).thenThrow(new DatasetNotReadyException());
+        when(loading.service()).thenReturn(empty);
+        when(regions.get("sydney")).thenReturn(Optional.of(shard));
+        when(regions.get("perth")).thenReturn(Optional.of(loading));
+        when(regions.get("darwin")).thenReturn(Optional.empty());
+
+        mvc.perform(get("/api/deals").param("timeOfDay", "12:00").param("region", "sydney"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deals[0].dealObjectId").value("D9"));
+        mvc.perform(get("/api/deals").param("timeOfDay", "12:00").param("region", "perth"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("not_ready"));
+        mvc.perform(get("/api/deals").param("timeOfDay", "12:00").param("region", "darwin"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_parameter"));
+    }
+
+    @Test
+    void test_serverTimingReportsPhases() throws Exception {
+        MvcResult result = mvc.perform(get("/api/deals").param("timeOfDay", "12:00").param("fields", "dealObjectId"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deals[0].dealObjectId").value("D1"))
+                .andReturn();
+
+        String header = result.getResponse().getHeader(ServerTimingFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.matches("parse;dur=\\d+\\.\\d{3}, acquire;dur=\\d+\\.\\d{3}, filter;dur=\\d+\\.\\d{3}, "
+                + "build;dur=\\d+\\.\\d{3}, serialize;dur=\\d+\\.\\d{3}"), header);
+
+        mvc.perform(get("/api/deals/peak-time"))
+                .andExpect(header().string(ServerTimingFilter.HEADER, startsWith("filter;dur=")));
+    }
+}
@@ -0,0 +1,61 @@
+package au.com.eatclub.challenge.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for field projection and grouping of deal responses.
+ */
+class DealFieldsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().setFilterProvider(DealFields.ALL);
+
+    private static final List<ActiveDealResponse> DEALS = List.of(
+            new ActiveDealResponse("R1", "A", "1 St", "X", "09:00", "17:00", "D1", 10, true, false, 5),
+            new ActiveDealResponse("R1", "A", "1 St", "X", "09:00", "17:00", "D2", 20, false, true, 1),
+            new ActiveDealResponse("R2", "B", "2 St", "Y", "10:00", "22:00", "D3", 30, true, true, 2)
+    );
+
+    @Test
+    void test_allFieldsByDefault() throws Exception {
+        String json = MAPPER.writeValueAsString(new ActiveDealListResponse(DEALS.subList(0, 1)));
+
+        assertEquals("{\"deals\":[{\"restaurantObjectId\":\"R1\",\"restaurantName\":\"A\","
+                + "\"restaurantAddress1\":\"1 St\",\"restaurantSuburb\":\"X\",\"restaurantOpen\":\"09:00\","
+                + "\"restaurantClose\":\"17:00\",\"dealObjectId\":\"D1\",\"discount\":10,\"dineIn\":true,"
+                + "\"lightning\":false,\"qtyLeft\":5}]}", json);
+    }
+
+    @Test
+    void test_selectedFieldsOnly() throws Exception {
+        String json = MAPPER.writer(DealFields.select("dealObjectId, qtyLeft"))
+                .writeValueAsString(new ActiveDealListResponse(DEALS.subList(0, 1)));
+
+        assertEquals("{\"deals\":[{\"dealObjectId\":\"D1\",\"qtyLeft\":5}]}", json);
+    }
+
+    @Test
+    void test_unknownFieldRejected() {
+        InvalidParameterException e = assertThrows(InvalidParameterException.class,
+                () -> DealFields.select("dealObjectId,price"));
+        assertTrue(e.getMessage().contains("'price'"));
+    }
+
+    @Test
+    void test_groupedByRestaurant() throws Exception {
+        List<RestaurantDealsResponse> groups = RestaurantDealsResponse.group(DEALS);
+
+        assertEquals(List.of("R1", "R2"), groups.stream().map(RestaurantDealsResponse::restaurantObjectId).toList());
+        assertEquals(List.of("D1", "D2"), groups.get(0).deals().stream().map(DealSummaryResponse::dealObjectId).toList());
+
+        String json = MAPPER.writer(DealFields.select("restaurantName,dealObjectId"))
+                .writeValueAsString(new GroupedDealListResponse(groups));
+        assertEquals("{\"restaurants\":["
+                + "{\"restaurantName\":\"A\",\"deals\":[{\"dealObjectId\":\"D1\"},{\"dealObjectId\":\"D2\"}]},"
+                + "{\"restaurantName\":\"B\",\"deals\":[{\"dealObjectId\":\"D3\"}]}]}", json);
+    }
+}
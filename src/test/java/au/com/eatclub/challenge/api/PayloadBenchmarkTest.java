@@ -0,0 +1,97 @@
+package au.com.eatclub.challenge.api;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.loader.ChallengeMapper;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.FeedGenerator;
+import au.com.eatclub.challenge.service.DealFilter;
+import au.com.eatclub.challenge.service.DealInventory;
+import au.com.eatclub.challenge.service.DealService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reports bytes on the wire and serialization CPU per {@code /api/deals} response for the flat,
+ * projected and grouped shapes, uncompressed and gzipped, on a generated feed at lunchtime.
+ *
+ * <p>Times are the best of several runs after warm-up. Tagged {@code perf}; run with
+ * {@code ./mvnw -Pperf test -Dtest=PayloadBenchmarkTest -Dpayload.restaurants=5000}.</p>
+ */
+@Tag("perf")
+class PayloadBenchmarkTest {
+
+    private static final int WARMUP_RUNS = 200;
+    private static final int MEASURED_RUNS = 200;
+    private static final String PROJECTION = "dealObjectId,discount,qtyLeft";
+
+    private final ObjectMapper mapper = new ObjectMapper().setFilterProvider(DealFields.ALL);
+
+    @Test
+    void test_reportPayloadSizes() throws IOException {
+        int restaurants = Integer.getInteger("payload.restaurants", 2_000);
+        ChallengeData data = new ChallengeData(
+                ChallengeMapper.toRestaurants(FeedGenerator.generate(restaurants, 5, 42).restaurants()));
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", false);
+        loader.publish(data);
+        List<ActiveDealResponse> deals = new DealService(loader, new DealFilter(), new DealInventory(loader))
+                .findActiveDeals(LocalTime.of(12, 30));
+
+        Object flat = new ActiveDealListResponse(deals);
+        Object grouped = new GroupedDealListResponse(RestaurantDealsResponse.group(deals));
+
+        System.out.printf("%n/api/deals payload for %,d active deals:%n", deals.size());
+        System.out.printf("  %-26s %12s %12s %14s %14s%n", "shape", "bytes", "gzip bytes", "serialize us", "gzip us");
+        long full = report("flat", mapper.writer(), flat);
+        report("flat, fields", mapper.writer(DealFields.select(PROJECTION)), flat);
+        long groupedBytes = report("grouped", mapper.writer(), grouped);
+        report("grouped, fields", mapper.writer(DealFields.select(PROJECTION)), grouped);
+
+        assertTrue(groupedBytes < full);
+    }
+
+    private static long report(String shape, ObjectWriter writer, Object body) throws IOException {
+        byte[] json = writer.writeValueAsBytes(body);
+        byte[] gzipped = gzip(json);
+        long serialize = bestOf(() -> writer.writeValueAsBytes(body));
+        long compress = bestOf(() -> gzip(json));
+        System.out.printf("  %-26s %,12d %,12d %,14.1f %,14.1f%n",
+                shape, json.length, gzipped.length, serialize / 1_000.0, compress / 1_000.0);
+        return json.length;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private interface Task {
+        void run() throws IOException;
+    }
+
+    private static long bestOf(Task task) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,83 @@
+package au.com.eatclub.challenge.api;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.service.DealFilter;
+import au.com.eatclub.challenge.service.DealInventory;
+import au.com.eatclub.challenge.service.DealService;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestPhases.
+ */
+class RequestPhasesTest {
+
+    private static final Restaurant OPEN = new Restaurant("R1", "Open", "1", null,
+            LocalTime.of(9, 0), LocalTime.of(22, 0), "X", List.of(), List.of(
+            new Deal("D1", 20, true, false, 3, null, null)));
+
+    @Test
+    void test_phasesObservedAndReported() {
+        List<String> stopped = new ArrayList<>();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context.getName() + " " + context.getLowCardinalityKeyValue("phase").getValue());
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", false);
+        loader.publish(new ChallengeData(List.of(OPEN)));
+        DealService service = new DealService(loader, new DealFilter(), new DealInventory(loader));
+        RequestPhases phases = new RequestPhases(registry);
+
+        DealService.CurrentDeals current = phases.time(RequestPhases.Phase.ACQUIRE, service::current);
+        assertEquals(1, phases.time(RequestPhases.Phase.FILTER, () -> current.activeAt(LocalTime.NOON)).size());
+        assertEquals("", phases.serializing(""));
+        assertEquals(2, stopped.size());
+        phases.finish();
+
+        assertEquals(List.of("deals.request.phase acquire", "deals.request.phase filter",
+                "deals.request.phase serialize"), stopped);
+        assertTrue(phases.header().matches(
+                "acquire;dur=\\d+\\.\\d{3}, filter;dur=\\d+\\.\\d{3}, serialize;dur=\\d+\\.\\d{3}"), phases.header());
+    }
+
+    @Test
+    void test_failedPhaseStillEnds() {
+        RequestPhases phases = new RequestPhases(ObservationRegistry.create());
+
+        assertThrows(InvalidParameterException.class, () -> phases.time(RequestPhases.Phase.PARSE, () -> {
+            throw new InvalidParameterException("bad");
+        }));
+
+        assertTrue(phases.header().matches("parse;dur=\\d+\\.\\d{3}"), phases.header());
+    }
+
+    @Test
+    void test_untimedRequestsRecordNothing() {
+        assertEquals("parsed", RequestPhases.NONE.time(RequestPhases.Phase.PARSE, () -> "parsed"));
+        RequestPhases.NONE.serializing("body");
+        RequestPhases.NONE.finish();
+
+        assertEquals("", RequestPhases.NONE.header());
+    }
+}
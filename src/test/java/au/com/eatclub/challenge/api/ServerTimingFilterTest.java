@@ -0,0 +1,72 @@
+package au.com.eatclub.challenge.api;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.ObservationView;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ServerTimingFilter.
+ */
+class ServerTimingFilterTest {
+
+    /**
+     * Tests that every phase is observed as a child of the request's {@code http.server.requests}
+     * observation, which a tracing bridge turns into child spans of the request span.
+     */
+    @Test
+    void test_phasesAreChildrenOfRequestObservation() throws Exception {
+        List<String> started = new ArrayList<>();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStart(Observation.Context context) {
+                ObservationView parent = context.getParentObservation();
+                started.add(context.getName() + " < "
+                        + (parent == null ? "none" : parent.getContextView().getName()));
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        ServerTimingFilter timing = new ServerTimingFilter(
+                new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(ObservationRegistry.class),
+                true);
+        HttpServlet controller = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                RequestPhases phases = RequestPhases.of(request);
+                String deals = phases.time(RequestPhases.Phase.FILTER, () -> "[]");
+                response.getWriter().write(phases.serializing(deals));
+            }
+        };
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/deals");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(controller, new ServerHttpObservationFilter(registry), timing).doFilter(request, response);
+
+        assertEquals(List.of("http.server.requests < none",
+                "deals.request.phase < http.server.requests",
+                "deals.request.phase < http.server.requests"), started);
+        assertEquals("[]", response.getContentAsString());
+        assertTrue(response.getHeader(ServerTimingFilter.HEADER).startsWith("filter;dur="));
+    }
+}
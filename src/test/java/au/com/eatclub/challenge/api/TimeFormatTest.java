@@ -0,0 +1,27 @@
+package au.com.eatclub.challenge.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TimeFormat}.
+ */
+class TimeFormatTest {
+
+    /**
+     * Output matches LocalTime.toString() and whole-minute strings are shared.
+     */
+    @Test
+    void test_formatMatchesToString() {
+        for (int m = 0; m < 24 * 60; m++) {
+            LocalTime t = LocalTime.of(m / 60, m % 60);
+            assertEquals(t.toString(), TimeFormat.format(t));
+        }
+        assertSame(TimeFormat.format(LocalTime.of(17, 30)), TimeFormat.format(LocalTime.of(17, 30)));
+        assertEquals(LocalTime.MAX.toString(), TimeFormat.format(LocalTime.MAX));
+        assertNull(TimeFormat.format(null));
+    }
+}
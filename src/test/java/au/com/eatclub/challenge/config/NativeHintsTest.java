@@ -0,0 +1,38 @@
+package au.com.eatclub.challenge.config;
+
+import au.com.eatclub.challenge.loader.ChallengeDataDTO;
+import au.com.eatclub.challenge.loader.DealDTO;
+import au.com.eatclub.challenge.persistence.DealEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link NativeHints}.
+ */
+class NativeHintsTest {
+
+    @Test
+    void test_registersReflectedTypes() throws Exception {
+        RuntimeHints hints = new RuntimeHints();
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Feed records can be constructed and read by Jackson
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ChallengeDataDTO.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(DealDTO.class.getMethod("discount")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RegionConfig.RegionSettings.class).test(hints));
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(DealEntity.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of(NativeHints.CACHING_PROVIDER)).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/javax.cache.spi.CachingProvider").test(hints));
+    }
+}
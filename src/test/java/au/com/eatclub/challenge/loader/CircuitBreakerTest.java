@@ -0,0 +1,64 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.loader.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CircuitBreaker, on a manually advanced clock.
+ */
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 2, Duration.ofSeconds(10), now::get);
+
+    @Test
+    void test_opensAfterConsecutiveFailures() {
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(State.CLOSED, breaker.state());
+
+        // A success in between resets the count
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertEquals(State.CLOSED, breaker.state());
+
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void test_trialCallAfterOpenDuration() {
+        breaker.onFailure();
+        breaker.onFailure();
+
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertFalse(breaker.tryAcquire());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.state());
+        // Only one trial call at a time
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void test_failedTrialReopens() {
+        breaker.onFailure();
+        breaker.onFailure();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+}
@@ -10,7 +10,13 @@ import org.springframework.web.reactive.function.client.ExchangeFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,8 +35,19 @@ class DataLoaderTest {
      * @return A DataLoader instance configured with the mocked WebClient.
      */
     private DataLoader loaderWithJson(String json) {
+        return loaderWithJson(json, new AtomicInteger());
+    }
+
+    /**
+     * Helper method to create a DataLoader whose mocked WebClient counts the requests it serves.
+     *
+     * @param json     The JSON string to be returned by the mocked WebClient.
+     * @param requests Incremented on every request to the mocked WebClient.
+     * @return A DataLoader instance configured with the mocked WebClient.
+     */
+    private DataLoader loaderWithJson(String json, AtomicInteger requests) {
 
-        ExchangeFunction exchange = request -> Mono.just(
+        ExchangeFunction exchange = request -> Mono.fromSupplier(requests::incrementAndGet).map(n ->
                 ClientResponse.create(HttpStatus.OK)
                         .header("Content-Type", "application/json")
                         .body(json)
@@ -73,7 +90,7 @@ class DataLoaderTest {
                 """;
 
         DataLoader loader = loaderWithJson(json);
-        ChallengeData data = loader.load();
+        ChallengeData data = loader.refresh();
 
         assertNotNull(data);
         assertEquals(1, data.restaurants().size());
@@ -125,7 +142,7 @@ class DataLoaderTest {
                 """;
 
         DataLoader loader = loaderWithJson(json);
-        ChallengeData data = loader.load();
+        ChallengeData data = loader.refresh();
         Restaurant r = data.restaurants().getFirst();
         Deal d = r.deals().getFirst();
 
@@ -176,7 +193,7 @@ class DataLoaderTest {
                 """;
 
         DataLoader loader = loaderWithJson(json);
-        ChallengeData data = loader.load();
+        ChallengeData data = loader.refresh();
         Restaurant r = data.restaurants().getFirst();
         Deal d = r.deals().getFirst();
 
@@ -229,7 +246,7 @@ class DataLoaderTest {
                 """;
 
         DataLoader loader = loaderWithJson(json);
-        ChallengeData data = loader.load();
+        ChallengeData data = loader.refresh();
         Restaurant r = data.restaurants().getFirst();
         Deal d = r.deals().getFirst();
 
@@ -264,7 +281,7 @@ class DataLoaderTest {
                 """;
 
         DataLoader loader = loaderWithJson(json);
-        ChallengeData data = loader.load();
+        ChallengeData data = loader.refresh();
         Restaurant r = data.restaurants().getFirst();
 
         assertNull(r.openTime());
@@ -292,10 +309,203 @@ class DataLoaderTest {
                 """;
 
         DataLoader loader = loaderWithJson(json);
-        ChallengeData data = loader.load();
+        ChallengeData data = loader.refresh();
 
         assertEquals(2, data.restaurants().size());
         assertEquals("R1", data.restaurants().getFirst().objectId());
         assertEquals("R2", data.restaurants().get(1).objectId());
     }
-}
\ No newline at end of file
+
+    // ----------------------------------------------------------------------
+    // Current dataset is kept in memory
+    // ----------------------------------------------------------------------
+
+    /**
+     * Tests that loads are served from memory and only refresh() goes back to the feed, so a
+     * load before the first dataset fails instead of fetching it.
+     */
+    @Test
+    void test_loadIsCachedUntilRefresh() {
+
+        String json = """
+                {
+                  "restaurants": [
+                    { "objectId": "R1", "name": "A", "address1": "1", "suburb": "X", "open": "1:00pm", "close": "5:00pm", "cuisines": [], "deals": [] }
+                  ]
+                }
+                """;
+
+        AtomicInteger requests = new AtomicInteger();
+        DataLoader loader = loaderWithJson(json, requests);
+
+        assertFalse(loader.isLoaded());
+        assertThrows(DatasetNotReadyException.class, loader::load);
+        assertEquals(0, requests.get());
+
+        ChallengeData first = loader.refresh();
+        assertTrue(loader.isLoaded());
+        assertSame(first, loader.load());
+        assertEquals(1, requests.get());
+
+        ChallengeData refreshed = loader.refresh();
+        assertEquals(2, requests.get());
+        assertNotSame(first, refreshed);
+        assertSame(refreshed, loader.load());
+
+        // The restaurant did not change, so the refreshed dataset keeps the existing instance
+        assertSame(first.restaurants().get(0), refreshed.restaurants().get(0));
+    }
+
+    /**
+     * Tests that a published dataset is served without fetching the feed.
+     */
+    @Test
+    void test_publishedDataServedWithoutFetch() {
+
+        AtomicInteger requests = new AtomicInteger();
+        DataLoader loader = loaderWithJson("{}", requests);
+        ChallengeData published = new ChallengeData(List.of());
+
+        loader.publish(published);
+
+        assertSame(published, loader.load());
+        assertEquals(0, requests.get());
+    }
+
+    /**
+     * Tests that refreshIfChanged() sends the current ETag and skips a 304 Not Modified feed.
+     */
+    @Test
+    void test_refreshIfChangedUsesETag() {
+
+        List<String> ifNoneMatch = new ArrayList<>();
+        ExchangeFunction exchange = request -> {
+            String sent = request.headers().getFirst("If-None-Match");
+            ifNoneMatch.add(sent);
+            ClientResponse response = "\"v1\"".equals(sent)
+                    ? ClientResponse.create(HttpStatus.NOT_MODIFIED).build()
+                    : ClientResponse.create(HttpStatus.OK)
+                            .header("Content-Type", "application/json")
+                            .header("ETag", "\"v1\"")
+                            .body("{ \"restaurants\": [] }")
+                            .build();
+            return Mono.just(response);
+        };
+        DataLoader loader = new DataLoader(WebClient.builder().exchangeFunction(exchange).build());
+
+        assertTrue(loader.refreshIfChanged().isPresent());
+        assertEquals(Optional.of("\"v1\""), loader.version());
+
+        ChallengeData current = loader.load();
+        assertTrue(loader.refreshIfChanged().isEmpty());
+        assertSame(current, loader.load());
+        assertEquals(Arrays.asList(null, "\"v1\""), ifNoneMatch);
+    }
+
+    /**
+     * Tests that a feed without an ETag is versioned by its content.
+     */
+    @Test
+    void test_refreshIfChangedComparesContentWithoutETag() {
+
+        String json = """
+                {
+                  "restaurants": [
+                    { "objectId": "R1", "name": "A", "address1": "1", "suburb": "X", "open": "1:00pm", "close": "5:00pm", "cuisines": [], "deals": [] }
+                  ]
+                }
+                """;
+
+        AtomicInteger requests = new AtomicInteger();
+        DataLoader loader = loaderWithJson(json, requests);
+
+        assertTrue(loader.refreshIfChanged().isPresent());
+        assertTrue(loader.version().orElseThrow().startsWith("content:"));
+        assertTrue(loader.refreshIfChanged().isEmpty());
+        assertEquals(2, requests.get());
+    }
+
+    // ----------------------------------------------------------------------
+    // Timeouts, retries and circuit breaker
+    // ----------------------------------------------------------------------
+
+    private static final FeedPolicy FAST_POLICY = new FeedPolicy(
+            Duration.ofMillis(200), 2, Duration.ofMillis(1), Duration.ofMillis(5), 2, Duration.ofMinutes(1));
+
+    private static DataLoader loaderWith(ExchangeFunction exchange) {
+        WebClient client = WebClient.builder().exchangeFunction(exchange).build();
+        return new DataLoader(client, "http://feed.invalid", false, DataLoader.DEFAULT_PARALLEL_THRESHOLD, FAST_POLICY);
+    }
+
+    private static ClientResponse emptyFeed() {
+        return ClientResponse.create(HttpStatus.OK)
+                .header("Content-Type", "application/json")
+                .body("{ \"restaurants\": [] }")
+                .build();
+    }
+
+    /**
+     * Tests that a transient server error is retried.
+     */
+    @Test
+    void test_retriesTransientFailure() {
+        AtomicInteger requests = new AtomicInteger();
+        DataLoader loader = loaderWith(request -> Mono.just(requests.incrementAndGet() == 1
+                ? ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()
+                : emptyFeed()));
+
+        assertTrue(loader.refresh().restaurants().isEmpty());
+        assertEquals(2, requests.get());
+    }
+
+    /**
+     * Tests that a client error is not retried.
+     */
+    @Test
+    void test_doesNotRetryClientError() {
+        AtomicInteger requests = new AtomicInteger();
+        DataLoader loader = loaderWith(request -> Mono.fromSupplier(() -> {
+            requests.incrementAndGet();
+            return ClientResponse.create(HttpStatus.NOT_FOUND).build();
+        }));
+
+        assertThrows(RuntimeException.class, loader::refresh);
+        assertEquals(1, requests.get());
+    }
+
+    /**
+     * Tests that a feed that never answers times out, and that the current dataset is kept.
+     */
+    @Test
+    void test_timeoutKeepsCurrentDataset() {
+        DataLoader loader = loaderWith(request -> Mono.never());
+        ChallengeData current = new ChallengeData(List.of());
+        loader.publish(current);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, loader::refreshIfChanged);
+        assertTrue(e.getMessage().contains("did not respond"));
+        assertSame(current, loader.load());
+    }
+
+    /**
+     * Tests that the circuit breaker opens after consecutive failed fetches and then fails
+     * without calling the feed.
+     */
+    @Test
+    void test_circuitBreakerFailsFast() {
+        AtomicInteger requests = new AtomicInteger();
+        DataLoader loader = loaderWith(request -> Mono.fromSupplier(() -> {
+            requests.incrementAndGet();
+            return ClientResponse.create(HttpStatus.BAD_GATEWAY).build();
+        }));
+
+        assertThrows(RuntimeException.class, loader::refresh);
+        assertThrows(RuntimeException.class, loader::refresh);
+        assertEquals(CircuitBreaker.State.OPEN, loader.circuitState());
+        assertEquals(6, requests.get()); // two fetches of one attempt and two retries each
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, loader::refresh);
+        assertTrue(e.getMessage().contains("circuit breaker is open"));
+        assertEquals(6, requests.get());
+    }
+}
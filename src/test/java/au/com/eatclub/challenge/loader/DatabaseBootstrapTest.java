@@ -0,0 +1,159 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.snapshot.SharedSnapshots;
+import au.com.eatclub.challenge.snapshot.Snapshot;
+import au.com.eatclub.challenge.snapshot.SnapshotStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DatabaseBootstrap.
+ */
+class DatabaseBootstrapTest {
+
+    private static final String FEED = """
+            {
+              "restaurants": [
+                {
+                  "objectId": "R1",
+                  "name": "Masala Kitchen",
+                  "address1": "55 Walsh Street",
+                  "suburb": "Lower East",
+                  "open": "3:00pm",
+                  "close": "9:00pm",
+                  "cuisines": ["Indian"],
+                  "deals": [{ "objectId": "D1", "discount": "20", "qtyLeft": "5" }]
+                }
+              ]
+            }
+            """;
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<Object> events = new ArrayList<>();
+    private final DatabaseSaver saver = mock(DatabaseSaver.class);
+    private final DatabaseReader reader = mock(DatabaseReader.class);
+    private final DataLoader loader = new DataLoader(feedClient());
+
+    private WebClient feedClient() {
+        ExchangeFunction exchange = request -> Mono.fromSupplier(requests::incrementAndGet).map(n ->
+                ClientResponse.create(HttpStatus.OK)
+                        .header("Content-Type", "application/json")
+                        .body(FEED)
+                        .build()
+        );
+        return WebClient.builder().exchangeFunction(exchange).build();
+    }
+
+    private DatabaseBootstrap bootstrap() {
+        return bootstrap(new SharedSnapshots("", "publisher", 3));
+    }
+
+    private DatabaseBootstrap bootstrap(SharedSnapshots shared) {
+        return bootstrap(new SnapshotStore(""), shared);
+    }
+
+    private DatabaseBootstrap bootstrap(SnapshotStore snapshots, SharedSnapshots shared) {
+        when(reader.read()).thenReturn(Optional.empty());
+        return new DatabaseBootstrap(loader, saver, reader, snapshots, shared, events::add);
+    }
+
+    private static DatasetDiff changes(ChallengeData data) {
+        return DatasetDiff.between(DatasetFingerprint.EMPTY, data);
+    }
+
+    @Test
+    void test_failedSaveRetriedWhileFeedUnchanged() {
+        DatabaseBootstrap bootstrap = bootstrap();
+        when(saver.save(any(), any()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenAnswer(call -> changes(call.getArgument(0)));
+
+        // The feed is served even though it cannot be saved yet
+        bootstrap.warmUp();
+        assertEquals(1, events.size());
+        String version = loader.version().orElseThrow();
+
+        // The feed is unchanged, but the dataset was never saved
+        bootstrap.revalidate();
+        verify(saver, times(2)).save(loader.load(), version);
+
+        // Once saved, an unchanged feed is not saved again
+        bootstrap.revalidate();
+        verify(saver, times(2)).save(any(), any());
+        assertEquals(3, requests.get());
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void test_snapshotWrittenWhileDatabaseDown() {
+        String path = dir.resolve("deals.snap").toString();
+        DatabaseBootstrap bootstrap = bootstrap(new SnapshotStore(path), new SharedSnapshots("", "publisher", 3));
+        when(saver.save(any(), any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        // The served feed is kept for the next restart even though it was never saved
+        bootstrap.warmUp();
+        Optional<Snapshot> snapshot = new SnapshotStore(path).read();
+        assertTrue(snapshot.isPresent());
+        assertEquals("R1", snapshot.get().data().restaurants().get(0).objectId());
+    }
+
+    @Test
+    void test_unannouncedDatasetAnnouncedAndSavedByWarmUp() {
+        DatabaseBootstrap bootstrap = bootstrap();
+        when(saver.save(any(), any())).thenAnswer(call -> changes(call.getArgument(0)));
+
+        // A request before warm-up does not load the feed itself
+        assertThrows(DatasetNotReadyException.class, loader::load);
+        assertEquals(0, requests.get());
+
+        // Even a dataset loaded outside warm-up, so the feed looks unchanged, is indexed and saved
+        loader.refresh();
+        bootstrap.warmUp();
+
+        ServedDataset served = loader.dataset();
+        assertEquals(List.of(new DatasetPublished(served)), events);
+        verify(saver).save(served.data(), served.version());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void test_subscriberNeverRequestsFeed() {
+        DatabaseBootstrap bootstrap = bootstrap(new SharedSnapshots(dir.toString(), "subscriber", 3));
+        when(saver.save(any(), any())).thenAnswer(call -> changes(call.getArgument(0)));
+
+        // Until a snapshot is shared there is no data, and requests do not fetch it instead
+        bootstrap.warmUp();
+        bootstrap.revalidate();
+        assertFalse(loader.isLoaded());
+        assertThrows(DatasetNotReadyException.class, loader::load);
+
+        ChallengeData data = new ChallengeData(
+                ChallengeMapper.toRestaurants(FeedGenerator.generate(20, 2, 1).restaurants()));
+        new SharedSnapshots(dir.toString(), "publisher", 3).publish(data, "v1");
+        assertTrue(bootstrap.followShared());
+        bootstrap.revalidate();
+
+        assertEquals(Optional.of("v1"), loader.version());
+        assertEquals(20, loader.load().restaurants().size());
+        assertEquals(1, events.size());
+        assertEquals(0, requests.get());
+    }
+}
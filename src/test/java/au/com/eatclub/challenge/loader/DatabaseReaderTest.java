@@ -0,0 +1,70 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.repository.DealRepository;
+import au.com.eatclub.challenge.repository.RestaurantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that DatabaseReader reads back exactly what DatabaseSaver stored.
+ */
+@DataJpaTest
+class DatabaseReaderTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private RestaurantRepository restaurantRepo;
+
+    @Autowired
+    private DealRepository dealRepo;
+
+    private DatabaseSaver saver;
+    private DatabaseReader reader;
+
+    @BeforeEach
+    void setUp() {
+        saver = new DatabaseSaver(jdbc, txManager, new SimpleMeterRegistry(), 500);
+        reader = new DatabaseReader(jdbc, restaurantRepo, dealRepo);
+    }
+
+    @Test
+    void test_emptyDatabaseHasNothingStored() {
+        assertTrue(reader.read().isEmpty());
+    }
+
+    @Test
+    void test_savedDatasetRoundTrips() {
+        ChallengeData data = new ChallengeData(List.of(
+                new Restaurant("R1", "A", "1 Main St", "http://img/1", LocalTime.of(11, 0), LocalTime.of(22, 0),
+                        "Richmond", List.of("Asian", "Thai"),
+                        List.of(new Deal("D1", 20, true, false, 5, LocalTime.of(15, 0), LocalTime.of(21, 0)),
+                                new Deal("D2", 30, false, true, 1, LocalTime.of(11, 0), LocalTime.of(22, 0)))),
+                new Restaurant("R2", "B", "2 Main St", null, null, null, null, List.of(), List.of())
+        ));
+        saver.save(data, "\"v1\"");
+
+        DatabaseReader.StoredDataset stored = reader.read().orElseThrow();
+
+        assertEquals(data, stored.data());
+        assertEquals("\"v1\"", stored.version());
+        assertEquals(DatasetFingerprint.of(data), DatasetFingerprint.of(stored.data()));
+    }
+}
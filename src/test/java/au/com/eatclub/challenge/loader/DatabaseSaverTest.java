@@ -0,0 +1,132 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.persistence.DealEntity;
+import au.com.eatclub.challenge.persistence.RestaurantEntity;
+import au.com.eatclub.challenge.repository.DealRepository;
+import au.com.eatclub.challenge.repository.RestaurantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that DatabaseSaver writes only the changes between successive datasets.
+ */
+@DataJpaTest
+class DatabaseSaverTest {
+
+    @Autowired
+    private RestaurantRepository restaurantRepo;
+
+    @Autowired
+    private DealRepository dealRepo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private final MeterRegistry meters = new SimpleMeterRegistry();
+
+    // Created per test: the saver's fingerprint must not outlive each test's rolled-back transaction
+    private DatabaseSaver saver;
+
+    @BeforeEach
+    void setUp() {
+        saver = new DatabaseSaver(jdbc, txManager, meters, 500);
+    }
+
+    private static Deal deal(String id, int qtyLeft) {
+        return new Deal(id, 20, true, false, qtyLeft, LocalTime.of(12, 0), LocalTime.of(15, 0));
+    }
+
+    private static Restaurant restaurant(String id, String name, List<String> cuisines, Deal... deals) {
+        return new Restaurant(id, name, "1 Main St", null, LocalTime.of(11, 0), LocalTime.of(22, 0),
+                "Richmond", cuisines, List.of(deals));
+    }
+
+    @Test
+    void test_repeatedSaveAppliesOnlyChanges() {
+        saver.save(new ChallengeData(List.of(
+                restaurant("R1", "A", List.of("Thai"), deal("D1", 5), deal("D2", 5)),
+                restaurant("R2", "B", List.of("Pizza"), deal("D3", 5))
+        )));
+        Long r1Id = restaurantRepo.findByObjectId("R1").orElseThrow().getId();
+        entityManager.clear();
+
+        DatasetDiff diff = saver.save(new ChallengeData(List.of(
+                restaurant("R1", "A", List.of("Thai", "Asian"), deal("D1", 4)),
+                restaurant("R3", "C", List.of(), deal("D2", 5))
+        )));
+
+        assertEquals("restaurants +1 ~1 -1, deals +0 ~2 -1", diff.summary());
+        assertEquals(2, restaurantRepo.count());
+        assertTrue(restaurantRepo.findByObjectId("R2").isEmpty());
+
+        RestaurantEntity r1 = restaurantRepo.findByObjectId("R1").orElseThrow();
+        assertEquals(r1Id, r1.getId(), "updated in place, not re-inserted");
+        assertEquals(2, r1.getCuisines().size());
+
+        assertEquals(2, dealRepo.count());
+        assertEquals(4, dealRepo.findByObjectId("D1").orElseThrow().getQtyLeft());
+        DealEntity moved = dealRepo.findByObjectId("D2").orElseThrow();
+        assertEquals("R3", moved.getRestaurant().getObjectId());
+        assertTrue(dealRepo.findByObjectId("D3").isEmpty());
+
+        assertEquals(1.0, meters.counter("deals.ingest.changes", "entity", "restaurant", "change", "delete").count());
+        assertEquals(3.0, meters.counter("deals.ingest.changes", "entity", "deal", "change", "insert").count());
+    }
+
+    @Test
+    void test_unchangedSaveWritesNothing() {
+        ChallengeData data = new ChallengeData(List.of(restaurant("R1", "A", List.of("Thai"), deal("D1", 5))));
+        saver.save(data);
+
+        DatasetDiff diff = saver.save(data);
+
+        assertTrue(diff.isEmpty());
+        assertEquals(1, restaurantRepo.count());
+        assertEquals(1, dealRepo.count());
+    }
+
+    @Test
+    void test_reloadWithoutFingerprintIsIdempotent() {
+        ChallengeData data = new ChallengeData(List.of(
+                restaurant("R1", "A", List.of("Thai"), deal("D1", 5)),
+                restaurant("R2", "B", List.of("Thai", "Pizza"), deal("D2", 5), deal("D3", 1))
+        ));
+        saver.save(data);
+
+        // A new saver knows nothing about the rows already written, e.g. after a restart
+        DatabaseSaver restarted = new DatabaseSaver(jdbc, txManager, meters, 1);
+        DatasetDiff diff = restarted.save(data);
+
+        assertEquals(2, diff.restaurantInserts().size());
+        assertEquals(2, restaurantRepo.count());
+        assertEquals(3, dealRepo.count());
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM restaurant_cuisine", Integer.class));
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM cuisine", Integer.class));
+    }
+
+    @Test
+    void test_batchSizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new DatabaseSaver(jdbc, txManager, meters, 0));
+    }
+}
@@ -0,0 +1,101 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DatasetDiff and DatasetFingerprint.
+ */
+class DatasetDiffTest {
+
+    private static Deal deal(String id, int qtyLeft) {
+        return new Deal(id, 20, true, false, qtyLeft, LocalTime.of(12, 0), LocalTime.of(15, 0));
+    }
+
+    private static Restaurant restaurant(String id, String name, Deal... deals) {
+        return new Restaurant(id, name, "1 Main St", null, LocalTime.of(11, 0), LocalTime.of(22, 0),
+                "Richmond", List.of("Thai"), List.of(deals));
+    }
+
+    @Test
+    void test_everythingIsInsertedIntoEmptyDataset() {
+        ChallengeData data = new ChallengeData(List.of(
+                restaurant("R1", "A", deal("D1", 5), deal("D2", 5)),
+                restaurant("R2", "B")
+        ));
+
+        DatasetDiff diff = DatasetDiff.between(DatasetFingerprint.EMPTY, data);
+
+        assertEquals(2, diff.restaurantInserts().size());
+        assertEquals(2, diff.dealInserts().size());
+        assertEquals("R1", diff.dealInserts().get(0).restaurantObjectId());
+        assertTrue(diff.restaurantUpdates().isEmpty());
+        assertTrue(diff.dealDeletes().isEmpty());
+    }
+
+    @Test
+    void test_identicalDatasetHasNoChanges() {
+        ChallengeData data = new ChallengeData(List.of(restaurant("R1", "A", deal("D1", 5))));
+        ChallengeData again = new ChallengeData(List.of(restaurant("R1", "A", deal("D1", 5))));
+
+        DatasetDiff diff = DatasetDiff.between(DatasetFingerprint.of(data), again);
+
+        assertTrue(diff.isEmpty());
+        assertEquals("restaurants +0 ~0 -0, deals +0 ~0 -0", diff.summary());
+    }
+
+    @Test
+    void test_insertsUpdatesAndDeletesAreSeparated() {
+        ChallengeData before = new ChallengeData(List.of(
+                restaurant("R1", "A", deal("D1", 5), deal("D2", 5)),
+                restaurant("R2", "B", deal("D3", 5))
+        ));
+        ChallengeData after = new ChallengeData(List.of(
+                restaurant("R1", "A", deal("D1", 4), deal("D4", 5)),
+                restaurant("R3", "C")
+        ));
+
+        DatasetDiff diff = DatasetDiff.between(DatasetFingerprint.of(before), after);
+
+        assertEquals(List.of("R3"), diff.restaurantInserts().stream().map(Restaurant::objectId).toList());
+        assertTrue(diff.restaurantUpdates().isEmpty(), "deal changes alone do not update the restaurant");
+        assertEquals(List.of("R2"), diff.restaurantDeletes());
+        assertEquals(List.of("D4"), diff.dealInserts().stream().map(c -> c.deal().objectId()).toList());
+        assertEquals(List.of("D1"), diff.dealUpdates().stream().map(c -> c.deal().objectId()).toList());
+        assertEquals(List.of("D2", "D3"), diff.dealDeletes());
+    }
+
+    @Test
+    void test_restaurantFieldChangeAndMovedDealAreUpdates() {
+        ChallengeData before = new ChallengeData(List.of(
+                restaurant("R1", "A", deal("D1", 5)),
+                restaurant("R2", "B")
+        ));
+        ChallengeData after = new ChallengeData(List.of(
+                restaurant("R1", "A renamed"),
+                restaurant("R2", "B", deal("D1", 5))
+        ));
+
+        DatasetDiff diff = DatasetDiff.between(DatasetFingerprint.of(before), after);
+
+        assertEquals(List.of("R1"), diff.restaurantUpdates().stream().map(Restaurant::objectId).toList());
+        assertEquals(1, diff.dealUpdates().size());
+        assertEquals("R2", diff.dealUpdates().get(0).restaurantObjectId());
+        assertTrue(diff.dealDeletes().isEmpty());
+    }
+
+    @Test
+    void test_hashDistinguishesFieldBoundaries() {
+        Restaurant a = new Restaurant("R1", "ab", "c", null, null, null, "X", List.of(), List.of());
+        Restaurant b = new Restaurant("R1", "a", "bc", null, null, null, "X", List.of(), List.of());
+
+        assertNotEquals(DatasetFingerprint.hash(a), DatasetFingerprint.hash(b));
+    }
+}
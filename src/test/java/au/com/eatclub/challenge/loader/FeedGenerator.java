@@ -0,0 +1,302 @@
+package au.com.eatclub.challenge.loader;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic challenge data feeds for scale testing.
+ *
+ * <p>Feeds use the exact {@link RestaurantDTO}/{@link DealDTO} shape of the real feed and mix in
+ * the irregular cases {@link ChallengeMapper} has to cope with:</p>
+ * <ul>
+ *   <li>am/pm ("3:00pm", "11:30AM") and 24-hour ("15:00", "9:30") time formats</li>
+ *   <li>deals with explicit {@code start}/{@code end}</li>
+ *   <li>deals that only carry {@code open}/{@code close}</li>
+ *   <li>deals with no times at all, or only one side, falling back to the restaurant hours</li>
+ *   <li>blank time strings</li>
+ *   <li>wrap-around windows spanning midnight, for both restaurants and deals</li>
+ *   <li>sold-out deals ({@code qtyLeft} "0")</li>
+ * </ul>
+ *
+ * <p>Output is fully determined by the seed, so the same arguments always produce the same
+ * feed. Usable from tests via {@link #generate} / {@link #toJson}, and from the command line:</p>
+ *
+ * <pre>
+ * ./mvnw -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=au.com.eatclub.challenge.loader.FeedGenerator \
+ *     -Dexec.args="--restaurants=10000 --deals=5 --seed=42 --out=target/feed.json"
+ * </pre>
+ */
+public final class FeedGenerator {
+
+    private static final List<String> SUBURBS = List.of(
+            "Melbourne", "Lower East", "Carlton", "Fitzroy", "Richmond", "South Yarra", "St Kilda",
+            "Brunswick", "Collingwood", "Southbank", "Docklands", "Prahran", "Northcote", "Footscray",
+            "Hawthorn", "Windsor", "Abbotsford", "Cremorne", "Kensington", "Elwood"
+    );
+
+    private static final List<String> CUISINES = List.of(
+            "Indian", "Brazilian", "Breakfast", "Asian", "Contemporary", "Fried Chicken", "Korean",
+            "Salads", "Ribs", "Seafood", "Soup", "Vegetarian", "Italian", "Pizza", "Thai", "Japanese",
+            "Chinese", "Mexican", "Burgers", "Cafe", "Dessert", "Greek", "Vietnamese", "French"
+    );
+
+    private static final List<String> NAME_PARTS = List.of(
+            "Masala", "Kitchen", "Golden", "Dragon", "Garden", "House", "Corner", "Lane", "Spice",
+            "Grill", "Bistro", "Noodle", "Bar", "Table", "Harbour", "Little", "Urban", "Smoke"
+    );
+
+    private static final List<String> STREETS = List.of(
+            "Walsh", "Queen", "Collins", "Bourke", "Lygon", "Chapel", "Smith", "Brunswick", "Swan",
+            "Acland", "Flinders", "Elizabeth", "Sydney", "High", "Glenferrie"
+    );
+
+    // Absent times are omitted rather than written as null, as in the real feed
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private FeedGenerator() {}
+
+    /**
+     * Generates a feed in memory.
+     *
+     * @param restaurants        number of restaurants
+     * @param dealsPerRestaurant number of deals per restaurant
+     * @param seed               random seed; equal seeds produce equal feeds
+     * @return the generated feed
+     */
+    public static ChallengeDataDTO generate(int restaurants, int dealsPerRestaurant, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<RestaurantDTO> list = new ArrayList<>(restaurants);
+        for (int i = 0; i < restaurants; i++) {
+            list.add(restaurant(random, dealsPerRestaurant));
+        }
+        return new ChallengeDataDTO(list);
+    }
+
+    /**
+     * Generates a feed as JSON bytes.
+     *
+     * @param restaurants        number of restaurants
+     * @param dealsPerRestaurant number of deals per restaurant
+     * @param seed               random seed; equal seeds produce equal feeds
+     * @return the generated feed as UTF-8 JSON
+     */
+    public static byte[] toJson(int restaurants, int dealsPerRestaurant, long seed) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out, restaurants, dealsPerRestaurant, seed);
+        return out.toByteArray();
+    }
+
+    /**
+     * Streams a feed as JSON, one restaurant at a time, so very large feeds never have to be
+     * held in memory.
+     *
+     * @param out                destination stream (left open)
+     * @param restaurants        number of restaurants
+     * @param dealsPerRestaurant number of deals per restaurant
+     * @param seed               random seed; equal seeds produce equal feeds
+     */
+    public static void write(OutputStream out, int restaurants, int dealsPerRestaurant, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (JsonGenerator gen = MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("restaurants");
+            for (int i = 0; i < restaurants; i++) {
+                MAPPER.writeValue(gen, restaurant(random, dealsPerRestaurant));
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Command-line entry point.
+     *
+     * <p>Arguments: {@code --restaurants=N} (default 1000), {@code --deals=M} (default 5),
+     * {@code --seed=S} (default 42) and {@code --out=path} (default stdout).</p>
+     *
+     * @param args command-line arguments
+     * @throws IOException if the output file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int restaurants = 1000;
+        int deals = 5;
+        long seed = 42;
+        Path outFile = null;
+
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            switch (kv[0]) {
+                case "--restaurants" -> restaurants = Integer.parseInt(kv[1]);
+                case "--deals" -> deals = Integer.parseInt(kv[1]);
+                case "--seed" -> seed = Long.parseLong(kv[1]);
+                case "--out" -> outFile = Path.of(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + kv[0]);
+            }
+        }
+
+        if (outFile == null) {
+            write(System.out, restaurants, deals, seed);
+            System.out.flush();
+            return;
+        }
+        try (OutputStream out = Files.newOutputStream(outFile)) {
+            write(out, restaurants, deals, seed);
+        }
+        System.err.printf("Wrote %d restaurants x %d deals (seed %d) to %s (%d bytes)%n",
+                restaurants, deals, seed, outFile, Files.size(outFile));
+    }
+
+    // ----------------------------------------------------------------------
+    // Record generation
+    // ----------------------------------------------------------------------
+
+    private static RestaurantDTO restaurant(SplittableRandom random, int dealCount) {
+        // Opening hours in whole half-hours; one in ten restaurants trades past midnight
+        int open = halfHour(random, 7 * 60, 18 * 60);
+        int close = random.nextInt(10) == 0
+                ? halfHour(random, 0, 3 * 60)
+                : Math.min(open + halfHour(random, 4 * 60, 10 * 60), 23 * 60 + 30);
+
+        List<DealDTO> deals = new ArrayList<>(dealCount);
+        for (int i = 0; i < dealCount; i++) {
+            deals.add(deal(random, open, close));
+        }
+
+        int cuisineCount = 1 + random.nextInt(4);
+        List<String> cuisines = new ArrayList<>(cuisineCount);
+        while (cuisines.size() < cuisineCount) {
+            String c = pick(random, CUISINES);
+            if (!cuisines.contains(c)) {
+                cuisines.add(c);
+            }
+        }
+
+        String objectId = objectId(random);
+        return new RestaurantDTO(
+                objectId,
+                pick(random, NAME_PARTS) + " " + pick(random, NAME_PARTS),
+                (1 + random.nextInt(400)) + " " + pick(random, STREETS) + " Street",
+                pick(random, SUBURBS),
+                "https://demo.eccdn.com.au/images/" + objectId + "/image.jpg",
+                formatTime(random, open),
+                formatTime(random, close),
+                cuisines,
+                deals
+        );
+    }
+
+    private static DealDTO deal(SplittableRandom random, int restaurantOpen, int restaurantClose) {
+        String start = null;
+        String end = null;
+        String open = null;
+        String close = null;
+
+        switch (random.nextInt(7)) {
+            // Explicit start/end inside the restaurant's hours
+            case 0, 1 -> {
+                int from = halfHour(random, restaurantOpen, restaurantOpen + 3 * 60);
+                start = formatTime(random, from);
+                end = formatTime(random, Math.min(from + halfHour(random, 60, 4 * 60), 23 * 60 + 30));
+            }
+            // Only open/close on the deal itself
+            case 2 -> {
+                int from = halfHour(random, restaurantOpen, restaurantOpen + 2 * 60);
+                open = formatTime(random, from);
+                close = formatTime(random, Math.min(from + halfHour(random, 60, 5 * 60), 23 * 60 + 30));
+            }
+            // No times at all: falls back to the restaurant hours
+            case 3 -> { }
+            // Only one side given, or a blank value
+            case 4 -> {
+                if (random.nextBoolean()) {
+                    start = formatTime(random, halfHour(random, restaurantOpen, restaurantOpen + 2 * 60));
+                    end = "";
+                } else {
+                    close = formatTime(random, halfHour(random, 18 * 60, 23 * 60));
+                }
+            }
+            // Wrap-around window spanning midnight
+            case 5 -> {
+                start = formatTime(random, halfHour(random, 20 * 60, 23 * 60));
+                end = formatTime(random, halfHour(random, 0, 3 * 60));
+            }
+            // Explicit start/end mixed with open/close, where start/end must win
+            default -> {
+                int from = halfHour(random, restaurantOpen, restaurantOpen + 2 * 60);
+                start = formatTime(random, from);
+                end = formatTime(random, Math.min(from + 120, 23 * 60 + 30));
+                open = formatTime(random, restaurantOpen);
+                close = formatTime(random, restaurantClose);
+            }
+        }
+
+        return new DealDTO(
+                objectId(random),
+                String.valueOf(10 + 5 * random.nextInt(11)),
+                String.valueOf(random.nextBoolean()),
+                String.valueOf(random.nextInt(4) == 0),
+                String.valueOf(random.nextInt(8) == 0 ? 0 : 1 + random.nextInt(10)),
+                start,
+                end,
+                open,
+                close
+        );
+    }
+
+    /**
+     * Formats minutes-of-day in one of the feed's formats: "3:00pm", "3:00PM", "15:00" or "9:00".
+     */
+    private static String formatTime(SplittableRandom random, int minuteOfDay) {
+        int h = (minuteOfDay / 60) % 24;
+        int m = minuteOfDay % 60;
+
+        if (random.nextBoolean()) {
+            String suffix = h < 12 ? "am" : "pm";
+            int h12 = h % 12 == 0 ? 12 : h % 12;
+            String s = String.format(Locale.ROOT, "%d:%02d%s", h12, m, suffix);
+            return random.nextInt(4) == 0 ? s.toUpperCase(Locale.ROOT) : s;
+        }
+        return random.nextBoolean()
+                ? String.format(Locale.ROOT, "%02d:%02d", h, m)
+                : String.format(Locale.ROOT, "%d:%02d", h, m);
+    }
+
+    private static int halfHour(SplittableRandom random, int fromMinute, int toMinute) {
+        int slots = Math.max(1, (toMinute - fromMinute) / 30);
+        return Math.min(fromMinute + 30 * random.nextInt(slots), 23 * 60 + 30);
+    }
+
+    private static String objectId(SplittableRandom random) {
+        return String.format(Locale.ROOT, "%08X-%04X-%04X-%04X-%012X",
+                random.nextInt() & 0xFFFFFFFFL,
+                random.nextInt(0x10000),
+                random.nextInt(0x10000),
+                random.nextInt(0x10000),
+                random.nextLong() & 0xFFFFFFFFFFFFL);
+    }
+
+    private static <T> T pick(SplittableRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,96 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the synthetic {@link FeedGenerator}.
+ */
+class FeedGeneratorTest {
+
+    /**
+     * The same arguments must always produce byte-identical feeds.
+     */
+    @Test
+    void test_sameSeedSameFeed() {
+        assertArrayEquals(FeedGenerator.toJson(50, 4, 7), FeedGenerator.toJson(50, 4, 7));
+        assertFalse(Arrays.equals(FeedGenerator.toJson(50, 4, 7), FeedGenerator.toJson(50, 4, 8)));
+    }
+
+    /**
+     * The generated feed has the requested size and unique object ids.
+     */
+    @Test
+    void test_requestedSize() {
+        ChallengeDataDTO feed = FeedGenerator.generate(200, 3, 1);
+
+        assertEquals(200, feed.restaurants().size());
+        assertTrue(feed.restaurants().stream().allMatch(r -> r.deals().size() == 3));
+
+        Set<String> ids = feed.restaurants().stream()
+                .flatMap(r -> Stream.concat(
+                        Stream.of(r.objectId()),
+                        r.deals().stream().map(DealDTO::objectId)))
+                .collect(Collectors.toSet());
+        assertEquals(200 + 200 * 3, ids.size());
+    }
+
+    /**
+     * The streamed JSON reads back into the same shape the real feed uses and maps cleanly.
+     */
+    @Test
+    void test_jsonRoundTripsThroughMapper() throws Exception {
+        ChallengeDataDTO dto = new ObjectMapper().readValue(FeedGenerator.toJson(500, 5, 42), ChallengeDataDTO.class);
+        List<Restaurant> restaurants = ChallengeMapper.toRestaurants(dto.restaurants());
+
+        assertEquals(500, restaurants.size());
+        for (Restaurant r : restaurants) {
+            assertNotNull(r.openTime());
+            assertNotNull(r.closeTime());
+            for (Deal d : r.deals()) {
+                assertNotNull(d.availableFrom());
+                assertNotNull(d.availableTo());
+            }
+        }
+    }
+
+    /**
+     * The irregular cases the mapper has to handle are all represented.
+     */
+    @Test
+    void test_containsMessyCases() {
+        List<DealDTO> deals = FeedGenerator.generate(500, 5, 42).restaurants().stream()
+                .flatMap(r -> r.deals().stream())
+                .toList();
+        List<String> times = deals.stream()
+                .flatMap(d -> Stream.of(d.startRaw(), d.endRaw(), d.openRaw(), d.closeRaw()))
+                .filter(t -> t != null && !t.isBlank())
+                .toList();
+
+        assertTrue(deals.stream().anyMatch(d -> d.startRaw() != null && d.endRaw() != null), "start/end");
+        assertTrue(deals.stream().anyMatch(d -> d.startRaw() == null && d.openRaw() != null), "open/close only");
+        assertTrue(deals.stream().anyMatch(d -> d.startRaw() == null && d.endRaw() == null
+                && d.openRaw() == null && d.closeRaw() == null), "no times");
+        assertTrue(deals.stream().anyMatch(d -> "".equals(d.endRaw())), "blank end");
+        assertTrue(times.stream().anyMatch(t -> t.endsWith("pm") || t.endsWith("am")), "lowercase am/pm");
+        assertTrue(times.stream().anyMatch(t -> t.endsWith("PM") || t.endsWith("AM")), "uppercase AM/PM");
+        assertTrue(times.stream().anyMatch(t -> t.matches("\\d{2}:\\d{2}")), "24h");
+        assertTrue(times.stream().anyMatch(t -> t.matches("\\d:\\d{2}")), "single-digit 24h");
+        assertTrue(deals.stream().anyMatch(d -> "0".equals(d.qtyLeft())), "sold out");
+
+        List<Restaurant> mapped = ChallengeMapper.toRestaurants(FeedGenerator.generate(500, 5, 42).restaurants());
+        assertTrue(mapped.stream().anyMatch(r -> r.openTime().isAfter(r.closeTime())), "wrap-around restaurant");
+        assertTrue(mapped.stream().flatMap(r -> r.deals().stream())
+                .anyMatch(d -> d.availableFrom().isAfter(d.availableTo())), "wrap-around deal");
+    }
+}
@@ -9,6 +9,13 @@ import org.junit.jupiter.api.Test;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -169,4 +176,73 @@ class MapperParsingTest {
         Deal d = find("Masala Kitchen", data).deals().getFirst();
         assertEquals(5, d.qtyLeft());
     }
-}
\ No newline at end of file
+
+    // ----------------------------------------------------------
+
+    /**
+     * Tests that restaurants mapped together share suburb, cuisine and cuisine-list instances.
+     */
+    @Test
+    void test_suburbsAndCuisinesInterned() {
+        List<Restaurant> restaurants = ChallengeMapper.toRestaurants(FeedGenerator.generate(500, 1, 3).restaurants());
+
+        Set<String> suburbs = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> cuisines = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Restaurant r : restaurants) {
+            suburbs.add(r.suburb());
+            cuisines.addAll(r.cuisines());
+        }
+
+        // One instance per distinct value
+        assertEquals(restaurants.stream().map(Restaurant::suburb).distinct().count(), suburbs.size());
+        assertEquals(restaurants.stream().flatMap(r -> r.cuisines().stream()).distinct().count(), cuisines.size());
+    }
+
+    /**
+     * Tests that parallel mapping gives the same restaurants, in the same order, as sequential
+     * mapping, including when the feed is split into many chunks across several threads.
+     */
+    @Test
+    void test_parallelMappingKeepsOrder() {
+        List<RestaurantDTO> dtos = FeedGenerator.generate(5_000, 3, 17).restaurants();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(ChallengeMapper.toRestaurants(dtos),
+                    ChallengeMapper.toRestaurantsParallel(dtos, new StringDictionary(), pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests that a restaurant that cannot be mapped is left out of a parallel mapping without
+     * affecting the others.
+     */
+    @Test
+    void test_parallelMappingSkipsBrokenRestaurant() {
+        assertSkipsBrokenRestaurant(dtos -> ChallengeMapper.toRestaurantsParallel(dtos, new StringDictionary()));
+    }
+
+    /**
+     * Tests that sequential mapping leaves out a restaurant that cannot be mapped, as parallel
+     * mapping does, rather than failing the whole feed.
+     */
+    @Test
+    void test_sequentialMappingSkipsBrokenRestaurant() {
+        assertSkipsBrokenRestaurant(ChallengeMapper::toRestaurants);
+    }
+
+    private static void assertSkipsBrokenRestaurant(Function<List<RestaurantDTO>, List<Restaurant>> mapper) {
+        List<RestaurantDTO> dtos = new ArrayList<>(FeedGenerator.generate(1_000, 1, 5).restaurants());
+        RestaurantDTO broken = dtos.get(500);
+        dtos.set(500, new RestaurantDTO(broken.objectId(), broken.name(), broken.address1(), broken.suburb(),
+                broken.imageLink(), "not a time", broken.closeRaw(), broken.cuisines(), broken.deals()));
+
+        List<Restaurant> mapped = mapper.apply(dtos);
+
+        assertEquals(999, mapped.size());
+        assertTrue(mapped.stream().noneMatch(r -> r.objectId().equals(broken.objectId())));
+        assertEquals(dtos.get(499).objectId(), mapped.get(499).objectId());
+        assertEquals(dtos.get(501).objectId(), mapped.get(500).objectId());
+    }
+}
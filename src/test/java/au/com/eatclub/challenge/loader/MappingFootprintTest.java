@@ -0,0 +1,82 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.domain.Restaurant;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reports the heap saved by interning suburbs and cuisines during mapping, on a large
+ * generated feed parsed by Jackson.
+ *
+ * <p>Sizes are shallow estimates for a 64-bit JVM with compressed oops and compact (Latin-1)
+ * strings: a {@code String} is 24 bytes plus its 16-byte-header {@code byte[]}, an
+ * {@code ArrayList} is 24 bytes plus its {@code Object[]}. Tagged {@code perf}; run with
+ * {@code ./mvnw -Pperf test -Dfootprint.restaurants=100000}.</p>
+ */
+@Tag("perf")
+class MappingFootprintTest {
+
+    @Test
+    void test_reportInterningSavings() throws Exception {
+        int restaurants = Integer.getInteger("footprint.restaurants", 50_000);
+        ChallengeDataDTO dto = new ObjectMapper()
+                .readValue(FeedGenerator.toJson(restaurants, 5, 42), ChallengeDataDTO.class);
+
+        Footprint before = new Footprint();
+        for (RestaurantDTO r : dto.restaurants()) {
+            before.add(r.suburb(), r.cuisines());
+        }
+
+        List<Restaurant> mapped = ChallengeMapper.toRestaurants(dto.restaurants());
+        Footprint after = new Footprint();
+        for (Restaurant r : mapped) {
+            after.add(r.suburb(), r.cuisines());
+        }
+
+        System.out.printf("%nSuburb/cuisine footprint for %d restaurants:%n", restaurants);
+        System.out.printf("  as parsed : %,9d strings %,9d lists %,12d bytes%n", before.strings.size(), before.lists.size(), before.bytes);
+        System.out.printf("  interned  : %,9d strings %,9d lists %,12d bytes%n", after.strings.size(), after.lists.size(), after.bytes);
+        System.out.printf("  saved     : %,12d bytes (%.1f%%)%n",
+                before.bytes - after.bytes, 100.0 * (before.bytes - after.bytes) / before.bytes);
+
+        assertTrue(after.bytes < before.bytes);
+    }
+
+    /**
+     * Counts distinct instances (by identity) and their estimated shallow size.
+     */
+    private static final class Footprint {
+
+        final Set<Object> strings = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Set<Object> lists = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes;
+
+        void add(String suburb, List<String> cuisines) {
+            addString(suburb);
+            if (cuisines != null && lists.add(cuisines)) {
+                bytes += 24 + align(16 + 4L * cuisines.size());
+            }
+            if (cuisines != null) {
+                cuisines.forEach(this::addString);
+            }
+        }
+
+        private void addString(String s) {
+            if (s != null && strings.add(s)) {
+                bytes += 24 + align(16 + s.length());
+            }
+        }
+
+        private static long align(long n) {
+            return (n + 7) & ~7L;
+        }
+    }
+}
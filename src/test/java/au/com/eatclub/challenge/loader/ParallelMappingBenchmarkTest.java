@@ -0,0 +1,64 @@
+package au.com.eatclub.challenge.loader;
+
+import au.com.eatclub.challenge.domain.Restaurant;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reports the speedup of {@link ChallengeMapper#toRestaurantsParallel} over sequential mapping on
+ * a generated feed of a million deals, for pools of 1, 2, 4, ... threads up to the core count.
+ *
+ * <p>Each configuration is warmed up, then timed as the best of several runs to keep GC pauses
+ * out of the figure. Tagged {@code perf}; run with
+ * {@code ./mvnw -Pperf test -Dtest=ParallelMappingBenchmarkTest -Dmapping.restaurants=200000}.</p>
+ */
+@Tag("perf")
+class ParallelMappingBenchmarkTest {
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    @Test
+    void test_reportParallelSpeedup() {
+        int restaurants = Integer.getInteger("mapping.restaurants", 200_000);
+        int dealsPerRestaurant = Integer.getInteger("mapping.dealsPerRestaurant", 5);
+        List<RestaurantDTO> dtos = FeedGenerator.generate(restaurants, dealsPerRestaurant, 42).restaurants();
+
+        List<Restaurant> expected = ChallengeMapper.toRestaurants(dtos);
+        long sequential = bestOf(() -> ChallengeMapper.toRestaurants(dtos));
+
+        System.out.printf("%nMapping %,d restaurants / %,d deals:%n", restaurants, restaurants * dealsPerRestaurant);
+        System.out.printf("  sequential        : %,8d ms%n", sequential / 1_000_000);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads = threads < cores ? Math.min(threads * 2, cores) : cores + 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                assertEquals(expected, ChallengeMapper.toRestaurantsParallel(dtos, new StringDictionary(), pool));
+                long parallel = bestOf(() -> ChallengeMapper.toRestaurantsParallel(dtos, new StringDictionary(), pool));
+                System.out.printf("  parallel, %2d thr. : %,8d ms  (%.2fx)%n",
+                        threads, parallel / 1_000_000, (double) sequential / parallel);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static long bestOf(Runnable mapping) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            mapping.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            mapping.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,60 @@
+package au.com.eatclub.challenge.loader;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link StringDictionary}.
+ */
+class StringDictionaryTest {
+
+    /**
+     * Equal values intern to the first-seen instance.
+     */
+    @Test
+    void test_internReturnsCanonicalInstance() {
+        StringDictionary dict = new StringDictionary();
+        String first = new String("Carlton");
+        String second = new String("Carlton");
+
+        assertSame(first, dict.intern(first));
+        assertSame(first, dict.intern(second));
+        assertNull(dict.intern(null));
+        assertEquals(1, dict.size());
+    }
+
+    /**
+     * Growth keeps the first-seen instance of every value.
+     */
+    @Test
+    void test_keepsFirstInstanceOfManyValues() {
+        StringDictionary dict = new StringDictionary();
+        List<String> first = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            first.add(dict.intern("v" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertSame(first.get(i), dict.intern(new String("v" + i)));
+        }
+        assertEquals(1000, dict.size());
+    }
+
+    /**
+     * Equal lists share one unmodifiable instance of canonical values.
+     */
+    @Test
+    void test_internAllSharesLists() {
+        StringDictionary dict = new StringDictionary();
+        List<String> a = dict.internAll(new ArrayList<>(List.of(new String("Thai"), new String("Pizza"))));
+        List<String> b = dict.internAll(new ArrayList<>(List.of(new String("Thai"), new String("Pizza"))));
+
+        assertSame(a, b);
+        assertSame(dict.intern("Thai"), a.getFirst());
+        assertThrows(UnsupportedOperationException.class, () -> a.add("Sushi"));
+        assertEquals(List.of(), dict.internAll(null));
+    }
+}
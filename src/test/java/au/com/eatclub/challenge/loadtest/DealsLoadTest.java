@@ -0,0 +1,85 @@
+package au.com.eatclub.challenge.loadtest;
+
+import au.com.eatclub.challenge.RestaurantDealsApplication;
+import au.com.eatclub.challenge.loader.FeedGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for the deal endpoints against a local stub feed.
+ *
+ * <p>Starts a {@link StubFeedServer} serving a {@link FeedGenerator} feed, boots the
+ * application on a random port with {@code deals.feed.url} pointing at the stub, waits for its
+ * readiness probe, then drives
+ * {@code /api/deals} and {@code /api/deals/peak-time} in turn and prints throughput and latency
+ * percentiles for each.</p>
+ *
+ * <p>Tagged {@code perf}, so it only runs with {@code ./mvnw -Pperf test}. Tunable through
+ * system properties:</p>
+ * <ul>
+ *   <li>{@code loadtest.concurrency} – workers per endpoint (default 16)</li>
+ *   <li>{@code loadtest.warmupSeconds} – unrecorded warm-up per endpoint (default 5)</li>
+ *   <li>{@code loadtest.durationSeconds} – recorded period per endpoint (default 20)</li>
+ *   <li>{@code loadtest.restaurants} – restaurants in the generated feed (default 200)</li>
+ *   <li>{@code loadtest.dealsPerRestaurant} – deals per generated restaurant (default 5)</li>
+ *   <li>{@code loadtest.seed} – feed generator seed (default 42)</li>
+ *   <li>{@code loadtest.timeOfDay} – value passed to {@code /api/deals} (default 18:00)</li>
+ *   <li>{@code loadtest.readyTimeoutSeconds} – how long to wait for readiness (default 60)</li>
+ * </ul>
+ */
+@Tag("perf")
+class DealsLoadTest {
+
+    @Test
+    void test_dealEndpointsUnderLoad() throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmupSeconds", 5));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.durationSeconds", 20));
+        int restaurants = Integer.getInteger("loadtest.restaurants", 200);
+        int dealsPerRestaurant = Integer.getInteger("loadtest.dealsPerRestaurant", 5);
+        long seed = Long.getLong("loadtest.seed", 42);
+        String timeOfDay = System.getProperty("loadtest.timeOfDay", "18:00");
+
+        try (StubFeedServer feed = StubFeedServer.start(FeedGenerator.toJson(restaurants, dealsPerRestaurant, seed));
+             ConfigurableApplicationContext app = new SpringApplicationBuilder(RestaurantDealsApplication.class)
+                     .run(
+                             "--server.port=0",
+                             "--deals.feed.url=" + feed.url(),
+                             "--spring.datasource.url=jdbc:h2:mem:loadtest",
+                             "--spring.jpa.show-sql=false",
+                             "--spring.h2.console.enabled=false"
+                     )) {
+
+            int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+            String base = "http://localhost:" + port + "/api/deals";
+            LoadDriver driver = new LoadDriver(concurrency);
+
+            // Startup does not wait for data: measure once the first dataset is served and indexed
+            driver.awaitOk(URI.create("http://localhost:" + port + "/actuator/health/readiness"),
+                    Duration.ofSeconds(Integer.getInteger("loadtest.readyTimeoutSeconds", 60)));
+
+            List<LoadDriver.Result> results = List.of(
+                    driver.run("GET /api/deals", URI.create(base + "?timeOfDay=" + timeOfDay), warmup, duration),
+                    driver.run("GET /api/deals/peak-time", URI.create(base + "/peak-time"), warmup, duration)
+            );
+
+            System.out.printf("%nLoad test: concurrency=%d, warmup=%s, duration=%s, feed=%d x %d deals, upstream requests=%d%n",
+                    concurrency, warmup, duration, restaurants, dealsPerRestaurant, feed.requestCount());
+            results.forEach(r -> System.out.println(r.summary()));
+
+            for (LoadDriver.Result r : results) {
+                assertTrue(r.latencies().getTotalCount() > 0, r.name() + " completed no requests");
+                assertEquals(0, r.errors(), r.name() + " returned errors");
+            }
+        }
+    }
+}
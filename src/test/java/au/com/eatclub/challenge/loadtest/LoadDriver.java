@@ -0,0 +1,171 @@
+package au.com.eatclub.challenge.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load driver.
+ *
+ * <p>Each of {@code concurrency} workers sends a request, waits for the response and
+ * immediately sends the next one. Latencies of successful requests are recorded in an
+ * HdrHistogram (microsecond resolution); non-2xx responses and I/O failures are counted
+ * as errors.</p>
+ */
+public final class LoadDriver {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final int concurrency;
+
+    /**
+     * @param concurrency the number of concurrent workers per endpoint
+     */
+    public LoadDriver(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Polls an endpoint until it answers 200, e.g. a readiness probe, so that the load starts
+     * once the application serves data rather than while it is still loading.
+     *
+     * @param uri     the endpoint to poll
+     * @param timeout how long to wait at most
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if the endpoint does not answer 200 in time
+     */
+    public void awaitOk(URI uri, Duration timeout) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet; try again
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(uri + " did not answer 200 within " + timeout);
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    /**
+     * Drives a single endpoint, first for the warm-up period (not recorded) and then for
+     * the measured period.
+     *
+     * @param name     label used in the report
+     * @param uri      the endpoint to call
+     * @param warmup   how long to run before recording
+     * @param duration how long to record
+     * @return the measured result
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public Result run(String name, URI uri, Duration warmup, Duration duration) throws InterruptedException {
+        if (!warmup.isZero()) {
+            drive(uri, warmup, null);
+        }
+        return drive(uri, duration, name);
+    }
+
+    private Result drive(URI uri, Duration duration, String name) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        Histogram histogram = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+        AtomicLong errors = new AtomicLong();
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(concurrency)) {
+            List<Future<?>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() / 100 != 2) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent);
+                        histogram.recordValue(Math.min(micros, MAX_TRACKABLE_MICROS));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load worker failed", e.getCause());
+                }
+            }
+        }
+
+        return new Result(name, histogram, errors.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * The outcome of driving one endpoint.
+     *
+     * @param name         the endpoint label
+     * @param latencies    latencies of successful requests, in microseconds
+     * @param errors       number of failed requests
+     * @param elapsedNanos wall-clock time of the measured period
+     */
+    public record Result(String name, Histogram latencies, long errors, long elapsedNanos) {
+
+        /**
+         * @return successful requests per second over the measured period
+         */
+        public double throughput() {
+            return latencies.getTotalCount() / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        /**
+         * @return a one-line summary with throughput and latency percentiles in milliseconds
+         */
+        public String summary() {
+            return String.format(
+                    "%-24s %10.1f req/s  ok=%-8d err=%-6d p50=%8.2fms p90=%8.2fms p99=%8.2fms p99.9=%8.2fms max=%8.2fms",
+                    name,
+                    throughput(),
+                    latencies.getTotalCount(),
+                    errors,
+                    millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue())
+            );
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package au.com.eatclub.challenge.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stand-in for the challenge data CDN.
+ *
+ * <p>Serves a fixed JSON body at {@code /challengedata.json} on an ephemeral loopback port,
+ * so the application can be pointed at it through {@code deals.feed.url} instead of the
+ * real eccdn.com.au endpoint.</p>
+ */
+public final class StubFeedServer implements AutoCloseable {
+
+    private static final String PATH = "/challengedata.json";
+
+    private final HttpServer server;
+    private final AtomicLong requests = new AtomicLong();
+
+    private StubFeedServer(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts a stub server that answers every feed request with the given body.
+     *
+     * @param body the JSON feed to serve
+     * @return the started server
+     * @throws IOException if the server socket cannot be bound
+     */
+    public static StubFeedServer start(byte[] body) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        StubFeedServer stub = new StubFeedServer(server);
+
+        server.createContext(PATH, exchange -> {
+            stub.requests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return stub;
+    }
+
+    /**
+     * @return the URL to configure as {@code deals.feed.url}
+     */
+    public String url() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + PATH;
+    }
+
+    /**
+     * @return the number of feed requests served so far
+     */
+    public long requestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,102 @@
+package au.com.eatclub.challenge.repository;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.DatabaseSaver;
+import au.com.eatclub.challenge.persistence.DealEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the deal read queries load deals with their restaurant, suburb and cuisines
+ * in a single SQL statement, whatever the number of rows.
+ */
+@DataJpaTest
+class DealReadQueryTest {
+
+    private static final int RESTAURANTS = 5;
+
+    @Autowired
+    private DealRepository dealRepo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        List<Restaurant> restaurants = IntStream.range(0, RESTAURANTS)
+                .mapToObj(i -> new Restaurant("R" + i, "Restaurant " + i, i + " Main St", null,
+                        LocalTime.of(11, 0), LocalTime.of(22, 0), "Suburb " + (i % 2),
+                        i == 0 ? List.of() : List.of("Thai", "Asian"),
+                        List.of(new Deal("D" + i + "a", 20, true, false, 5, null, null),
+                                new Deal("D" + i + "b", 30, false, true, 1, LocalTime.NOON, null))))
+                .toList();
+        new DatabaseSaver(jdbc, txManager, new SimpleMeterRegistry(), 500).save(new ChallengeData(restaurants));
+
+        entityManager.clear();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        stats = sessionFactory.getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void test_entityGraphLoadsDealsInOneStatement() {
+        List<DealEntity> deals = dealRepo.findAllWithRestaurant();
+
+        assertEquals(RESTAURANTS * 2, deals.size());
+        for (DealEntity d : deals) {
+            assertNotNull(d.getRestaurant().getName());
+            assertNotNull(d.getRestaurant().getSuburb().getName());
+            d.getRestaurant().getCuisines().forEach(c -> assertNotNull(c.getName()));
+        }
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void test_flatRowsAreReadInOneStatement() {
+        List<DealRow> rows = dealRepo.findAllRows();
+
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(RESTAURANTS * 2, rows.size());
+
+        DealRow first = rows.get(0);
+        assertEquals("D0a", first.dealObjectId());
+        assertEquals("R0", first.restaurantObjectId());
+        assertEquals("Suburb 0", first.suburb());
+        assertEquals(List.of(), first.cuisines());
+
+        DealRow lightning = rows.get(3);
+        assertEquals("D1b", lightning.dealObjectId());
+        assertTrue(lightning.lightning());
+        assertEquals(LocalTime.NOON, lightning.availableFrom());
+        assertEquals(List.of("Asian", "Thai"), lightning.cuisines());
+    }
+}
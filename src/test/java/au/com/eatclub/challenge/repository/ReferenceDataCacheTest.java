@@ -0,0 +1,80 @@
+package au.com.eatclub.challenge.repository;
+
+import au.com.eatclub.challenge.persistence.CuisineEntity;
+import au.com.eatclub.challenge.persistence.SuburbEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that suburb and cuisine lookups by name are served from the second-level cache.
+ * <p>
+ * Runs without the usual test transaction: cache entries for new rows only become visible
+ * once the inserting transaction commits, as they do in the application.
+ * </p>
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private SuburbRepository suburbRepo;
+
+    @Autowired
+    private CuisineRepository cuisineRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        stats = sessionFactory.getStatistics();
+        stats.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        suburbRepo.deleteAll();
+        cuisineRepo.deleteAll();
+    }
+
+    @Test
+    void test_repeatedLookupByNameDoesNotQueryDatabase() {
+        suburbRepo.save(new SuburbEntity("Richmond"));
+
+        // Each call runs in its own session, so only the second-level caches carry over
+        assertEquals("Richmond", suburbRepo.findByName("Richmond").orElseThrow().getName());
+        long statements = stats.getPrepareStatementCount();
+
+        assertEquals("Richmond", suburbRepo.findByName("Richmond").orElseThrow().getName());
+
+        assertEquals(statements, stats.getPrepareStatementCount());
+        assertTrue(stats.getNaturalIdCacheHitCount() > 0);
+        assertTrue(stats.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void test_cuisineLookupIsCachedAndMissesAreReported() {
+        cuisineRepo.save(new CuisineEntity("Thai"));
+
+        assertTrue(cuisineRepo.findByName("Thai").isPresent());
+        assertTrue(cuisineRepo.findByName("Thai").isPresent());
+        assertTrue(cuisineRepo.findByName("Pizza").isEmpty());
+
+        assertTrue(stats.getNaturalIdCacheHitCount() > 0);
+        assertTrue(stats.getNaturalIdCacheMissCount() > 0);
+    }
+}
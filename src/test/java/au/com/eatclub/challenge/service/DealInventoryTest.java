@@ -0,0 +1,154 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.api.ActiveDealResponse;
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.ChallengeMapper;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.FeedGenerator;
+import au.com.eatclub.challenge.service.DealInventory.ClaimResult.Status;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DealInventory and its use by DealService.
+ */
+class DealInventoryTest {
+
+    private static final LocalTime NOON = LocalTime.NOON;
+
+    private static ChallengeData data(int lightningQty) {
+        return new ChallengeData(List.of(
+                new Restaurant("R0", "Closed", "1", null, LocalTime.of(18, 0), LocalTime.of(22, 0),
+                        "X", List.of(), List.of(new Deal("D0", 10, true, false, 5, null, null))),
+                new Restaurant("R1", "Open", "2", null, LocalTime.of(9, 0), LocalTime.of(22, 0),
+                        "X", List.of(), List.of(
+                        new Deal("D1", 20, true, false, 3, null, null),
+                        new Deal("D2", 50, false, true, lightningQty, null, null)))
+        ));
+    }
+
+    private static DataLoader loaderWith(ChallengeData data, boolean offHeap) {
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", offHeap);
+        loader.publish(data);
+        return loader;
+    }
+
+    @Test
+    void test_claimDecrementsUntilSoldOut() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            DealInventory inventory = new DealInventory(loaderWith(data(2), offHeap));
+
+            assertEquals(new DealInventory.ClaimResult(Status.CLAIMED, 1), inventory.claim("D2"));
+            assertEquals(new DealInventory.ClaimResult(Status.CLAIMED, 0), inventory.claim("D2"));
+            assertEquals(Status.SOLD_OUT, inventory.claim("D2").status());
+            assertEquals(Status.UNKNOWN_DEAL, inventory.claim("nope").status());
+            assertEquals(List.of(new DealInventory.StockChange("D2", 0)), inventory.drainChanges(), "offHeap=" + offHeap);
+        }
+    }
+
+    @Test
+    void test_offHeapClaimsResolveEveryDeal() {
+        ChallengeData data = new ChallengeData(ChallengeMapper.toRestaurants(
+                FeedGenerator.generate(500, 4, 1).restaurants()));
+        DealInventory inventory = new DealInventory(loaderWith(data, true));
+
+        List<String> ids = data.restaurants().stream()
+                .flatMap(r -> r.deals().stream())
+                .map(Deal::objectId)
+                .toList();
+        for (String id : ids) {
+            assertNotEquals(Status.UNKNOWN_DEAL, inventory.claim(id).status(), id);
+        }
+        assertEquals(Status.UNKNOWN_DEAL, inventory.claim(ids.get(0) + "x").status());
+
+        // Changes are reported under the ids read back from the store, and can be requeued
+        List<DealInventory.StockChange> changes = inventory.drainChanges();
+        List<String> inStock = data.restaurants().stream()
+                .flatMap(r -> r.deals().stream())
+                .filter(d -> d.qtyLeft() > 0)
+                .map(Deal::objectId)
+                .toList();
+        assertEquals(inStock.stream().sorted().toList(),
+                changes.stream().map(DealInventory.StockChange::dealObjectId).sorted().toList());
+        inventory.requeue(changes);
+        assertEquals(changes, inventory.drainChanges());
+    }
+
+    @Test
+    void test_concurrentClaimsNeverOversell() throws Exception {
+        int stock = 10_000;
+        DealInventory inventory = new DealInventory(loaderWith(data(stock), false));
+        AtomicInteger claimed = new AtomicInteger();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < 8; w++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < stock / 4; i++) {
+                        if (inventory.claim("D2").status() == Status.CLAIMED) {
+                            claimed.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : workers) {
+                f.get();
+            }
+        }
+
+        assertEquals(stock, claimed.get());
+        assertEquals(List.of(new DealInventory.StockChange("D2", 0)), inventory.drainChanges());
+        assertEquals(List.of(), inventory.drainChanges());
+    }
+
+    @Test
+    void test_soldOutDealsLeaveActiveResults() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            DataLoader loader = loaderWith(data(1), offHeap);
+            DealInventory inventory = new DealInventory(loader);
+            DealService service = new DealService(loader, new DealFilter(), inventory);
+
+            assertEquals(List.of("D1", "D2"), dealIds(service));
+
+            inventory.claim("D1");
+            inventory.claim("D2");
+
+            List<ActiveDealResponse> active = service.findActiveDeals(NOON);
+            assertEquals(List.of("D1"), active.stream().map(ActiveDealResponse::dealObjectId).toList(), "offHeap=" + offHeap);
+            assertEquals(2, active.get(0).qtyLeft());
+        }
+    }
+
+    @Test
+    void test_refreshKeepsLocalCountUnlessFeedQuantityChanged() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            DataLoader loader = loaderWith(data(5), offHeap);
+            DealInventory inventory = new DealInventory(loader);
+            inventory.claim("D1");
+            inventory.claim("D2");
+            inventory.drainChanges();
+
+            loader.publish(data(9));
+
+            // D1's feed quantity is unchanged, so the claim is kept; D2 was restocked by the feed
+            assertEquals(new DealInventory.ClaimResult(Status.CLAIMED, 1), inventory.claim("D1"), "offHeap=" + offHeap);
+            assertEquals(new DealInventory.ClaimResult(Status.CLAIMED, 8), inventory.claim("D2"), "offHeap=" + offHeap);
+        }
+    }
+
+    private static List<String> dealIds(DealService service) {
+        return service.findActiveDeals(NOON).stream().map(ActiveDealResponse::dealObjectId).toList();
+    }
+}
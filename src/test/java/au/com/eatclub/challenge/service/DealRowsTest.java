@@ -0,0 +1,64 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.api.ActiveDealResponse;
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.DataLoader;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DealRows and its use by DealService.
+ */
+class DealRowsTest {
+
+    private static final Restaurant OPEN = new Restaurant("R1", "Open", "1", null,
+            LocalTime.of(9, 0), LocalTime.of(22, 0), "X", List.of(), List.of(
+            new Deal("D1", 20, true, false, 3, null, null),
+            new Deal("D2", 50, false, true, 2, null, null)));
+
+    private static final Restaurant OTHER = new Restaurant("R2", "Other", "2", null,
+            LocalTime.of(9, 0), LocalTime.of(22, 0), "Y", List.of(), List.of(
+            new Deal("D3", 10, true, false, 1, null, null)));
+
+    @Test
+    void test_rowsSharedAcrossRequests() {
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", false);
+        loader.publish(new ChallengeData(List.of(OPEN)));
+        DealService service = new DealService(loader, new DealFilter(), new DealInventory(loader));
+
+        List<ActiveDealResponse> first = service.findActiveDeals(LocalTime.NOON);
+        List<ActiveDealResponse> second = service.findActiveDeals(LocalTime.NOON);
+        assertEquals(first, second);
+        assertSame(first.get(0), second.get(0));
+        assertSame(first.get(1), second.get(1));
+
+        // A claimed deal gets a copy with the live quantity; the others keep their row
+        service.claim("D2");
+        List<ActiveDealResponse> third = service.findActiveDeals(LocalTime.NOON);
+        assertSame(first.get(0), third.get(0));
+        assertEquals(1, third.get(1).qtyLeft());
+    }
+
+    @Test
+    void test_unchangedRestaurantsKeepRowsAcrossDatasets() {
+        DealRows rows = new DealRows();
+        List<ActiveDealResponse> before = rows.of(new ChallengeData(List.of(OPEN)));
+
+        Restaurant changed = new Restaurant("R1", "Renamed", "1", null,
+                LocalTime.of(9, 0), LocalTime.of(22, 0), "X", List.of(), OPEN.deals());
+        List<ActiveDealResponse> after = rows.of(new ChallengeData(List.of(OTHER, OPEN)));
+        List<ActiveDealResponse> renamed = rows.of(new ChallengeData(List.of(changed)));
+
+        assertEquals(List.of("D3", "D1", "D2"), after.stream().map(ActiveDealResponse::dealObjectId).toList());
+        assertSame(before.get(0), after.get(1));
+        assertSame(before.get(1), after.get(2));
+        assertEquals("Renamed", renamed.get(0).restaurantName());
+    }
+}
@@ -0,0 +1,68 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.loader.ChallengeMapper;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.FeedGenerator;
+import au.com.eatclub.challenge.loader.ServedDataset;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that DealService gives the same answers whether the dataset is held on the heap
+ * or in the off-heap store, and reads the store together with its dataset.
+ */
+class DealServiceOffHeapTest {
+
+    private DealService serviceWith(ChallengeData data, boolean offHeap) {
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", offHeap);
+        loader.publish(data);
+        return new DealService(loader, new DealFilter(), new DealInventory(loader));
+    }
+
+    @Test
+    void test_sameResultsOnHeapAndOffHeap() {
+        ChallengeData data = new ChallengeData(
+                ChallengeMapper.toRestaurants(FeedGenerator.generate(300, 5, 7).restaurants()));
+
+        DealService heap = serviceWith(data, false);
+        DealService offHeap = serviceWith(data, true);
+
+        for (int minute = 0; minute < 24 * 60; minute += 15) {
+            LocalTime t = LocalTime.of(minute / 60, minute % 60);
+            assertEquals(heap.findActiveDeals(t), offHeap.findActiveDeals(t), "at " + t);
+        }
+        assertEquals(heap.calculatePeakTime(), offHeap.calculatePeakTime());
+    }
+
+    /**
+     * A request that starts on one dataset keeps reading that dataset's store, even if a
+     * larger dataset is published meanwhile.
+     */
+    @Test
+    void test_storeReadWithItsDataset() {
+        DataLoader source = new DataLoader(WebClient.create(), "http://unused.invalid", true);
+        ServedDataset small = source.publish(new ChallengeData(
+                ChallengeMapper.toRestaurants(FeedGenerator.generate(20, 2, 1).restaurants())), "v1");
+        ServedDataset large = source.publish(new ChallengeData(
+                ChallengeMapper.toRestaurants(FeedGenerator.generate(200, 5, 2).restaurants())), "v2");
+
+        // The loader has moved on to the large dataset, but the request read the small one
+        DataLoader loader = mock(DataLoader.class);
+        when(loader.dataset()).thenReturn(small);
+        when(loader.offHeapStore()).thenReturn(large.offHeapStore());
+        DealService service = new DealService(loader, new DealFilter(), new DealInventory(loader));
+
+        DealService expected = serviceWith(small.data(), false);
+        for (int minute = 0; minute < 24 * 60; minute += 60) {
+            LocalTime t = LocalTime.of(minute / 60, minute % 60);
+            assertEquals(expected.findActiveDeals(t), service.findActiveDeals(t), "at " + t);
+        }
+    }
+}
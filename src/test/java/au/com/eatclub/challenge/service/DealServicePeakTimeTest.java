@@ -4,6 +4,7 @@ import au.com.eatclub.challenge.domain.ChallengeData;
 import au.com.eatclub.challenge.domain.Deal;
 import au.com.eatclub.challenge.domain.Restaurant;
 import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.ServedDataset;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalTime;
@@ -26,8 +27,8 @@ class DealServicePeakTimeTest {
     private DealService serviceWith(Restaurant... restaurants) {
         // Mock loader to return provided restaurants
         DataLoader loader = mock(DataLoader.class);
-        when(loader.load()).thenReturn(new ChallengeData(List.of(restaurants)));
-        return new DealService(loader, new DealFilter());
+        when(loader.dataset()).thenReturn(new ServedDataset(new ChallengeData(List.of(restaurants)), null, null));
+        return new DealService(loader, new DealFilter(), new DealInventory(loader));
     }
 
     @Test
@@ -0,0 +1,162 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.api.ActiveDealResponse;
+import au.com.eatclub.challenge.api.DealTransitionResponse;
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.ChallengeMapper;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.FeedGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DealTransitions.
+ */
+class DealTransitionsTest {
+
+    private static ChallengeData data() {
+        return new ChallengeData(List.of(
+                new Restaurant("R0", "Lunch", "1", null, LocalTime.of(9, 0), LocalTime.of(17, 0),
+                        "X", List.of(), List.of(
+                        new Deal("D0", 10, true, false, 5, LocalTime.of(12, 0), LocalTime.of(14, 30)),
+                        new Deal("D1", 20, true, false, 0, LocalTime.of(12, 0), LocalTime.of(14, 30)))),
+                new Restaurant("R1", "Late", "2", null, LocalTime.of(18, 0), LocalTime.of(2, 0),
+                        "X", List.of(), List.of(
+                        new Deal("D2", 30, false, true, 4, null, null)))
+        ));
+    }
+
+    private static DataLoader loaderWith(ChallengeData data, boolean offHeap) {
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", offHeap);
+        loader.publish(data);
+        return loader;
+    }
+
+    private static DealTransitions transitionsFor(DataLoader loader) {
+        return new DealTransitions(loader, new DealFilter(), new DealInventory(loader));
+    }
+
+    private static List<String> ids(List<ActiveDealResponse> deals) {
+        return deals.stream().map(ActiveDealResponse::dealObjectId).toList();
+    }
+
+    @Test
+    void test_reportsDealWindowBoundaries() {
+        DealTransitions transitions = transitionsFor(loaderWith(data(), false));
+
+        DealTransitionResponse noon = transitions.at(12 * 60);
+        assertEquals("12:00", noon.time());
+        // D1 also starts at noon, but has nothing left to claim
+        assertEquals(List.of("D0"), ids(noon.activated()));
+        assertEquals(5, noon.activated().get(0).qtyLeft());
+        assertEquals(List.of(), noon.deactivated());
+
+        DealTransitionResponse end = transitions.at(14 * 60 + 30);
+        assertEquals(List.of(), end.activated());
+        assertEquals(List.of("D0", "D1"), end.deactivated());
+
+        DealTransitionResponse quiet = transitions.at(13 * 60);
+        assertTrue(quiet.activated().isEmpty() && quiet.deactivated().isEmpty());
+    }
+
+    @Test
+    void test_reportsWrapAroundOpeningHours() {
+        DealTransitions transitions = transitionsFor(loaderWith(data(), false));
+
+        // The wrap-around rule treats the opening minute itself as closed
+        assertEquals(List.of("D2"), ids(transitions.at(18 * 60 + 1).activated()));
+        assertEquals(List.of("D2"), transitions.at(2 * 60).deactivated());
+    }
+
+    @Test
+    void test_rejectsMinuteOutOfRange() {
+        DealTransitions transitions = transitionsFor(loaderWith(data(), false));
+
+        assertThrows(IllegalArgumentException.class, () -> transitions.at(-1));
+        assertThrows(IllegalArgumentException.class, () -> transitions.at(24 * 60));
+    }
+
+    @Test
+    void test_transitionsReplayActiveDealsOverTheDay() {
+        ChallengeData data = new ChallengeData(
+                ChallengeMapper.toRestaurants(FeedGenerator.generate(300, 5, 11).restaurants()));
+
+        for (boolean offHeap : new boolean[]{false, true}) {
+            DataLoader loader = loaderWith(data, offHeap);
+            DealInventory inventory = new DealInventory(loader);
+            DealService service = new DealService(loader, new DealFilter(), inventory);
+            DealTransitions transitions = new DealTransitions(loader, new DealFilter(), inventory);
+
+            // Starting from the deals active at 23:59, applying each minute's changes in turn
+            // must give exactly the deals active at that minute
+            Set<String> active = new HashSet<>(ids(service.findActiveDeals(LocalTime.of(23, 59))));
+            for (int minute = 0; minute < 24 * 60; minute++) {
+                DealTransitionResponse t = transitions.at(minute);
+                t.deactivated().forEach(active::remove);
+                active.addAll(ids(t.activated()));
+
+                LocalTime time = LocalTime.of(minute / 60, minute % 60);
+                Set<String> expected = service.findActiveDeals(time).stream()
+                        .map(ActiveDealResponse::dealObjectId)
+                        .collect(Collectors.toSet());
+                assertEquals(expected, active, "offHeap=" + offHeap + " at " + time);
+            }
+        }
+    }
+
+    @Test
+    void test_tickSendsTransitionsOrComment() {
+        DealTransitions transitions = transitionsFor(loaderWith(data(), false));
+
+        ServerSentEvent<DealTransitionResponse> noon = transitions.tick(12 * 60);
+        assertEquals("deals", noon.event());
+        assertEquals(List.of("D0"), ids(noon.data().activated()));
+
+        ServerSentEvent<DealTransitionResponse> quiet = transitions.tick(13 * 60);
+        assertNull(quiet.data());
+        assertEquals("13:00", quiet.comment());
+    }
+
+    @Test
+    void test_tickNeverFails() {
+        // Before the first dataset, without fetching it
+        DataLoader empty = new DataLoader(WebClient.create(), "http://unused.invalid", false);
+        assertEquals("12:00", transitionsFor(empty).tick(12 * 60).comment());
+
+        // When the transitions cannot be computed
+        DataLoader failing = mock(DataLoader.class);
+        when(failing.isLoaded()).thenReturn(true);
+        when(failing.dataset()).thenThrow(new IllegalStateException("broken dataset"));
+        ServerSentEvent<DealTransitionResponse> event = transitionsFor(failing).tick(12 * 60);
+        assertNull(event.data());
+        assertEquals("12:00", event.comment());
+    }
+
+    @Test
+    void test_firstTickAtNextMinute() {
+        Clock lastSecond = Clock.fixed(Instant.parse("2026-01-01T12:00:59.500Z"), ZoneOffset.UTC);
+        DataLoader loader = loaderWith(data(), false);
+        DealTransitions transitions = new DealTransitions(loader, new DealFilter(), new DealInventory(loader), lastSecond);
+
+        // A first subscriber in the last second of a minute still gets the next boundary
+        assertEquals(Duration.ofMillis(500), transitions.untilNextMinute(false));
+        // Right after a tick, an early timer does not fire twice for the same boundary
+        assertEquals(Duration.ofMillis(60_500), transitions.untilNextMinute(true));
+    }
+}
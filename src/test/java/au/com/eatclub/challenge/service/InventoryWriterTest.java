@@ -0,0 +1,53 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.DatabaseSaver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that claimed quantities are written back to the deal table in batches.
+ */
+@DataJpaTest
+class InventoryWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    void test_flushWritesEachChangedDealOnce() {
+        ChallengeData data = new ChallengeData(List.of(new Restaurant("R1", "A", "1", null, null, null, "X",
+                List.of(), List.of(new Deal("D1", 20, true, false, 5, null, null),
+                new Deal("D2", 20, true, false, 5, null, null)))));
+        new DatabaseSaver(jdbc, txManager, new SimpleMeterRegistry(), 500).save(data);
+
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", false);
+        loader.publish(data);
+        DealInventory inventory = new DealInventory(loader);
+        InventoryWriter writer = new InventoryWriter(inventory, jdbc);
+
+        inventory.claim("D1");
+        inventory.claim("D1");
+        inventory.claim("D1");
+
+        assertEquals(1, writer.flush());
+        assertEquals(2, jdbc.queryForObject("SELECT qty_left FROM deal WHERE object_id = 'D1'", Integer.class));
+        assertEquals(5, jdbc.queryForObject("SELECT qty_left FROM deal WHERE object_id = 'D2'", Integer.class));
+        assertEquals(0, writer.flush());
+    }
+}
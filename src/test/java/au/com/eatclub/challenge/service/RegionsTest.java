@@ -0,0 +1,115 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.api.ActiveDealResponse;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.RegionFeed;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Regions.
+ */
+class RegionsTest {
+
+    private static String feed(String restaurantId, String dealId) {
+        return """
+                {"restaurants": [{"objectId": "%s", "name": "A", "address1": "1", "suburb": "X",
+                  "cuisines": [], "open": "9:00am", "close": "5:00pm",
+                  "deals": [{"objectId": "%s", "discount": "20", "dineIn": "true", "lightning": "false", "qtyLeft": "3"}]}]}
+                """.formatted(restaurantId, dealId);
+    }
+
+    /**
+     * A client serving one feed per URL; requests for a URL listed in {@code gates} wait for it.
+     */
+    private static WebClient client(Map<String, String> feeds, Map<String, CountDownLatch> gates) {
+        ExchangeFunction exchange = request -> Mono.fromCallable(() -> {
+            String url = request.url().toString();
+            CountDownLatch gate = gates.get(url);
+            if (gate != null) {
+                gate.await(10, TimeUnit.SECONDS);
+            }
+            return ClientResponse.create(HttpStatus.OK)
+                    .header("Content-Type", "application/json")
+                    .body(feeds.get(url))
+                    .build();
+        });
+        return WebClient.builder().exchangeFunction(exchange).build();
+    }
+
+    private static Regions regions(WebClient client) {
+        List<RegionFeed> feeds = List.of(
+                new RegionFeed("melbourne", "http://feeds/melbourne", Duration.ofMinutes(1)),
+                new RegionFeed("sydney", "http://feeds/sydney", Duration.ofMinutes(1)));
+        return new Regions(feeds, feed -> new DataLoader(client, feed.url(), false), new DealFilter());
+    }
+
+    private static void awaitLoaded(Regions.Shard shard) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!shard.isLoaded()) {
+            assertTrue(System.nanoTime() < deadline, "region " + shard.name() + " not loaded");
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<String> ids(List<ActiveDealResponse> deals) {
+        return deals.stream().map(ActiveDealResponse::dealObjectId).toList();
+    }
+
+    @Test
+    void test_eachRegionServesItsOwnFeed() throws InterruptedException {
+        try (Regions regions = regions(client(Map.of(
+                "http://feeds/melbourne", feed("R1", "D1"),
+                "http://feeds/sydney", feed("R2", "D2")), Map.of()))) {
+            regions.start();
+            awaitLoaded(regions.get("melbourne").orElseThrow());
+            awaitLoaded(regions.get("sydney").orElseThrow());
+
+            assertEquals(List.of("D1"), ids(regions.get("melbourne").orElseThrow().service().findActiveDeals(LocalTime.NOON)));
+            assertEquals(List.of("D2"), ids(regions.get("sydney").orElseThrow().service().findActiveDeals(LocalTime.NOON)));
+            assertEquals(List.of("melbourne", "sydney"), List.copyOf(regions.names()));
+            assertTrue(regions.get("perth").isEmpty());
+        }
+    }
+
+    @Test
+    void test_slowRegionDoesNotHoldUpOthers() throws InterruptedException {
+        CountDownLatch sydneyFeed = new CountDownLatch(1);
+        try (Regions regions = regions(client(Map.of(
+                "http://feeds/melbourne", feed("R1", "D1"),
+                "http://feeds/sydney", feed("R2", "D2")), Map.of("http://feeds/sydney", sydneyFeed)))) {
+            regions.start();
+
+            // Sydney's feed has not answered, yet Melbourne is loaded and served
+            awaitLoaded(regions.get("melbourne").orElseThrow());
+            assertEquals(List.of("D1"), ids(regions.get("melbourne").orElseThrow().service().findActiveDeals(LocalTime.NOON)));
+            assertFalse(regions.get("sydney").orElseThrow().isLoaded());
+
+            sydneyFeed.countDown();
+            awaitLoaded(regions.get("sydney").orElseThrow());
+        }
+    }
+
+    @Test
+    void test_rejectsDuplicateRegions() {
+        RegionFeed feed = new RegionFeed("melbourne", "http://feeds/melbourne", Duration.ofMinutes(1));
+        WebClient client = client(Map.of(), Map.of());
+
+        assertThrows(IllegalArgumentException.class, () -> new Regions(List.of(feed, feed),
+                f -> new DataLoader(client, f.url(), false), new DealFilter()));
+        assertThrows(IllegalArgumentException.class, () -> new RegionFeed("Sydney!", "http://x", Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,88 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.api.DealSummaryResponse;
+import au.com.eatclub.challenge.api.RestaurantMatchResponse;
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.DataLoader;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RestaurantSearch.
+ */
+class RestaurantSearchTest {
+
+    private static final ChallengeData DATA = new ChallengeData(List.of(
+            new Restaurant("R0", "Thai Orchid", "1", null, LocalTime.of(11, 0), LocalTime.of(22, 0),
+                    "Richmond", List.of("Thai", "Asian"), List.of(
+                    new Deal("D0", 20, true, false, 5, LocalTime.of(12, 0), LocalTime.of(14, 0)),
+                    new Deal("D1", 30, true, false, 0, null, null),
+                    new Deal("D2", 40, false, true, 2, LocalTime.of(18, 0), LocalTime.of(21, 0)))),
+            new Restaurant("R1", "Crème Café", "2", null, LocalTime.of(7, 0), LocalTime.of(15, 0),
+                    "Fitzroy", List.of("Café"), List.of()),
+            new Restaurant("R2", "Richmond Noodle House", "3", null, LocalTime.of(11, 0), LocalTime.of(21, 0),
+                    "Cremorne", List.of("Asian"), List.of(
+                    new Deal("D3", 10, true, false, 3, null, null)))
+    ));
+
+    private static RestaurantSearch searchFor(boolean offHeap) {
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", offHeap);
+        loader.publish(DATA);
+        return new RestaurantSearch(loader, new DealFilter(), new DealInventory(loader), new DealRows());
+    }
+
+    private static List<String> ids(List<RestaurantMatchResponse> matches) {
+        return matches.stream().map(RestaurantMatchResponse::restaurantObjectId).toList();
+    }
+
+    @Test
+    void test_matchesPrefixesOfNameSuburbAndCuisine() {
+        RestaurantSearch search = searchFor(false);
+
+        assertEquals(List.of("R0", "R2"), ids(search.search("ric", LocalTime.NOON, 10)));
+        assertEquals(List.of("R0", "R2"), ids(search.search("Asian", LocalTime.NOON, 10)));
+        assertEquals(List.of("R2"), ids(search.search("noodle", LocalTime.NOON, 10)));
+        assertEquals(List.of(), ids(search.search("pizza", LocalTime.NOON, 10)));
+    }
+
+    @Test
+    void test_everyTokenMustMatch() {
+        RestaurantSearch search = searchFor(false);
+
+        assertEquals(List.of("R0"), ids(search.search("thai ric", LocalTime.NOON, 10)));
+        assertEquals(List.of("R2"), ids(search.search("asian  CREM", LocalTime.NOON, 10)));
+        assertEquals(List.of(), ids(search.search("thai fitz", LocalTime.NOON, 10)));
+    }
+
+    @Test
+    void test_ignoresCaseAndAccents() {
+        RestaurantSearch search = searchFor(false);
+
+        assertEquals(List.of("R1"), ids(search.search("creme", LocalTime.NOON, 10)));
+        assertEquals(List.of("R1"), ids(search.search("CAFÉ", LocalTime.NOON, 10)));
+        assertEquals(List.of(), ids(search.search("  ,. ", LocalTime.NOON, 10)));
+    }
+
+    @Test
+    void test_includesActiveDealsAndHonoursLimit() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            RestaurantSearch search = searchFor(offHeap);
+
+            List<RestaurantMatchResponse> noon = search.search("thai", LocalTime.NOON, 10);
+            // D1 is sold out and D2 starts in the evening
+            assertEquals(List.of("D0"), noon.get(0).activeDeals().stream().map(DealSummaryResponse::dealObjectId).toList());
+            assertEquals(List.of("D2"), search.search("thai", LocalTime.of(19, 0), 10).get(0).activeDeals()
+                    .stream().map(DealSummaryResponse::dealObjectId).toList());
+            assertEquals(List.of(), search.search("thai", LocalTime.of(23, 0), 10).get(0).activeDeals());
+
+            assertEquals(List.of("R0"), ids(search.search("asian", LocalTime.NOON, 1)));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.api.ActiveDealResponse;
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.ChallengeMapper;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.FeedGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TopDeals.
+ */
+class TopDealsTest {
+
+    private static final ChallengeData DATA = new ChallengeData(List.of(
+            new Restaurant("R0", "Lunch", "1", null, LocalTime.of(9, 0), LocalTime.of(17, 0),
+                    "X", List.of(), List.of(
+                    new Deal("D0", 20, true, false, 5, LocalTime.of(12, 0), LocalTime.of(14, 0)),
+                    new Deal("D1", 50, true, false, 0, null, null),
+                    new Deal("D2", 20, true, true, 1, null, null))),
+            new Restaurant("R1", "All day", "2", null, LocalTime.of(8, 0), LocalTime.of(22, 0),
+                    "X", List.of(), List.of(
+                    new Deal("D3", 30, false, false, 1, null, null),
+                    new Deal("D4", 25, false, false, 10, null, null)))
+    ));
+
+    private static DataLoader loaderWith(ChallengeData data, boolean offHeap) {
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", offHeap);
+        loader.publish(data);
+        return loader;
+    }
+
+    private static TopDeals topDealsFor(DataLoader loader, DealInventory inventory, int depth) {
+        return new TopDeals(loader, new DealTransitions(loader, new DealFilter(), inventory),
+                inventory, new DealRows(), depth);
+    }
+
+    private static List<String> ids(List<ActiveDealResponse> deals) {
+        return deals.stream().map(ActiveDealResponse::dealObjectId).toList();
+    }
+
+    @Test
+    void test_ranksByScore() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            DataLoader loader = loaderWith(DATA, offHeap);
+            TopDeals top = topDealsFor(loader, new DealInventory(loader), TopDeals.DEFAULT_DEPTH);
+
+            // D4 35, D2 31, D3 31 (dataset order breaks the tie), D0 25; D1 is sold out
+            assertEquals(List.of("D4", "D2", "D3", "D0"), ids(top.top(LocalTime.of(12, 30), 10)), "offHeap=" + offHeap);
+            assertEquals(List.of("D4", "D2"), ids(top.top(LocalTime.of(12, 30), 2)));
+            assertEquals(List.of("D4", "D3"), ids(top.top(LocalTime.of(18, 0), 10)));
+            assertEquals(List.of(), ids(top.top(LocalTime.of(23, 0), 10)));
+        }
+    }
+
+    @Test
+    void test_skipsDealsSoldOutSinceTheFeed() {
+        DataLoader loader = loaderWith(DATA, false);
+        DealInventory inventory = new DealInventory(loader);
+        TopDeals top = topDealsFor(loader, inventory, TopDeals.DEFAULT_DEPTH);
+
+        assertEquals(DealInventory.ClaimResult.Status.CLAIMED, inventory.claim("D2").status());
+        inventory.claim("D4");
+        inventory.claim("D4");
+
+        List<ActiveDealResponse> noon = top.top(LocalTime.NOON, 10);
+        assertEquals(List.of("D4", "D3", "D0"), ids(noon));
+        // Claims lower the quantity shown, not the rank
+        assertEquals(8, noon.get(0).qtyLeft());
+    }
+
+    @Test
+    void test_selectsFromTheActiveSetWhenTheListRunsOut() {
+        DataLoader loader = loaderWith(DATA, false);
+        DealInventory inventory = new DealInventory(loader);
+        // Only the best deal of each minute is listed
+        TopDeals top = topDealsFor(loader, inventory, 1);
+
+        inventory.claim("D2");
+        assertEquals(List.of("D4", "D3", "D0"), ids(top.top(LocalTime.NOON, 3)));
+    }
+
+    @Test
+    void test_rebuiltListFollowsLaterSellOuts() {
+        ChallengeData data = new ChallengeData(
+                ChallengeMapper.toRestaurants(FeedGenerator.generate(300, 5, 11).restaurants()));
+        Map<String, Integer> feedScores = new HashMap<>();
+        for (Restaurant r : data.restaurants()) {
+            for (Deal d : r.deals()) {
+                feedScores.put(d.objectId(), TopDeals.score(d.discount(), d.lightning(), d.qtyLeft()));
+            }
+        }
+        Comparator<ActiveDealResponse> byScore = Comparator.comparingInt(
+                (ActiveDealResponse d) -> feedScores.get(d.dealObjectId())).reversed();
+
+        for (boolean offHeap : new boolean[]{false, true}) {
+            DataLoader loader = loaderWith(data, offHeap);
+            DealInventory inventory = new DealInventory(loader);
+            DealService service = new DealService(loader, new DealFilter(), inventory);
+            TopDeals top = topDealsFor(loader, inventory, 8);
+
+            // Sell out the leading deals round after round, past the precomputed list and then
+            // past each rebuilt one
+            for (int round = 0; round < 10; round++) {
+                List<ActiveDealResponse> expected = new ArrayList<>(service.findActiveDeals(LocalTime.NOON));
+                expected.sort(byScore);
+                List<String> best = ids(expected.subList(0, Math.min(5, expected.size())));
+                assertEquals(best, ids(top.top(LocalTime.NOON, 5)), "offHeap=" + offHeap + " round " + round);
+
+                for (String id : best.subList(0, Math.min(3, best.size()))) {
+                    while (inventory.claim(id).status() == DealInventory.ClaimResult.Status.CLAIMED) {
+                        // claim until sold out
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void test_rejectsKOutOfRange() {
+        DataLoader loader = loaderWith(DATA, false);
+        TopDeals top = topDealsFor(loader, new DealInventory(loader), TopDeals.DEFAULT_DEPTH);
+
+        assertThrows(IllegalArgumentException.class, () -> top.top(LocalTime.NOON, 0));
+        assertThrows(IllegalArgumentException.class, () -> top.top(LocalTime.NOON, TopDeals.MAX_K + 1));
+    }
+
+    @Test
+    void test_matchesSortingTheActiveDealsAtEveryMinute() {
+        ChallengeData data = new ChallengeData(
+                ChallengeMapper.toRestaurants(FeedGenerator.generate(300, 5, 7).restaurants()));
+        Comparator<ActiveDealResponse> byScore = Comparator.comparingInt(
+                (ActiveDealResponse d) -> TopDeals.score(d.discount(), d.lightning(), d.qtyLeft())).reversed();
+
+        for (boolean offHeap : new boolean[]{false, true}) {
+            DataLoader loader = loaderWith(data, offHeap);
+            DealInventory inventory = new DealInventory(loader);
+            DealService service = new DealService(loader, new DealFilter(), inventory);
+            TopDeals top = topDealsFor(loader, inventory, 20);
+
+            for (int minute = 0; minute < 24 * 60; minute += 7) {
+                LocalTime time = LocalTime.of(minute / 60, minute % 60);
+                // A stable sort keeps dataset order between equal scores
+                List<ActiveDealResponse> expected = new ArrayList<>(service.findActiveDeals(time));
+                expected.sort(byScore);
+                int k = Math.min(TopDeals.MAX_K, expected.size());
+                assertEquals(expected.subList(0, k), top.top(time, TopDeals.MAX_K),
+                        "offHeap=" + offHeap + " at " + time);
+            }
+        }
+    }
+}
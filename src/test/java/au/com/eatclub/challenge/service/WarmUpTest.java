@@ -0,0 +1,53 @@
+package au.com.eatclub.challenge.service;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.DatasetPublished;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WarmUp.
+ */
+class WarmUpTest {
+
+    private static final ChallengeData DATA = new ChallengeData(List.of(
+            new Restaurant("R0", "Thai Orchid", "1", null, LocalTime.of(11, 0), LocalTime.of(22, 0),
+                    "Richmond", List.of("Thai"), List.of(
+                    new Deal("D0", 20, true, false, 5, null, null)))
+    ));
+
+    private static WarmUp warmUpFor(DataLoader loader) {
+        DealFilter filter = new DealFilter();
+        DealInventory inventory = new DealInventory(loader);
+        DealRows rows = new DealRows();
+        DealTransitions transitions = new DealTransitions(loader, filter, inventory);
+        return new WarmUp(inventory, rows, transitions,
+                new TopDeals(loader, transitions, inventory, rows),
+                new RestaurantSearch(loader, filter, inventory, rows));
+    }
+
+    @Test
+    void test_outOfServiceUntilFirstDatasetIndexed() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", offHeap);
+            WarmUp warmUp = warmUpFor(loader);
+            assertFalse(warmUp.isReady());
+            assertEquals(Status.OUT_OF_SERVICE, warmUp.health().getStatus());
+
+            warmUp.onDatasetPublished(new DatasetPublished(loader.publish(DATA, "v1")));
+
+            assertTrue(warmUp.isReady());
+            assertEquals(Status.UP, warmUp.health().getStatus());
+            assertEquals("v1", warmUp.health().getDetails().get("version"));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package au.com.eatclub.challenge.snapshot;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.ChallengeMapper;
+import au.com.eatclub.challenge.loader.FeedGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link OffHeapDealStore} and its flyweight views.
+ */
+class OffHeapDealStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static ChallengeData generated() {
+        return new ChallengeData(ChallengeMapper.toRestaurants(FeedGenerator.generate(200, 5, 42).restaurants()));
+    }
+
+    /**
+     * Views read back exactly what was stored.
+     */
+    @Test
+    void test_viewsMatchSource() {
+        ChallengeData data = generated();
+        OffHeapDealStore store = OffHeapDealStore.from(data);
+
+        assertEquals(200, store.restaurantCount());
+        assertEquals(1000, store.dealCount());
+
+        OffHeapDealStore.RestaurantView rv = store.restaurantView();
+        OffHeapDealStore.DealView dv = store.dealView();
+        for (int i = 0; i < data.restaurants().size(); i++) {
+            Restaurant r = data.restaurants().get(i);
+            rv.moveTo(i);
+
+            assertEquals(r.objectId(), rv.objectId());
+            assertEquals(r.name(), rv.name());
+            assertEquals(r.suburb(), rv.suburb());
+            assertEquals(r.openTime(), rv.openTime());
+            assertEquals(r.closeTime(), rv.closeTime());
+            assertEquals(r.cuisines(), rv.cuisines());
+            assertEquals(r.deals().size(), rv.endDeal() - rv.firstDeal());
+
+            for (int j = 0; j < r.deals().size(); j++) {
+                Deal d = r.deals().get(j);
+                dv.moveTo(rv.firstDeal() + j);
+
+                assertEquals(d.objectId(), dv.objectId());
+                assertEquals(d.discount(), dv.discount());
+                assertEquals(d.qtyLeft(), dv.qtyLeft());
+                assertEquals(d.dineIn(), dv.dineIn());
+                assertEquals(d.lightning(), dv.lightning());
+                assertEquals(d.availableFrom(), dv.availableFrom());
+                assertEquals(d.availableTo(), dv.availableTo());
+            }
+        }
+    }
+
+    /**
+     * The lazy ChallengeData view materialises the same restaurants as the source.
+     */
+    @Test
+    void test_asChallengeDataEqualsSource() {
+        ChallengeData data = generated();
+
+        assertEquals(data.restaurants(), OffHeapDealStore.from(data).asChallengeData().restaurants());
+    }
+
+    /**
+     * Unknown times are reported as -1 seconds and null LocalTime.
+     */
+    @Test
+    void test_nullTimes() {
+        ChallengeData data = new ChallengeData(List.of(
+                new Restaurant("R1", "A", "1", null, null, LocalTime.NOON, "X", List.of(),
+                        List.of(new Deal("D1", 10, false, false, 1, null, null)))));
+        OffHeapDealStore store = OffHeapDealStore.from(data);
+
+        OffHeapDealStore.RestaurantView r = store.restaurantView().moveTo(0);
+        OffHeapDealStore.DealView d = store.dealView().moveTo(0);
+
+        assertEquals(-1, r.openSecond());
+        assertNull(r.openTime());
+        assertEquals(LocalTime.NOON, r.closeTime());
+        assertNull(r.imageLink());
+        assertEquals(-1, d.availableFromSecond());
+        assertNull(d.availableTo());
+    }
+
+    /**
+     * A snapshot file can be memory-mapped and used directly as a store.
+     */
+    @Test
+    void test_mapSnapshotFile() throws Exception {
+        ChallengeData data = generated();
+        Path file = dir.resolve("deals.snapshot");
+        SnapshotWriter.write(data, file);
+
+        OffHeapDealStore store = OffHeapDealStore.map(file);
+
+        assertEquals(data.restaurants(), store.asChallengeData().restaurants());
+    }
+}
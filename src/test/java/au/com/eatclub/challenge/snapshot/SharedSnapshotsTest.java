@@ -0,0 +1,118 @@
+package au.com.eatclub.challenge.snapshot;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.ChallengeMapper;
+import au.com.eatclub.challenge.loader.DataLoader;
+import au.com.eatclub.challenge.loader.FeedGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SharedSnapshots and loading shared snapshots into a DataLoader.
+ */
+class SharedSnapshotsTest {
+
+    @TempDir
+    Path dir;
+
+    private static ChallengeData generated(long seed) {
+        return new ChallengeData(ChallengeMapper.toRestaurants(FeedGenerator.generate(50, 3, seed).restaurants()));
+    }
+
+    private List<Path> snapshotFiles() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".snapshot")).sorted().toList();
+        }
+    }
+
+    @Test
+    void test_publishesIncreasingVersions() throws Exception {
+        SharedSnapshots publisher = new SharedSnapshots(dir.toString(), "publisher", 2);
+        SharedSnapshots subscriber = new SharedSnapshots(dir.toString(), "subscriber", 2);
+        assertTrue(subscriber.newer().isEmpty());
+
+        SharedSnapshots.Published first = publisher.publish(generated(1), "v1").orElseThrow();
+        assertEquals(1, first.sequence());
+        // The same feed version is not published twice
+        assertTrue(publisher.publish(generated(1), "v1").isEmpty());
+
+        SharedSnapshots.Published seen = subscriber.newer().orElseThrow();
+        assertEquals(first, seen);
+        subscriber.applied(seen);
+        assertTrue(subscriber.newer().isEmpty());
+
+        publisher.publish(generated(2), "v2");
+        SharedSnapshots.Published third = publisher.publish(generated(3), "v3").orElseThrow();
+        assertEquals(third, subscriber.newer().orElseThrow());
+        assertEquals("v3", subscriber.current().orElseThrow().feedVersion());
+
+        // Only the latest two snapshots are kept
+        assertEquals(2, snapshotFiles().size());
+        assertEquals(third.file(), snapshotFiles().get(1));
+    }
+
+    @Test
+    void test_subscribersDoNotPublish() {
+        SharedSnapshots subscriber = new SharedSnapshots(dir.toString(), "subscriber", 3);
+
+        assertTrue(subscriber.isSubscriber());
+        assertTrue(subscriber.publish(generated(1), "v1").isEmpty());
+        assertFalse(new SharedSnapshots("", "subscriber", 3).isSubscriber());
+        assertThrows(IllegalArgumentException.class, () -> new SharedSnapshots(dir.toString(), "leader", 3));
+    }
+
+    @Test
+    void test_loaderServesSharedSnapshot() throws Exception {
+        ChallengeData data = generated(7);
+        SharedSnapshots.Published published = new SharedSnapshots(dir.toString(), "publisher", 3)
+                .publish(data, "v1").orElseThrow();
+
+        for (boolean offHeap : new boolean[]{false, true}) {
+            DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", offHeap);
+            loader.publishSnapshot(published.file(), published.feedVersion());
+
+            assertEquals(data.restaurants(), List.copyOf(loader.load().restaurants()), "offHeap=" + offHeap);
+            assertEquals("v1", loader.version().orElseThrow());
+            assertEquals(offHeap, loader.offHeapStore().isPresent());
+        }
+    }
+
+    @Test
+    void test_heapLoaderKeepsUnchangedRestaurants() throws Exception {
+        ChallengeData data = generated(7);
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", false);
+        loader.publish(data);
+        Path file = dir.resolve("next.snapshot");
+        SnapshotWriter.write(data, file);
+
+        loader.publishSnapshot(file, "v2");
+
+        List<Restaurant> restaurants = loader.load().restaurants();
+        for (int i = 0; i < restaurants.size(); i++) {
+            assertSame(data.restaurants().get(i), restaurants.get(i));
+        }
+    }
+
+    @Test
+    void test_rejectsCorruptSnapshot() throws Exception {
+        Path file = dir.resolve("corrupt.snapshot");
+        SnapshotWriter.write(generated(7), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes, StandardOpenOption.TRUNCATE_EXISTING);
+
+        DataLoader loader = new DataLoader(WebClient.create(), "http://unused.invalid", true);
+        assertThrows(IllegalStateException.class, () -> loader.publishSnapshot(file, "v1"));
+        assertTrue(loader.offHeapStore().isEmpty());
+    }
+}
@@ -0,0 +1,121 @@
+package au.com.eatclub.challenge.snapshot;
+
+import au.com.eatclub.challenge.domain.ChallengeData;
+import au.com.eatclub.challenge.domain.Deal;
+import au.com.eatclub.challenge.domain.Restaurant;
+import au.com.eatclub.challenge.loader.ChallengeMapper;
+import au.com.eatclub.challenge.loader.FeedGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the binary snapshot format ({@link SnapshotWriter} / {@link SnapshotReader}).
+ */
+class SnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * A generated feed survives a write/read round trip unchanged.
+     */
+    @Test
+    void test_roundTripGeneratedFeed() throws Exception {
+        ChallengeData data = new ChallengeData(
+                ChallengeMapper.toRestaurants(FeedGenerator.generate(300, 4, 42).restaurants()));
+        Path file = dir.resolve("deals.snapshot");
+
+        SnapshotWriter.write(data, file);
+        Snapshot snapshot = SnapshotReader.read(file);
+
+        assertEquals(data, snapshot.data());
+        assertFalse(snapshot.createdAt().isAfter(Instant.now()));
+    }
+
+    /**
+     * Nulls in optional fields (times, image link, deal windows) are preserved.
+     */
+    @Test
+    void test_roundTripNulls() {
+        ChallengeData data = new ChallengeData(List.of(
+                new Restaurant("R1", "Name", "Addr", null, null, null, "Suburb", List.of(),
+                        List.of(new Deal("D1", 10, true, false, 0, null, null))),
+                new Restaurant("R2", "Name", "Addr", "img", LocalTime.of(18, 0), LocalTime.of(2, 0), "Suburb",
+                        List.of("Thai", "Pizza"),
+                        List.of(new Deal("D2", 25, false, true, 3, LocalTime.of(22, 0), LocalTime.of(1, 30))))
+        ));
+
+        Snapshot snapshot = SnapshotReader.decode(SnapshotWriter.encode(data, 1234L));
+
+        assertEquals(data, snapshot.data());
+        assertEquals(Instant.ofEpochMilli(1234L), snapshot.createdAt());
+    }
+
+    /**
+     * Repeated strings are stored once and decoded into a single shared instance.
+     */
+    @Test
+    void test_stringsShared() {
+        ChallengeData data = new ChallengeData(List.of(
+                new Restaurant("R1", "A", "1", null, null, null, new String("Carlton"), List.of(new String("Thai")), List.of()),
+                new Restaurant("R2", "B", "2", null, null, null, new String("Carlton"), List.of(new String("Thai")), List.of())
+        ));
+
+        List<Restaurant> restored = SnapshotReader.decode(SnapshotWriter.encode(data, 0)).data().restaurants();
+
+        assertSame(restored.get(0).suburb(), restored.get(1).suburb());
+        assertSame(restored.get(0).cuisines().getFirst(), restored.get(1).cuisines().getFirst());
+    }
+
+    /**
+     * Files that are not snapshots, have another version or are corrupted are rejected.
+     */
+    @Test
+    void test_rejectsInvalidFiles() {
+        ChallengeData data = new ChallengeData(List.of(
+                new Restaurant("R1", "A", "1", null, null, null, "X", List.of(), List.of())));
+
+        ByteBuffer badMagic = SnapshotWriter.encode(data, 0);
+        badMagic.putInt(0, 0xCAFEBABE);
+        assertThrows(IllegalStateException.class, () -> SnapshotReader.decode(badMagic));
+
+        ByteBuffer badVersion = SnapshotWriter.encode(data, 0);
+        badVersion.putShort(4, (short) 99);
+        assertThrows(IllegalStateException.class, () -> SnapshotReader.decode(badVersion));
+
+        ByteBuffer corrupted = SnapshotWriter.encode(data, 0);
+        int last = corrupted.capacity() - 1;
+        corrupted.put(last, (byte) (corrupted.get(last) ^ 0xFF));
+        assertThrows(IllegalStateException.class, () -> SnapshotReader.decode(corrupted));
+    }
+
+    /**
+     * The store treats a missing or unreadable snapshot as absent and never throws.
+     */
+    @Test
+    void test_storeFallsBackOnBadSnapshot() throws Exception {
+        Path file = dir.resolve("deals.snapshot");
+        SnapshotStore store = new SnapshotStore(file.toString());
+        assertTrue(store.read().isEmpty());
+
+        Files.writeString(file, "not a snapshot");
+        assertTrue(store.read().isEmpty());
+
+        ChallengeData data = new ChallengeData(List.of(
+                new Restaurant("R1", "A", "1", null, null, null, "X", List.of(), List.of())));
+        store.write(data);
+        assertEquals(data, store.read().orElseThrow().data());
+
+        assertFalse(new SnapshotStore("").isEnabled());
+        assertTrue(new SnapshotStore("").read().isEmpty());
+    }
+}